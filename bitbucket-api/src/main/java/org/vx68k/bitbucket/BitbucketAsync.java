@@ -0,0 +1,115 @@
+/*
+ * BitbucketAsync.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Asynchronous companion of {@link Bitbucket}.
+ * Each method returns immediately with a {@link CompletionStage} that will
+ * be completed when the response arrives.
+ *
+ * @author Kaz Nishimura
+ * @see Bitbucket
+ * @since 6.0
+ */
+public interface BitbucketAsync
+{
+    /**
+     * Returns an account resource for a user asynchronously.
+     *
+     * @param name the name of a user
+     * @return a completion stage of an account resource for a user, which
+     * will be completed with {@code null} if not found
+     * @see Bitbucket#getUserAccount(String)
+     */
+    CompletionStage<BitbucketUserAccount> getUserAccountAsync(String name);
+
+    /**
+     * Returns an account resource for a team asynchronously.
+     *
+     * @param name the name of a team
+     * @return a completion stage of an account resource for a team, which
+     * will be completed with {@code null} if not found
+     * @see Bitbucket#getTeamAccount(String)
+     */
+    CompletionStage<BitbucketAccount> getTeamAccountAsync(String name);
+
+    /**
+     * Finds a repository asynchronously.
+     *
+     * @param owner the owner of a repository
+     * @param name the name of a repository
+     * @return a completion stage of a repository, which will be completed
+     * with {@code null} if not found
+     * @see Bitbucket#getRepository(BitbucketAccount, String)
+     */
+    CompletionStage<BitbucketRepository> getRepositoryAsync(
+        BitbucketAccount owner, String name);
+
+    /**
+     * Finds a repository asynchronously.
+     *
+     * @param ownerName the owner name of a repository
+     * @param name the name of a repository
+     * @return a completion stage of a repository, which will be completed
+     * with {@code null} if not found
+     * @see Bitbucket#getRepository(String, String)
+     */
+    CompletionStage<BitbucketRepository> getRepositoryAsync(
+        String ownerName, String name);
+
+    /**
+     * Finds a repository asynchronously.
+     *
+     * @param fullName the full name of a repository
+     * @return a completion stage of a repository, which will be completed
+     * with {@code null} if not found
+     * @see Bitbucket#getRepository(String)
+     */
+    CompletionStage<BitbucketRepository> getRepositoryAsync(String fullName);
+
+    /**
+     * Retrieves an issue asynchronously.
+     *
+     * @param fullName a full name of a repository
+     * @param id an issue identifier
+     * @return a completion stage of an issue, which will be completed with
+     * {@code null} if not found
+     * @see Bitbucket#getIssue(String, int)
+     */
+    CompletionStage<BitbucketIssue> getIssueAsync(String fullName, int id);
+
+    /**
+     * Retrieves a list of issues that match a filter asynchronously.
+     * The returned stage will be completed when the first page has arrived.
+     *
+     * @param fullName a full name of a repository
+     * @param filter a filter expression, or {@code null}
+     * @return a completion stage of a list of issues that match the given
+     * filter, which will be completed with {@code null} if the repository
+     * is not found
+     * @see Bitbucket#getIssues(String, String)
+     */
+    CompletionStage<List<BitbucketIssue>> getIssuesAsync(String fullName,
+        String filter);
+}
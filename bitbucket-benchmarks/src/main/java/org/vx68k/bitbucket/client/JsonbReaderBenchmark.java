@@ -0,0 +1,147 @@
+/*
+ * JsonbReaderBenchmark.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vx68k.bitbucket.client.bind.ModelReaders;
+import org.vx68k.bitbucket.client.internal.ClientRepository;
+import org.vx68k.bitbucket.client.util.JsonbMessageBodyReader;
+
+/**
+ * Benchmarks of reading a response entity with JSON-B.
+ * Run with {@code -prof gc} to see the allocation rates.
+ *
+ * @author Kaz Nishimura
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonbReaderBenchmark
+{
+    private byte[] content;
+
+    private byte[] ownedContent;
+
+    @Setup
+    public void setUp()
+    {
+        String href = "https://api.bitbucket.org/2.0/repositories/vx68k/test";
+        JsonObject repository = Json.createObjectBuilder()
+            .add("type", "repository")
+            .add("uuid", "{da0453e5-4546-445a-adde-95e3a505e875}")
+            .add("full_name", "vx68k/test")
+            .add("name", "test")
+            .add("scm", "git")
+            .add("is_private", false)
+            .add("description", "Test repository")
+            .add("created_on", "2018-01-01T00:00:00.000000+00:00")
+            .add("updated_on", "2020-01-01T00:00:00.000000+00:00")
+            .add("links", Json.createObjectBuilder()
+                .add("self", Json.createObjectBuilder().add("href", href))
+                .add("html", Json.createObjectBuilder()
+                    .add("href", "https://bitbucket.org/vx68k/test")))
+            .build();
+        content = repository.toString().getBytes(StandardCharsets.UTF_8);
+        ownedContent = Json.createObjectBuilder(repository)
+            .add("owner", Json.createObjectBuilder()
+                .add("uuid", "{2d3b5d2e-1b7c-4c4e-8f1e-5d8c7b6a5f4e}")
+                .add("username", "vx68k")
+                .add("display_name", "VX68k")
+                .add("links", Json.createObjectBuilder()
+                    .add("self", Json.createObjectBuilder()
+                        .add("href", href)))
+                .add("type", "team"))
+            .build().toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a response the former way, building a JSON binding object for
+     * it and closing it afterwards.
+     *
+     * @return the repository
+     * @throws Exception if an error occurred
+     */
+    @Benchmark
+    public ClientRepository perResponseJsonb() throws Exception
+    {
+        try (Jsonb jsonb = JsonbBuilder.newBuilder().build()) {
+            return jsonb.fromJson(new ByteArrayInputStream(content),
+                ClientRepository.class);
+        }
+    }
+
+    /**
+     * Reads a response with the shared JSON binding object that {@link
+     * JsonbMessageBodyReader} uses.
+     *
+     * @return the repository
+     */
+    @Benchmark
+    public ClientRepository sharedJsonb()
+    {
+        return JsonbMessageBodyReader.getDefaultJsonb().fromJson(
+            new ByteArrayInputStream(content), ClientRepository.class);
+    }
+
+    /**
+     * Reads a response that has an owner account, whose concrete class is
+     * chosen by its type, with the shared JSON binding object.
+     *
+     * @return the repository
+     */
+    @Benchmark
+    public ClientRepository sharedJsonbWithOwner()
+    {
+        return JsonbMessageBodyReader.getDefaultJsonb().fromJson(
+            new ByteArrayInputStream(ownedContent), ClientRepository.class);
+    }
+
+    /**
+     * Reads a response that has an owner account with the model reader.
+     *
+     * @return the repository
+     */
+    @Benchmark
+    public ClientRepository modelReaderWithOwner()
+    {
+        return ModelReaders.read(ModelReaders.get(ClientRepository.class),
+            new ByteArrayInputStream(ownedContent));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * LazyContentBenchmark.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vx68k.bitbucket.BitbucketIssue;
+import org.vx68k.bitbucket.client.internal.ClientIssue;
+
+/**
+ * Benchmarks of binding a listing of 10,000 issues with long bodies with
+ * and without the lazy content mode.
+ * Run with {@code -prof gc} to see the allocation rates, and run {@link
+ * #main} to see the heap retained by the listing.
+ *
+ * @author Kaz Nishimura
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LazyContentBenchmark
+{
+    /**
+     * Number of values in a page.
+     */
+    private static final int PAGE_LENGTH = 100;
+
+    /**
+     * Number of pages.
+     */
+    private static final int PAGES = 100;
+
+    private List<byte[]> contents;
+
+    /**
+     * Builds the pages of the listing.
+     *
+     * @return the contents of the pages
+     */
+    static List<byte[]> createContents()
+    {
+        StringBuilder raw = new StringBuilder();
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            // The curly quote makes a Java string of the text use UTF-16.
+            String line = "Step " + i + ": the client doesn’t retry "
+                + "the request when the server returns *503*.";
+            raw.append(line).append("\n\n");
+            html.append("<p>").append(line.replace("*503*",
+                "<em>503</em>")).append("</p>\n");
+        }
+
+        List<byte[]> pages = new ArrayList<>(PAGES);
+        for (int p = 0; p < PAGES; p++) {
+            JsonArrayBuilder values = Json.createArrayBuilder();
+            for (int i = 0; i < PAGE_LENGTH; i++) {
+                int id = p * PAGE_LENGTH + i + 1;
+                values.add(Json.createObjectBuilder()
+                    .add("type", "issue")
+                    .add("id", id)
+                    .add("title", "Issue number " + id)
+                    .add("kind", "bug")
+                    .add("priority", "major")
+                    .add("state", "open")
+                    .add("created_on", "2020-01-01T00:00:00.000000+00:00")
+                    .add("content", Json.createObjectBuilder()
+                        .add("type", "rendered")
+                        .add("markup", "markdown")
+                        .add("raw", raw.toString())
+                        .add("html", html.toString())));
+            }
+            pages.add(Json.createObjectBuilder()
+                .add("size", PAGES * PAGE_LENGTH)
+                .add("page", p + 1)
+                .add("pagelen", PAGE_LENGTH)
+                .add("values", values)
+                .build().toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return pages;
+    }
+
+    /**
+     * Binds all the pages of the listing.
+     *
+     * @param contents the contents of the pages
+     * @param lazyContent {@code true} to enable the lazy content mode
+     * @return the issues
+     */
+    static List<BitbucketIssue> bind(final List<byte[]> contents,
+        final boolean lazyContent)
+    {
+        PageBinder<BitbucketIssue> binder =
+            new PageBinder<>(ClientIssue.class);
+        binder.setLazyContent(lazyContent);
+        List<BitbucketIssue> issues = new ArrayList<>(PAGES * PAGE_LENGTH);
+        for (byte[] content : contents) {
+            issues.addAll(binder.bind(content).getValues());
+        }
+        return issues;
+    }
+
+    @Setup
+    public void setUp()
+    {
+        contents = createContents();
+    }
+
+    /**
+     * Binds the listing decoding all the rendered texts.
+     *
+     * @return the issues
+     */
+    @Benchmark
+    public List<BitbucketIssue> eager()
+    {
+        return bind(contents, false);
+    }
+
+    /**
+     * Binds the listing in the lazy content mode.
+     *
+     * @return the issues
+     */
+    @Benchmark
+    public List<BitbucketIssue> lazy()
+    {
+        return bind(contents, true);
+    }
+
+    /**
+     * Prints the heap retained by the listing in each mode.
+     *
+     * @param args ignored
+     */
+    public static void main(final String[] args)
+    {
+        List<byte[]> contents = createContents();
+        long total = 0;
+        for (byte[] content : contents) {
+            total += content.length;
+        }
+        System.out.printf("content: %,d bytes%n", total);
+
+        for (boolean lazyContent : new boolean[] {false, true, false, true}) {
+            long before = usedMemory();
+            List<BitbucketIssue> issues = bind(contents, lazyContent);
+            long after = usedMemory();
+            System.out.printf("%s: %,d bytes retained by %,d issues%n",
+                lazyContent ? "lazy" : "eager", after - before,
+                issues.size());
+        }
+    }
+
+    /**
+     * Returns the heap used after a garbage collection.
+     *
+     * @return the used heap in bytes
+     */
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
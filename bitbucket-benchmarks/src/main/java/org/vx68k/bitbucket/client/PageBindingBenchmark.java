@@ -0,0 +1,156 @@
+/*
+ * PageBindingBenchmark.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of binding a page of a paginated resource.
+ * Run with {@code -prof gc} to see the allocation rates.
+ *
+ * @author Kaz Nishimura
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageBindingBenchmark
+{
+    /**
+     * Number of values in a page.
+     */
+    private static final int PAGE_LENGTH = 50;
+
+    private byte[] content;
+
+    private PageBinder<Item> binder;
+
+    /**
+     * Value of a page.
+     */
+    public static class Item
+    {
+        public String type;
+
+        public int id;
+
+        public String title;
+
+        public String state;
+
+        public Owner reporter;
+    }
+
+    /**
+     * Nested value of a page.
+     */
+    public static class Owner
+    {
+        public String type;
+
+        public String uuid;
+
+        public String nickname;
+    }
+
+    @Setup
+    public void setUp()
+    {
+        JsonArrayBuilder values = Json.createArrayBuilder();
+        for (int i = 0; i < PAGE_LENGTH; i++) {
+            values.add(Json.createObjectBuilder()
+                .add("type", "issue")
+                .add("id", i)
+                .add("title", "Issue number " + i)
+                .add("state", "open")
+                .add("reporter", Json.createObjectBuilder()
+                    .add("type", "user")
+                    .add("uuid", "{2d3b5d2e-1b7c-4c4e-8f1e-5d8c7b6a5f4e}")
+                    .add("nickname", "user" + i)));
+        }
+        content = Json.createObjectBuilder()
+            .add("size", 10 * PAGE_LENGTH)
+            .add("page", 1)
+            .add("pagelen", PAGE_LENGTH)
+            .add("values", values)
+            .add("next", "https://example.com/?page=2")
+            .build().toString().getBytes(StandardCharsets.UTF_8);
+        binder = new PageBinder<>(Item.class);
+    }
+
+    /**
+     * Binds a page the former way, parsing it into a JSON structure and
+     * converting each value to a string and back with a new JSON binding
+     * object.
+     *
+     * @return the values
+     * @throws Exception if an error occurred
+     */
+    @Benchmark
+    public List<Item> jsonRoundTrip() throws Exception
+    {
+        JsonObject json;
+        try (JsonReader reader =
+            Json.createReader(new ByteArrayInputStream(content))) {
+            json = reader.readObject();
+        }
+        List<Item> items = new ArrayList<>();
+        try (Jsonb jsonb = JsonbBuilder.newBuilder().build()) {
+            json.getJsonArray("values").stream()
+                .map((t) -> jsonb.fromJson(jsonb.toJson(t), Item.class))
+                .forEachOrdered(items::add);
+        }
+        return items;
+    }
+
+    /**
+     * Binds a page with {@link PageBinder} in a single pass.
+     *
+     * @return the values
+     */
+    @Benchmark
+    public List<Item> pageBinder()
+    {
+        return binder.bind(content).getValues();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * PaginatedListBenchmark.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of random access to {@link PaginatedList}.
+ *
+ * @author Kaz Nishimura
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginatedListBenchmark
+{
+    /**
+     * Number of values in a page.
+     */
+    private static final int PAGE_LENGTH = 100;
+
+    /**
+     * Number of values.
+     */
+    @Param({"1000", "20000"})
+    private int size;
+
+    private List<Item> paginatedList;
+
+    private List<Item> linkedList;
+
+    /**
+     * Value of the list.
+     */
+    public static class Item
+    {
+        public int id;
+    }
+
+    @Setup
+    public void setUp()
+    {
+        PaginatedList<Item> list =
+            new PaginatedList<>((ClientTransport) null, (URI) null,
+                Item.class);
+        for (int start = 0; start < size; start += PAGE_LENGTH) {
+            JsonArrayBuilder values = Json.createArrayBuilder();
+            for (int i = start; i < Math.min(start + PAGE_LENGTH, size); i++) {
+                values.add(Json.createObjectBuilder().add("id", i));
+            }
+            JsonObjectBuilder page = Json.createObjectBuilder()
+                .add("size", size)
+                .add("values", values);
+            if (start + PAGE_LENGTH < size) {
+                page.add("next", URI.create("https://example.com/?page="
+                    + (start / PAGE_LENGTH + 2)).toString());
+            }
+            list.addPage(page.build().toString()
+                .getBytes(StandardCharsets.UTF_8));
+        }
+        paginatedList = list;
+        linkedList = new LinkedList<>(list);
+    }
+
+    /**
+     * Sums the values of {@link PaginatedList} with an index loop.
+     *
+     * @return the sum
+     */
+    @Benchmark
+    public long indexLoopPaginatedList()
+    {
+        return sum(paginatedList);
+    }
+
+    /**
+     * Sums the values of {@link LinkedList}, the former element store, with
+     * an index loop.
+     *
+     * @return the sum
+     */
+    @Benchmark
+    public long indexLoopLinkedList()
+    {
+        return sum(linkedList);
+    }
+
+    private static long sum(final List<Item> list)
+    {
+        long sum = 0;
+        int n = list.size();
+        for (int i = 0; i < n; i++) {
+            sum += list.get(i).id;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * TimestampBenchmark.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vx68k.bitbucket.client.bind.TimestampDecoder;
+
+/**
+ * Benchmarks of decoding a timestamp of the Bitbucket Cloud REST API.
+ * Run with {@code -prof gc} to see the allocation rates.
+ *
+ * @author Kaz Nishimura
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampBenchmark
+{
+    /**
+     * Formatter of the pattern of the date formats of the model classes.
+     */
+    private static final DateTimeFormatter FORMATTER =
+        DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss[.SSSSSSSSS]xx");
+
+    private String text = "2015-01-25T00:50:30.346399+09:00";
+
+    private String formatterText = "2015-01-25T00:50:30.346399000+0900";
+
+    /**
+     * Parses a timestamp with the ISO formatter, as JSON-B does.
+     *
+     * @return the timestamp
+     */
+    @Benchmark
+    public OffsetDateTime isoFormatter()
+    {
+        return OffsetDateTime.parse(text);
+    }
+
+    /**
+     * Parses a timestamp with the pattern of the date formats.
+     *
+     * @return the timestamp
+     */
+    @Benchmark
+    public OffsetDateTime patternFormatter()
+    {
+        return OffsetDateTime.parse(formatterText, FORMATTER);
+    }
+
+    /**
+     * Decodes a timestamp with {@link TimestampDecoder}.
+     *
+     * @return the timestamp
+     */
+    @Benchmark
+    public OffsetDateTime timestampDecoder()
+    {
+        return TimestampDecoder.decode(text);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * UUIDBenchmark.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vx68k.bitbucket.client.adapter.UUIDAdapter;
+
+/**
+ * Benchmarks of decoding a UUID enclosed in braces.
+ * Run with {@code -prof gc} to see the allocation rates.
+ *
+ * @author Kaz Nishimura
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UUIDBenchmark
+{
+    private String text = "{da0453e5-4546-445a-adde-95e3a505e875}";
+
+    /**
+     * Decodes a UUID the former way, with a substring and {@link
+     * UUID#fromString}.
+     *
+     * @return the UUID
+     */
+    @Benchmark
+    public UUID substring()
+    {
+        return UUID.fromString(text.substring(1, text.length() - 1));
+    }
+
+    /**
+     * Decodes a UUID with {@link UUIDAdapter#decode}.
+     *
+     * @return the UUID
+     */
+    @Benchmark
+    public UUID decode()
+    {
+        return UUIDAdapter.decode(text, false);
+    }
+
+    /**
+     * Decodes a repeated UUID with {@link UUIDAdapter#decode} and interns
+     * it.
+     *
+     * @return the UUID
+     */
+    @Benchmark
+    public UUID decodeInterned()
+    {
+        return UUIDAdapter.decode(text, true);
+    }
+}
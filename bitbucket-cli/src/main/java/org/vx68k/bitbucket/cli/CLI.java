@@ -59,7 +59,8 @@ public class CLI extends CommandGroup
             commandName = commandName.substring(lastSlash + 1);
         }
 
-        CLI cli = new CLI(new BitbucketClient());
+        BitbucketClient bitbucketClient = new BitbucketClient();
+        CLI cli = new CLI(bitbucketClient);
         try {
             cli.run(commandName, args);
         }
@@ -69,5 +70,8 @@ public class CLI extends CommandGroup
         catch (final Exception exception) {
             System.err.println(exception);
         }
+        finally {
+            bitbucketClient.close();
+        }
     }
 }
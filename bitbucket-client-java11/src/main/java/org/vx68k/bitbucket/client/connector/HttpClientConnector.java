@@ -0,0 +1,308 @@
+/*
+ * HttpClientConnector.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.connector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+/**
+ * Jersey connector that makes exchanges with {@code
+ * java.net.http.HttpClient}.
+ * A single {@link HttpClient} object is shared by all the requests of a
+ * client, so that concurrent requests to a host are multiplexed over one
+ * HTTP/2 connection where the server supports it.
+ * Response entities are streamed without being buffered.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class HttpClientConnector implements Connector
+{
+    /**
+     * Request headers that {@link HttpClient} manages by itself.
+     */
+    private static final Set<String> RESTRICTED_HEADERS =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "upgrade")));
+
+    /**
+     * Shared HTTP client.
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * Read timeout, or {@code null} if none.
+     */
+    private final Duration readTimeout;
+
+    /**
+     * Constructs a connector.
+     *
+     * @param client a JAX-RS client
+     * @param configuration the runtime configuration of the client
+     */
+    public HttpClientConnector(final Client client,
+        final Configuration configuration)
+    {
+        Map<String, Object> properties = configuration.getProperties();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2);
+
+        int connectTimeout = ClientProperties.getValue(properties,
+            ClientProperties.CONNECT_TIMEOUT, 0, Integer.class);
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+        if (ClientProperties.getValue(properties,
+            ClientProperties.FOLLOW_REDIRECTS, true, Boolean.class)) {
+            builder.followRedirects(HttpClient.Redirect.NORMAL);
+        }
+        SSLContext sslContext = client.getSslContext();
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        this.httpClient = builder.build();
+
+        int timeout = ClientProperties.getValue(properties,
+            ClientProperties.READ_TIMEOUT, 0, Integer.class);
+        if (timeout > 0) {
+            this.readTimeout = Duration.ofMillis(timeout);
+        }
+        else {
+            this.readTimeout = null;
+        }
+    }
+
+    /**
+     * Returns the shared HTTP client.
+     *
+     * @return the shared HTTP client
+     */
+    public final HttpClient getHttpClient()
+    {
+        return httpClient;
+    }
+
+    @Override
+    public final ClientResponse apply(final ClientRequest request)
+    {
+        HttpRequest httpRequest = toHttpRequest(request);
+        try {
+            return toClientResponse(request, httpClient.send(httpRequest,
+                HttpResponse.BodyHandlers.ofInputStream()));
+        }
+        catch (final IOException e) {
+            throw new ProcessingException(e);
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        }
+    }
+
+    @Override
+    public final Future<?> apply(final ClientRequest request,
+        final AsyncConnectorCallback callback)
+    {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = toHttpRequest(request);
+        }
+        catch (final ProcessingException e) {
+            callback.failure(e);
+            return failed(e);
+        }
+        return httpClient.sendAsync(httpRequest,
+            HttpResponse.BodyHandlers.ofInputStream())
+            .whenComplete((response, exception) -> {
+                if (exception != null) {
+                    Throwable cause = exception;
+                    if (cause instanceof CompletionException
+                        && cause.getCause() != null) {
+                        cause = cause.getCause();
+                    }
+                    callback.failure(cause);
+                }
+                else {
+                    try {
+                        callback.response(toClientResponse(request, response));
+                    }
+                    catch (final RuntimeException e) {
+                        callback.failure(e);
+                    }
+                }
+            });
+    }
+
+    @Override
+    public final String getName()
+    {
+        return HttpClientTransportProvider.NAME;
+    }
+
+    /**
+     * Does nothing as {@link HttpClient} releases its resources when it is
+     * no longer referenced.
+     */
+    @Override
+    public void close()
+    {
+    }
+
+    /**
+     * Converts a Jersey request to an HTTP request.
+     * The entity is written before the headers are copied as writer
+     * interceptors may change them.
+     *
+     * @param request a Jersey request
+     * @return an HTTP request
+     */
+    private HttpRequest toHttpRequest(final ClientRequest request)
+    {
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+        if (request.hasEntity()) {
+            ByteArrayOutputStream entity = new ByteArrayOutputStream();
+            request.setStreamProvider((contentLength) -> entity);
+            try {
+                request.writeEntity();
+            }
+            catch (final IOException e) {
+                throw new ProcessingException(e);
+            }
+            body = HttpRequest.BodyPublishers.ofByteArray(
+                entity.toByteArray());
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+            .method(request.getMethod(), body);
+        if (readTimeout != null) {
+            builder.timeout(readTimeout);
+        }
+        MultivaluedMap<String, String> headers = request.getStringHeaders();
+        headers.forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach((value) -> builder.header(name, value));
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Converts an HTTP response to a Jersey response.
+     *
+     * @param request the Jersey request
+     * @param response an HTTP response
+     * @return a Jersey response
+     */
+    private static ClientResponse toClientResponse(
+        final ClientRequest request, final HttpResponse<InputStream> response)
+    {
+        ClientResponse clientResponse = new ClientResponse(
+            getStatusInfo(response.statusCode()), request, response.uri());
+        MultivaluedMap<String, String> headers = clientResponse.getHeaders();
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                List<String> list = headers.get(name);
+                if (list == null) {
+                    headers.put(name, new ArrayList<>(values));
+                }
+                else {
+                    list.addAll(values);
+                }
+            }
+        });
+        clientResponse.setEntityStream(response.body());
+        return clientResponse;
+    }
+
+    /**
+     * Returns the status information for a status code.
+     *
+     * @param statusCode a status code
+     * @return the status information
+     */
+    private static Response.StatusType getStatusInfo(final int statusCode)
+    {
+        Response.Status status = Response.Status.fromStatusCode(statusCode);
+        if (status != null) {
+            return status;
+        }
+        return new Response.StatusType() {
+            @Override
+            public int getStatusCode()
+            {
+                return statusCode;
+            }
+
+            @Override
+            public Response.Status.Family getFamily()
+            {
+                return Response.Status.Family.familyOf(statusCode);
+            }
+
+            @Override
+            public String getReasonPhrase()
+            {
+                return "";
+            }
+        };
+    }
+
+    /**
+     * Returns a future that has failed.
+     *
+     * @param exception an exception
+     * @return a future that has failed
+     */
+    private static Future<?> failed(final Throwable exception)
+    {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * HttpClientConnectorProvider.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.connector;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Configuration;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.JerseyClientBuilder;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+/**
+ * Jersey connector provider for {@link HttpClientConnector}.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class HttpClientConnectorProvider implements ConnectorProvider
+{
+    /**
+     * Returns a new Jersey client builder configured with this connector
+     * provider.
+     *
+     * @return a new client builder
+     */
+    public static ClientBuilder newClientBuilder()
+    {
+        return new JerseyClientBuilder().withConfig(new ClientConfig()
+            .connectorProvider(new HttpClientConnectorProvider()));
+    }
+
+    @Override
+    public final Connector getConnector(final Client client,
+        final Configuration runtimeConfig)
+    {
+        return new HttpClientConnector(client, runtimeConfig);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * HttpClientTransportProvider.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.connector;
+
+import javax.ws.rs.client.ClientBuilder;
+import org.vx68k.bitbucket.client.TransportProvider;
+
+/**
+ * Transport provider that makes exchanges with {@code
+ * java.net.http.HttpClient}.
+ * Concurrent requests to a host are multiplexed over a single HTTP/2
+ * connection where the server supports it.
+ * This provider is available with Jersey.
+ * It refers to Jersey only when a client builder is requested, so that it
+ * can be looked up safely without Jersey.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class HttpClientTransportProvider implements TransportProvider
+{
+    /**
+     * Name of this provider.
+     */
+    public static final String NAME = "java.net.http";
+
+    @Override
+    public final String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public final boolean isAvailable()
+    {
+        ClassLoader loader = HttpClientTransportProvider.class.getClassLoader();
+        try {
+            Class.forName("java.net.http.HttpClient", false, loader);
+            Class.forName("org.glassfish.jersey.client.JerseyClientBuilder",
+                false, loader);
+        }
+        catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ClientBuilder newClientBuilder()
+    {
+        if (!isAvailable()) {
+            throw new IllegalStateException(NAME + " is not available");
+        }
+        return HttpClientConnectorProvider.newClientBuilder();
+    }
+}
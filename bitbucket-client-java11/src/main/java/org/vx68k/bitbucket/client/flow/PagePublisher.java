@@ -0,0 +1,313 @@
+/*
+ * PagePublisher.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.flow;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.vx68k.bitbucket.client.BitbucketClient;
+import org.vx68k.bitbucket.client.Page;
+import org.vx68k.bitbucket.client.PageCursor;
+
+/**
+ * Publisher of the values of a paginated resource.
+ * Pages are fetched asynchronously and only while a subscriber has
+ * outstanding demand that the current page cannot satisfy, so that each
+ * subscription holds at most one page at a time however slow the
+ * subscriber is.
+ * Each subscription makes a sweep of its own from the cursor given to the
+ * publisher.
+ *
+ * @author Kaz Nishimura
+ * @param <T> the type of the values
+ * @see BitbucketClient#getCursor(java.net.URI,
+ * java.util.function.UnaryOperator, int)
+ * @see BitbucketClient#getPageAsync(PageCursor, Class)
+ * @since 6.0
+ */
+public final class PagePublisher<T> implements Flow.Publisher<T>
+{
+    /**
+     * Client that fetches the pages.
+     */
+    private final BitbucketClient client;
+
+    /**
+     * Cursor from which each subscription starts.
+     */
+    private final PageCursor cursor;
+
+    /**
+     * Runtime type of the values.
+     */
+    private final Class<? extends T> type;
+
+    /**
+     * Constructs a publisher that fetches pages with a client.
+     * The lazy content mode and the page length controller of the client
+     * apply to the pages.
+     *
+     * @param client a client
+     * @param cursor a cursor from which each subscription starts
+     * @param type the runtime type of the values
+     */
+    public PagePublisher(final BitbucketClient client, final PageCursor cursor,
+        final Class<? extends T> type)
+    {
+        if (client == null) {
+            throw new IllegalArgumentException("Client is null");
+        }
+        if (cursor == null) {
+            throw new IllegalArgumentException("Cursor is null");
+        }
+        this.client = client;
+        this.cursor = cursor;
+        this.type = type;
+    }
+
+    /**
+     * Returns the cursor from which each subscription starts.
+     *
+     * @return the cursor
+     */
+    public PageCursor getCursor()
+    {
+        return cursor;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber)
+    {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber is null");
+        }
+        subscriber.onSubscribe(new PageSubscription(subscriber));
+    }
+
+    /**
+     * Subscription that fetches pages on demand.
+     * Signals to the subscriber are made only in {@link #drain}, which is
+     * entered by one thread at a time, so that they are serialized whether
+     * they are triggered by a request or by the completion of a fetch.
+     */
+    private final class PageSubscription implements Flow.Subscription
+    {
+        /**
+         * Subscriber of this subscription.
+         */
+        private final Flow.Subscriber<? super T> subscriber;
+
+        /**
+         * Number of values requested and not delivered yet.
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * Number of pending calls of {@link #drain}.
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * Page that has been fetched and not taken yet.
+         */
+        private volatile Page<T> fetched;
+
+        /**
+         * Failure to be signalled, or {@code null}.
+         */
+        private volatile Throwable failure;
+
+        /**
+         * {@code true} if a fetch is in flight.
+         */
+        private volatile boolean fetching = false;
+
+        /**
+         * {@code true} if this subscription was cancelled.
+         */
+        private volatile boolean cancelled = false;
+
+        /**
+         * {@code true} if a terminal signal was made.
+         * This field is accessed only in {@link #drain}.
+         */
+        private boolean done = false;
+
+        /**
+         * Cursor at which the next page is fetched.
+         * This field is accessed only in {@link #drain}.
+         */
+        private PageCursor next = cursor;
+
+        /**
+         * Values of the current page that are not delivered yet.
+         * This field is accessed only in {@link #drain}.
+         */
+        private Iterator<T> values = Collections.emptyIterator();
+
+        /**
+         * Constructs a subscription.
+         *
+         * @param subscriber a subscriber
+         */
+        PageSubscription(final Flow.Subscriber<? super T> subscriber)
+        {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>A non-positive number cancels this subscription and signals
+         * {@link IllegalArgumentException} to the subscriber.</p>
+         */
+        @Override
+        public void request(final long n)
+        {
+            if (n <= 0) {
+                if (failure == null) {
+                    failure = new IllegalArgumentException(
+                        "Non-positive request: " + n);
+                }
+            }
+            else {
+                requested.getAndUpdate((value) -> {
+                    long sum = value + n;
+                    if (sum < 0) {
+                        return Long.MAX_VALUE;
+                    }
+                    return sum;
+                });
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * Delivers values as far as requested, and fetches the next page if
+         * the current one has been exhausted and there is still demand.
+         */
+        private void drain()
+        {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                if (cancelled || done) {
+                    values = Collections.emptyIterator();
+                    fetched = null;
+                }
+                else {
+                    deliver();
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Does the work of {@link #drain} while this subscription is live.
+         */
+        private void deliver()
+        {
+            Page<T> page = fetched;
+            if (page != null) {
+                fetched = null;
+                take(page);
+                fetching = false;
+            }
+
+            long demand = requested.get();
+            long delivered = 0;
+            while (delivered != demand && values.hasNext() && !cancelled) {
+                if (failure != null) {
+                    break;
+                }
+                subscriber.onNext(values.next());
+                delivered += 1;
+            }
+            if (delivered != 0 && demand != Long.MAX_VALUE) {
+                demand = requested.addAndGet(-delivered);
+            }
+
+            Throwable exception = failure;
+            if (exception != null) {
+                done = true;
+                subscriber.onError(exception);
+            }
+            else if (!cancelled && !values.hasNext() && !fetching) {
+                if (next.isExhausted()) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+                else if (demand > 0) {
+                    fetching = true;
+                    fetch(next);
+                }
+            }
+        }
+
+        /**
+         * Makes the values of a fetched page current.
+         *
+         * @param page a fetched page
+         */
+        private void take(final Page<T> page)
+        {
+            values = page.getValues().iterator();
+            next = page.getNext();
+        }
+
+        /**
+         * Fetches a page asynchronously.
+         * The page is handed to {@link #drain} on completion.
+         *
+         * @param at the cursor at which the page is fetched
+         */
+        private void fetch(final PageCursor at)
+        {
+            client.<T>getPageAsync(at, type)
+                .whenComplete((page, exception) -> {
+                    if (exception != null) {
+                        Throwable cause = exception;
+                        if (cause instanceof CompletionException
+                            && cause.getCause() != null) {
+                            cause = cause.getCause();
+                        }
+                        failure = cause;
+                    }
+                    else {
+                        fetched = page;
+                    }
+                    drain();
+                });
+        }
+    }
+}
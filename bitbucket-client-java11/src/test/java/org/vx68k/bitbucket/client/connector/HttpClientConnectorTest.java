@@ -0,0 +1,149 @@
+/*
+ * HttpClientConnectorTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import javax.json.JsonObject;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.client.ClientTransport;
+import org.vx68k.bitbucket.client.util.JsonStructureMessageBodyReader;
+
+/**
+ * Unit tests for {@link HttpClientConnector}.
+ *
+ * @author Kaz Nishimura
+ */
+class HttpClientConnectorTest
+{
+    private static final byte[] BODY =
+        "{\"type\":\"test\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+
+    private URI base;
+
+    private ClientTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", (exchange) -> {
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.createContext("/echo", (exchange) -> {
+            ByteArrayOutputStream entity = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] buffer = new byte[1024];
+                int n;
+                while ((n = in.read(buffer)) >= 0) {
+                    entity.write(buffer, 0, n);
+                }
+            }
+            exchange.getResponseHeaders().add("Content-Type",
+                exchange.getRequestHeaders().getFirst("Content-Type"));
+            exchange.sendResponseHeaders(200, entity.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                entity.writeTo(out);
+            }
+        });
+        server.createContext("/missing", (exchange) -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        base = URI.create(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        HttpClientTransportProvider provider =
+            new HttpClientTransportProvider();
+        assertTrue(provider.isAvailable());
+        transport = new ClientTransport(provider.newClientBuilder()
+            .register(JsonStructureMessageBodyReader.class));
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        transport.close();
+        server.stop(0);
+    }
+
+    /**
+     * Tests synchronous {@code GET} requests.
+     */
+    @Test
+    void testGet1()
+    {
+        JsonObject json = transport.get(transport.target(base),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals("test", json.getString("type"));
+
+        assertThrows(NotFoundException.class, () -> transport.get(
+            transport.target(base.resolve("/missing")), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    /**
+     * Tests asynchronous {@code GET} requests.
+     */
+    @Test
+    void testGetAsync1()
+    {
+        JsonObject json = transport.getAsync(transport.target(base),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE)
+            .toCompletableFuture().join();
+        assertEquals("test", json.getString("type"));
+    }
+
+    /**
+     * Tests {@code POST} requests.
+     */
+    @Test
+    void testPost1()
+    {
+        JsonObject json = transport.post(transport.target(
+            base.resolve("/echo")), Entity.json("{\"type\":\"echo\"}"),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals("echo", json.getString("type"));
+    }
+}
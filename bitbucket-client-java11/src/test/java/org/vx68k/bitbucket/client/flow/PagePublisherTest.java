@@ -0,0 +1,270 @@
+/*
+ * PagePublisherTest.java
+ * Copyright (C) 2018-2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.ws.rs.core.MediaType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.client.BitbucketClient;
+import org.vx68k.bitbucket.client.PageCursor;
+
+/**
+ * Unit tests for {@link PagePublisher}.
+ *
+ * @author Kaz Nishimura
+ */
+class PagePublisherTest
+{
+    /**
+     * Number of the pages served by the local server.
+     */
+    private static final int PAGES = 3;
+
+    /**
+     * Timeout of a signal in seconds.
+     */
+    private static final long TIMEOUT = 10;
+
+    /**
+     * Signal that marks the completion.
+     */
+    private static final Object COMPLETE = new Object();
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private URI base;
+
+    private BitbucketClient client;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/pages", (exchange) -> {
+            requests.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            int page = Integer.parseInt(
+                query.substring(query.indexOf('=') + 1));
+            String next = "null";
+            if (page < PAGES) {
+                next = "\"" + base.resolve("pages?page=" + (page + 1)) + "\"";
+            }
+            byte[] body = String.format(
+                "{\"size\":%d,\"values\":[%d,%d],\"next\":%s}",
+                2 * PAGES, 2 * page - 2, 2 * page - 1, next)
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        base = URI.create(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        client = new BitbucketClient();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        client.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests {@link PagePublisher#subscribe} with unbounded demand.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void testSubscribe1() throws InterruptedException
+    {
+        PagePublisher<Integer> publisher = new PagePublisher<>(client,
+            PageCursor.start(base.resolve("pages?page=1")), Integer.class);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        List<Object> values = new ArrayList<>();
+        for (Object signal = subscriber.take(); signal != COMPLETE;
+            signal = subscriber.take()) {
+            values.add(signal);
+        }
+        assertEquals(IntStream.range(0, 2 * PAGES).boxed()
+            .collect(Collectors.toList()), values);
+        assertEquals(PAGES, requests.get());
+    }
+
+    /**
+     * Tests that pages are fetched only on demand.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void testSubscribe2() throws InterruptedException
+    {
+        PagePublisher<Integer> publisher = new PagePublisher<>(client,
+            PageCursor.start(base.resolve("pages?page=1")), Integer.class);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        Thread.sleep(100);
+        assertEquals(0, requests.get());
+
+        subscriber.subscription.request(1);
+        assertEquals(0, subscriber.take());
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.take());
+        Thread.sleep(100);
+        assertEquals(1, requests.get());
+        assertNull(subscriber.signals.poll());
+
+        subscriber.subscription.request(1);
+        assertEquals(2, subscriber.take());
+        assertEquals(2, requests.get());
+
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        Thread.sleep(100);
+        assertEquals(2, requests.get());
+        assertNull(subscriber.signals.poll());
+    }
+
+    /**
+     * Tests {@link PagePublisher} resumed from a cursor.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void testSubscribe3() throws InterruptedException
+    {
+        PagePublisher<Integer> publisher = new PagePublisher<>(client,
+            new PageCursor(base.resolve("pages?page=2"), 3, 1, null),
+            Integer.class);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        List<Object> values = new ArrayList<>();
+        for (Object signal = subscriber.take(); signal != COMPLETE;
+            signal = subscriber.take()) {
+            values.add(signal);
+        }
+        assertEquals(IntStream.range(3, 2 * PAGES).boxed()
+            .collect(Collectors.toList()), values);
+    }
+
+    /**
+     * Tests that a non-positive request is signalled as an error.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void testRequest1() throws InterruptedException
+    {
+        PagePublisher<Integer> publisher = new PagePublisher<>(client,
+            PageCursor.start(base.resolve("pages?page=1")), Integer.class);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.take() instanceof IllegalArgumentException);
+
+        subscriber.subscription.request(1);
+        Thread.sleep(100);
+        assertEquals(0, requests.get());
+        assertNull(subscriber.signals.poll());
+    }
+
+    /**
+     * Subscriber that queues the signals it receives.
+     */
+    private static final class TestSubscriber
+        implements Flow.Subscriber<Integer>
+    {
+        final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+        volatile Flow.Subscription subscription;
+
+        Object take() throws InterruptedException
+        {
+            Object signal = signals.poll(TIMEOUT, TimeUnit.SECONDS);
+            if (signal == null) {
+                throw new AssertionError("No signal");
+            }
+            return signal;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription newSubscription)
+        {
+            subscription = newSubscription;
+        }
+
+        @Override
+        public void onNext(final Integer value)
+        {
+            signals.add(value);
+        }
+
+        @Override
+        public void onError(final Throwable exception)
+        {
+            signals.add(exception);
+        }
+
+        @Override
+        public void onComplete()
+        {
+            signals.add(COMPLETE);
+        }
+    }
+}
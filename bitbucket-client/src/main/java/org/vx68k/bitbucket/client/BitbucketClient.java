@@ -20,34 +20,50 @@
 
 package org.vx68k.bitbucket.client;
 
+import java.io.ByteArrayInputStream;
 import java.io.Serializable;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.json.JsonObject;
-import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbException;
 import javax.ws.rs.NotFoundException;
-import javax.ws.rs.client.Client;
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriBuilder;
 import org.vx68k.bitbucket.Bitbucket;
 import org.vx68k.bitbucket.BitbucketAccount;
+import org.vx68k.bitbucket.BitbucketAsync;
 import org.vx68k.bitbucket.BitbucketIssue;
 import org.vx68k.bitbucket.BitbucketPullRequest;
 import org.vx68k.bitbucket.BitbucketRepository;
 import org.vx68k.bitbucket.BitbucketUserAccount;
+import org.vx68k.bitbucket.client.bind.ModelReaders;
 import org.vx68k.bitbucket.client.internal.ClientIssue;
+import org.vx68k.bitbucket.client.internal.ClientPage;
 import org.vx68k.bitbucket.client.internal.ClientRepository;
 import org.vx68k.bitbucket.client.internal.ClientTeamAccount;
 import org.vx68k.bitbucket.client.internal.ClientUserAccount;
+import org.vx68k.bitbucket.client.util.ContentEncodingFilter;
 import org.vx68k.bitbucket.client.util.JsonStructureMessageBodyReader;
 import org.vx68k.bitbucket.client.util.JsonbMessageBodyReader;
 import org.vx68k.bitbucket.client.util.OAuth2Authenticator;
@@ -58,7 +74,8 @@ import org.vx68k.bitbucket.client.util.OAuth2Authenticator;
  * @author Kaz Nishimura
  * @since 6.0
  */
-public class BitbucketClient implements Bitbucket, Serializable
+public class BitbucketClient
+    implements Bitbucket, BitbucketAsync, AutoCloseable, Serializable
 {
     private static final long serialVersionUID = 2L;
 
@@ -86,206 +103,1196 @@ public class BitbucketClient implements Bitbucket, Serializable
     public static final Pattern REPOSITORY_FULL_NAME_REGEXP =
         Pattern.compile("^[^/]+/[^/]+$");
 
+    /**
+     * Default maximum number of concurrent lookups in a bulk lookup.
+     */
+    public static final int DEFAULT_BULK_CONCURRENCY = 16;
+
+    /**
+     * Default number of pages to read ahead in a paginated list.
+     */
+    public static final int DEFAULT_PAGE_READ_AHEAD = 0;
+
+    /**
+     * Default maximum number of concurrent page requests in a fan-out.
+     */
+    public static final int DEFAULT_PAGE_FAN_OUT = 0;
+
+    /**
+     * Default page length of paginated resources, which leaves it to the
+     * server.
+     */
+    public static final int DEFAULT_PAGE_LENGTH = 0;
+
+    /**
+     * Default maximum number of cached pages in a paginated list, which
+     * keeps all the values.
+     */
+    public static final int DEFAULT_MAX_CACHED_PAGES = 0;
+
     /**
      * OAuth 2.0 authenticator.
      */
     private final OAuth2Authenticator oAuth2Authenticator;
 
     /**
-     * {@link ClientBuilder} object created in the constructor.
-     * This object is used to build JAX-RS {@link Client} objects.
+     * Maximum number of concurrent lookups in a bulk lookup.
+     */
+    private int bulkConcurrency = DEFAULT_BULK_CONCURRENCY;
+
+    /**
+     * Number of pages to read ahead in a paginated list.
+     */
+    private int pageReadAhead = DEFAULT_PAGE_READ_AHEAD;
+
+    /**
+     * Maximum number of concurrent page requests in a fan-out.
+     */
+    private int pageFanOut = DEFAULT_PAGE_FAN_OUT;
+
+    /**
+     * Page length of paginated resources, or zero to leave it to the server.
+     */
+    private int pageLength = DEFAULT_PAGE_LENGTH;
+
+    /**
+     * Maximum number of cached pages in a paginated list.
+     */
+    private int maxCachedPages = DEFAULT_MAX_CACHED_PAGES;
+
+    /**
+     * Adaptive page length controller, or {@code null} if disabled.
+     */
+    private PageLengthController pageLengthController = null;
+
+    /**
+     * {@code true} if the lazy content mode is enabled.
+     */
+    private boolean lazyContent = false;
+
+    /**
+     * Transport provider, or {@code null} for the default one.
+     */
+    private transient TransportProvider transportProvider;
+
+    /**
+     * {@link ClientBuilder} object created in the constructor.
+     * This object is used to build the shared transport.
+     */
+    private transient ClientBuilder clientBuilder;
+
+    /**
+     * Content coding filter registered to the client builder.
+     */
+    private transient ContentEncodingFilter contentEncodingFilter;
+
+    /**
+     * Shared transport, or {@code null} if not created yet.
+     */
+    private transient ClientTransport transport;
+
+    /**
+     * Indicates whether this object was closed.
+     */
+    private transient boolean closed;
+
+    /**
+     * Coalescer of identical concurrent {@code GET} requests.
+     */
+    private transient RequestCoalescer requestCoalescer;
+
+    /**
+     * Constructs a runtime object with a new {@link ClientBuilder} object.
+     */
+    public BitbucketClient()
+    {
+        this.oAuth2Authenticator =
+            new OAuth2Authenticator(API_BASE, TOKEN_ENDPOINT_URI);
+    }
+
+    /**
+     * Returns the OAuth 2 authenticator.
+     *
+     * @return the OAuth 2 authenticator
+     */
+    public final OAuth2Authenticator getOAuth2Authenticator()
+    {
+        return oAuth2Authenticator;
+    }
+
+    /**
+     * Returns the maximum number of concurrent lookups in a bulk lookup.
+     *
+     * @return the maximum number of concurrent lookups
+     */
+    public final int getBulkConcurrency()
+    {
+        synchronized (this) {
+            return bulkConcurrency;
+        }
+    }
+
+    /**
+     * Sets the maximum number of concurrent lookups in a bulk lookup.
+     *
+     * @param newValue a new value of the maximum number of concurrent
+     * lookups
+     */
+    public final void setBulkConcurrency(final int newValue)
+    {
+        if (newValue <= 0) {
+            throw new IllegalArgumentException("Value is not positive");
+        }
+        synchronized (this) {
+            bulkConcurrency = newValue;
+        }
+    }
+
+    /**
+     * Returns the number of pages to read ahead in a paginated list.
+     *
+     * @return the number of pages to read ahead
+     */
+    public final int getPageReadAhead()
+    {
+        synchronized (this) {
+            return pageReadAhead;
+        }
+    }
+
+    /**
+     * Sets the number of pages to read ahead in a paginated list.
+     * Each list returned after this call requests up to this number of
+     * pages asynchronously before they are reached.
+     *
+     * @param newValue a new value of the number of pages to read ahead, or
+     * zero to disable read-ahead
+     */
+    public final void setPageReadAhead(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        synchronized (this) {
+            pageReadAhead = newValue;
+        }
+    }
+
+    /**
+     * Returns the maximum number of concurrent page requests in a fan-out.
+     *
+     * @return the maximum number of concurrent page requests
+     */
+    public final int getPageFanOut()
+    {
+        synchronized (this) {
+            return pageFanOut;
+        }
+    }
+
+    /**
+     * Sets the maximum number of concurrent page requests in a fan-out.
+     * Each list returned after this call requests all its remaining pages
+     * concurrently once the first page has told the total size.
+     *
+     * @param newValue a new value of the maximum number of concurrent page
+     * requests, or zero to disable fan-out
+     */
+    public final void setPageFanOut(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        synchronized (this) {
+            pageFanOut = newValue;
+        }
+    }
+
+    /**
+     * Returns the page length of paginated resources.
+     *
+     * @return the page length, or zero if it is left to the server
+     */
+    public final int getPageLength()
+    {
+        synchronized (this) {
+            return pageLength;
+        }
+    }
+
+    /**
+     * Sets the page length of paginated resources.
+     * This value is used unless a page length is given to a call or the
+     * adaptive page length controller is set.
+     *
+     * @param newValue a new value of the page length, or zero to leave it
+     * to the server
+     */
+    public final void setPageLength(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        synchronized (this) {
+            pageLength = newValue;
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached pages in a paginated list.
+     *
+     * @return the maximum number of cached pages, or zero if all the values
+     * are kept
+     */
+    public final int getMaxCachedPages()
+    {
+        synchronized (this) {
+            return maxCachedPages;
+        }
+    }
+
+    /**
+     * Sets the maximum number of cached pages in a paginated list.
+     * Each list returned after this call keeps only this number of recently
+     * used pages, and fetches evicted pages again on demand.
+     *
+     * @param newValue a new value of the maximum number of cached pages, or
+     * zero to keep all the values
+     */
+    public final void setMaxCachedPages(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        synchronized (this) {
+            maxCachedPages = newValue;
+        }
+    }
+
+    /**
+     * Returns the adaptive page length controller.
+     *
+     * @return the adaptive page length controller, or {@code null} if
+     * disabled
+     */
+    public final PageLengthController getPageLengthController()
+    {
+        synchronized (this) {
+            return pageLengthController;
+        }
+    }
+
+    /**
+     * Sets the adaptive page length controller.
+     * If a controller is set, it chooses the page length of paginated
+     * resources unless a page length is given to a call, and learns from
+     * every page received.
+     *
+     * @param newValue a new value of the adaptive page length controller, or
+     * {@code null} to disable
+     */
+    public final void setPageLengthController(
+        final PageLengthController newValue)
+    {
+        synchronized (this) {
+            pageLengthController = newValue;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the lazy content mode is enabled.
+     *
+     * @return {@code true} if the lazy content mode is enabled
+     */
+    public final boolean isLazyContent()
+    {
+        synchronized (this) {
+            return lazyContent;
+        }
+    }
+
+    /**
+     * Enables or disables the lazy content mode of paginated resources.
+     * In this mode, rendered texts of issues and commits in the lists,
+     * streams and publishers returned after this call are kept as compact
+     * slices of the page content, and decoded only when they are accessed.
+     * It saves memory and parse time for listings that do not read them.
+     *
+     * @param newValue {@code true} to enable the lazy content mode
+     */
+    public final void setLazyContent(final boolean newValue)
+    {
+        synchronized (this) {
+            lazyContent = newValue;
+        }
+    }
+
+    /**
+     * Returns the URI of the first page of a paginated resource with the
+     * page length applied.
+     * A page length already in the target is kept unless one is given.
+     *
+     * @param target a target
+     * @param length a page length for the call, or zero for the default
+     * @return the URI of the first page
+     */
+    private URI paginate(final WebTarget target, final int length)
+    {
+        UriBuilder builder = target.getUriBuilder();
+        if (length > 0) {
+            return builder.replaceQueryParam(
+                PageLengthController.QUERY_PARAMETER, length).build();
+        }
+
+        String query = target.getUri().getRawQuery();
+        if (query != null && Arrays.stream(query.split("&")).anyMatch(
+            (p) -> p.startsWith(PageLengthController.QUERY_PARAMETER + "="))) {
+            return target.getUri();
+        }
+        PageLengthController controller = getPageLengthController();
+        int defaultLength = getPageLength();
+        if (controller != null) {
+            defaultLength = controller.getPageLength();
+        }
+        if (defaultLength > 0) {
+            builder.queryParam(PageLengthController.QUERY_PARAMETER,
+                defaultLength);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the coalescer of identical concurrent {@code GET} requests.
+     * By default, each client has a coalescer of its own.
+     *
+     * @return the coalescer
+     */
+    public final RequestCoalescer getRequestCoalescer()
+    {
+        synchronized (this) {
+            if (requestCoalescer == null) {
+                requestCoalescer = new RequestCoalescer();
+            }
+            return requestCoalescer;
+        }
+    }
+
+    /**
+     * Sets the coalescer of identical concurrent {@code GET} requests.
+     * Clients that are set the same coalescer, for example {@link
+     * RequestCoalescer#getShared}, share exchanges with each other, so they
+     * should make requests to the same hosts in the same way.
+     *
+     * @param newValue a new value of the coalescer, or {@code null} for a
+     * coalescer of this client's own
+     */
+    public final void setRequestCoalescer(final RequestCoalescer newValue)
+    {
+        synchronized (this) {
+            requestCoalescer = newValue;
+        }
+    }
+
+    /**
+     * Returns the transport provider.
+     *
+     * @return the transport provider
+     * @see TransportProvider#getDefault
+     */
+    public final TransportProvider getTransportProvider()
+    {
+        synchronized (this) {
+            if (transportProvider == null) {
+                transportProvider = TransportProvider.getDefault();
+            }
+            return transportProvider;
+        }
+    }
+
+    /**
+     * Sets the transport provider.
+     * It must be set before the client builder is created.
+     *
+     * @param newValue a new value of the transport provider, or {@code null}
+     * for the default one
+     * @throws IllegalStateException if the client builder was already
+     * created
+     */
+    public final void setTransportProvider(final TransportProvider newValue)
+    {
+        synchronized (this) {
+            if (clientBuilder != null) {
+                throw new IllegalStateException(
+                    "Transport provider is already in use");
+            }
+            transportProvider = newValue;
+        }
+    }
+
+    protected final ClientBuilder getClientBuilder()
+    {
+        synchronized (this) {
+            if (clientBuilder == null) {
+                contentEncodingFilter = new ContentEncodingFilter();
+                clientBuilder = getTransportProvider().newClientBuilder()
+                    .register(contentEncodingFilter)
+                    .register(JsonStructureMessageBodyReader.class)
+                    .register(new JsonbMessageBodyReader<>())
+                    .register(oAuth2Authenticator);
+            }
+        }
+        return clientBuilder;
+    }
+
+    /**
+     * Returns the content coding filter, which also counts the bytes
+     * transferred.
+     *
+     * @return the content coding filter
+     */
+    public final ContentEncodingFilter getContentEncodingFilter()
+    {
+        synchronized (this) {
+            getClientBuilder();
+            return contentEncodingFilter;
+        }
+    }
+
+    /**
+     * Returns the shared transport.
+     * It will be created on the first call.
+     *
+     * @return the shared transport
+     * @throws IllegalStateException if this object was closed
+     */
+    public final ClientTransport getTransport()
+    {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Client is closed");
+            }
+            if (transport == null) {
+                transport = new ClientTransport(getClientBuilder());
+                oAuth2Authenticator.setClient(transport.getClient());
+                ClientTransport current = transport;
+                oAuth2Authenticator.setTokenRequester((target, entity) ->
+                    current.post(target, entity, JsonObject.class,
+                        MediaType.APPLICATION_JSON_TYPE));
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * Closes the shared transport.
+     * Any later request will fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close()
+    {
+        ClientTransport closing;
+        synchronized (this) {
+            closing = transport;
+            transport = null;
+            closed = true;
+        }
+        if (closing != null) {
+            oAuth2Authenticator.setTokenRequester(null);
+            oAuth2Authenticator.setClient(null);
+            closing.close();
+        }
+    }
+
+    /**
+     * Clears the cache for conditional requests of the shared transport if
+     * any, as it may hold resources visible only to the current user.
+     */
+    private void clearConditionalCache()
+    {
+        ClientTransport current;
+        synchronized (this) {
+            current = transport;
+        }
+        if (current != null) {
+            ConditionalCache cache = current.getConditionalCache();
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Logs in with an authorization code.
+     *
+     * @param code an authorization code
+     * @param redirectionUri a redirection URI
+     */
+    public final void loginWithAuthorizationCode(
+        final String code, final URI redirectionUri)
+    {
+        Form form = new Form("grant_type", "authorization_code");
+        form.param("code", code);
+        if (redirectionUri != null) {
+            form.param("redirect_uri", redirectionUri.toString());
+        }
+
+        clearConditionalCache();
+        getTransport();
+        oAuth2Authenticator.requestAccessToken(Entity.form(form));
+    }
+
+    /**
+     * Logs in with resource owner password credentials.
+     *
+     * @param username a username
+     * @param password a password
+     */
+    public final void login(final String username, final String password)
+    {
+        Form form = new Form("grant_type", "password");
+        form.param("username", username);
+        form.param("password", password);
+
+        clearConditionalCache();
+        getTransport();
+        oAuth2Authenticator.requestAccessToken(Entity.form(form));
+    }
+
+    /**
+     * Logs out.
+     */
+    public final void logout()
+    {
+        clearConditionalCache();
+        oAuth2Authenticator.setRefreshToken(null);
+        oAuth2Authenticator.setAccessToken(null);
+        oAuth2Authenticator.setExpiration(null);
+    }
+
+    /**
+     * Gets a resource.
+     *
+     * @param <T> the return type
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param runtimeType the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource, or {@code null} not found
+     */
+    public final <T> T get(final URI base, final Class<T> runtimeType,
+        final MediaType... mediaTypes)
+    {
+        return get(base, null, runtimeType, mediaTypes);
+    }
+
+    /**
+     * Gets a resource.
+     *
+     * @param <T> the return type
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param path a path relative to the base URI, or {@code null}
+     * @param templateValues a map of template values, or {@code null}
+     * @param runtimeType the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource, or {@code null} not found
+     */
+    public final <T> T get(URI base, final String path,
+        Map<String, Object> templateValues, final Class<T> runtimeType,
+        final MediaType... mediaTypes)
+    {
+        if (base == null) {
+            base = API_BASE;
+        }
+        if (templateValues == null) {
+            templateValues = Collections.emptyMap();
+        }
+
+        ClientTransport transport = getTransport();
+        try {
+            WebTarget target = transport.target(base);
+            if (path != null) {
+                target = target.path(path);
+                target = target.resolveTemplates(templateValues);
+            }
+            return getShared(transport, target, runtimeType, mediaTypes);
+        }
+        catch (NotFoundException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets a resource from a REST API.
+     *
+     * @param <T> the return type
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param modifier a function modifies the {@link WebTarget} instance
+     * @param runtimeType the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource, or {@code null} not found
+     */
+    public final <T> T get(URI base, final UnaryOperator<WebTarget> modifier,
+        final Class<T> runtimeType, MediaType... mediaTypes)
+    {
+        if (base == null) {
+            base = API_BASE;
+        }
+        if (mediaTypes != null && mediaTypes.length == 0) {
+            mediaTypes = new MediaType[] {MediaType.APPLICATION_JSON_TYPE};
+        }
+
+        ClientTransport transport = getTransport();
+        try {
+            WebTarget target = transport.target(base);
+            if (modifier != null) {
+                target = modifier.apply(target);
+            }
+            return getShared(transport, target, runtimeType, mediaTypes);
+        }
+        catch (NotFoundException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets a resource from a target sharing the exchange with identical
+     * concurrent requests.
+     *
+     * @param <T> the return type
+     * @param transport a transport
+     * @param target a target
+     * @param runtimeType the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource
+     */
+    private <T> T getShared(final ClientTransport transport,
+        final WebTarget target, final Class<T> runtimeType,
+        final MediaType... mediaTypes)
+    {
+        if (!isShareable(runtimeType)) {
+            return transport.get(target, runtimeType, mediaTypes);
+        }
+
+        byte[] content = getRequestCoalescer().execute(
+            getRequestKey(target, mediaTypes),
+            () -> transport.get(target, byte[].class, mediaTypes));
+        return decodeShared(content, runtimeType);
+    }
+
+    /**
+     * Gets a resource from a target asynchronously sharing the exchange with
+     * identical concurrent requests.
+     *
+     * @param <T> the return type
+     * @param transport a transport
+     * @param target a target
+     * @param runtimeType the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a completion stage of a received resource
+     */
+    private <T> CompletionStage<T> getSharedAsync(
+        final ClientTransport transport, final WebTarget target,
+        final Class<T> runtimeType, final MediaType... mediaTypes)
+    {
+        if (!isShareable(runtimeType)) {
+            return transport.getAsync(target, runtimeType, mediaTypes);
+        }
+
+        CompletionStage<byte[]> content =
+            getRequestCoalescer().executeAsync(
+                getRequestKey(target, mediaTypes),
+                () -> transport.getAsync(target, byte[].class, mediaTypes));
+        return content.thenApply((value) -> decodeShared(value, runtimeType));
+    }
+
+    /**
+     * Returns {@code true} if the exchanges for a type can be shared.
+     * They can if each caller can decode its own copy of the resource from
+     * the shared content.
+     *
+     * @param runtimeType the type of the resource to be returned
+     * @return {@code true} if the exchanges can be shared
+     */
+    private static boolean isShareable(final Class<?> runtimeType)
+    {
+        return runtimeType == byte[].class
+            || ModelReaders.get(runtimeType) != null;
+    }
+
+    /**
+     * Decodes a copy of a resource from the content of a shared exchange.
+     *
+     * @param <T> the return type
+     * @param content the content of a shared exchange, which shall not be
+     * modified
+     * @param runtimeType the type of the resource to be returned, which
+     * shall be shareable
+     * @return a resource that is not shared with any other callers
+     * @throws ProcessingException if the content cannot be decoded
+     */
+    private static <T> T decodeShared(final byte[] content,
+        final Class<T> runtimeType)
+    {
+        if (runtimeType == byte[].class) {
+            return runtimeType.cast(content.clone());
+        }
+        try {
+            return ModelReaders.read(ModelReaders.get(runtimeType),
+                new ByteArrayInputStream(content));
+        }
+        catch (final JsonbException e) {
+            throw new ProcessingException(e);
+        }
+    }
+
+    /**
+     * Returns a key that identifies a {@code GET} request.
+     * The key includes the access token so that no response is shared
+     * between different credentials.
+     *
+     * @param target a target
+     * @param mediaTypes acceptable MIME media types
+     * @return a key
+     */
+    private Object getRequestKey(final WebTarget target,
+        final MediaType... mediaTypes)
+    {
+        List<MediaType> mediaTypeList = null;
+        if (mediaTypes != null) {
+            mediaTypeList = Arrays.asList(mediaTypes);
+        }
+        return Arrays.asList(target.getUri(), mediaTypeList,
+            oAuth2Authenticator.getAccessToken());
+    }
+
+    /**
+     * Gets a resource from a REST API asynchronously.
+     *
+     * @param <T> the return type
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param modifier a function modifies the {@link WebTarget} instance
+     * @param runtimeType the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a completion stage of a received resource, which will be
+     * completed with {@code null} if not found
+     */
+    public final <T> CompletionStage<T> getAsync(URI base,
+        final UnaryOperator<WebTarget> modifier, final Class<T> runtimeType,
+        MediaType... mediaTypes)
+    {
+        if (base == null) {
+            base = API_BASE;
+        }
+        if (mediaTypes != null && mediaTypes.length == 0) {
+            mediaTypes = new MediaType[] {MediaType.APPLICATION_JSON_TYPE};
+        }
+
+        ClientTransport transport = getTransport();
+        WebTarget target = transport.target(base);
+        if (modifier != null) {
+            target = modifier.apply(target);
+        }
+        return getSharedAsync(transport, target, runtimeType, mediaTypes)
+            .handle((value, exception) -> {
+                if (exception == null) {
+                    return value;
+                }
+
+                Throwable cause = exception;
+                if (cause instanceof CompletionException
+                    && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                if (cause instanceof NotFoundException) {
+                    return null;
+                }
+                throw new CompletionException(cause);
+            });
+    }
+
+    /**
+     * Looks up values for keys in bulk.
+     * Lookups are started asynchronously and at most {@link
+     * #getBulkConcurrency} of them are in flight at a time.
+     * This method returns when all the lookups have completed.
+     *
+     * @param <V> the type of the values
+     * @param keys keys to look up
+     * @param lookup a function that starts a lookup for a key
+     * @return the result of the lookups
      */
-    private transient ClientBuilder clientBuilder;
+    public final <V> BulkResult<V> getAll(final Collection<String> keys,
+        final Function<String, ? extends CompletionStage<? extends V>> lookup)
+    {
+        Semaphore window = new Semaphore(getBulkConcurrency());
+        Map<String, CompletableFuture<? extends V>> futures =
+            new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            try {
+                window.acquire();
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach((f) -> f.cancel(false));
+                throw new CompletionException(e);
+            }
+
+            CompletableFuture<? extends V> future;
+            try {
+                future = lookup.apply(key).toCompletableFuture();
+            }
+            catch (final RuntimeException e) {
+                CompletableFuture<V> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                future = failed;
+            }
+            future.whenComplete((value, e) -> window.release());
+            futures.put(key, future);
+        }
+
+        Map<String, V> values = new LinkedHashMap<>();
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        futures.forEach((key, future) -> {
+            try {
+                V value = future.join();
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+            catch (final CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof CompletionException
+                    && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                failures.put(key, cause != null ? cause : e);
+            }
+            catch (final RuntimeException e) {
+                failures.put(key, e);
+            }
+        });
+        return new BulkResult<>(values, failures);
+    }
 
     /**
-     * Constructs a runtime object with a new {@link ClientBuilder} object.
+     * Gets user accounts in bulk.
+     *
+     * @param names names of users
+     * @return the result of the lookups keyed by the names
+     * @see #getUserAccountAsync(String)
      */
-    public BitbucketClient()
+    public final BulkResult<BitbucketUserAccount> getUserAccounts(
+        final Collection<String> names)
     {
-        this.oAuth2Authenticator =
-            new OAuth2Authenticator(API_BASE, TOKEN_ENDPOINT_URI);
+        return getAll(names, this::getUserAccountAsync);
     }
 
     /**
-     * Returns the OAuth 2 authenticator.
+     * Gets team accounts in bulk.
      *
-     * @return the OAuth 2 authenticator
+     * @param names names of teams
+     * @return the result of the lookups keyed by the names
+     * @see #getTeamAccountAsync(String)
      */
-    public final OAuth2Authenticator getOAuth2Authenticator()
+    public final BulkResult<BitbucketAccount> getTeamAccounts(
+        final Collection<String> names)
     {
-        return oAuth2Authenticator;
+        return getAll(names, this::getTeamAccountAsync);
     }
 
-    protected final ClientBuilder getClientBuilder()
+    /**
+     * Gets repositories in bulk.
+     *
+     * @param fullNames full names of repositories
+     * @return the result of the lookups keyed by the full names
+     * @see #getRepositoryAsync(String)
+     */
+    public final BulkResult<BitbucketRepository> getRepositories(
+        final Collection<String> fullNames)
     {
-        synchronized (this) {
-            if (clientBuilder == null) {
-                JsonbBuilder jsonbBuilder = JsonbBuilder.newBuilder();
-                clientBuilder = ClientBuilder.newBuilder()
-                    .register(JsonStructureMessageBodyReader.class)
-                    .register(new JsonbMessageBodyReader<ClientUserAccount>(jsonbBuilder))
-                    .register(new JsonbMessageBodyReader<ClientTeamAccount>(jsonbBuilder))
-                    .register(new JsonbMessageBodyReader<ClientRepository>(jsonbBuilder))
-                    .register(oAuth2Authenticator);
-            }
-        }
-        return clientBuilder;
+        return getAll(fullNames, this::getRepositoryAsync);
     }
 
     /**
-     * Logs in with an authorization code.
+     * Gets a projection of a resource from a REST API.
+     * The resource can be bound into a lightweight view class that has only
+     * the projected properties.
      *
-     * @param code an authorization code
-     * @param redirectionUri a redirection URI
+     * @param <T> the return type
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param projection a projection of the resource
+     * @param runtimeType the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource, or {@code null} not found
      */
-    public final void loginWithAuthorizationCode(
-        final String code, final URI redirectionUri)
+    public final <T> T get(final URI base,
+        final UnaryOperator<WebTarget> modifier, final Projection projection,
+        final Class<T> runtimeType, final MediaType... mediaTypes)
     {
-        Form form = new Form("grant_type", "authorization_code");
-        form.param("code", code);
-        if (redirectionUri != null) {
-            form.param("redirect_uri", redirectionUri.toString());
-        }
+        return get(base, project(modifier, projection::apply), runtimeType,
+            mediaTypes);
+    }
 
-        oAuth2Authenticator.requestAccessToken(Entity.form(form));
+    public final <T> List<T> getList(final URI base,
+        final UnaryOperator<WebTarget> modifier, final Class<? extends T> type)
+    {
+        return getList(base, modifier, 0, type);
     }
 
     /**
-     * Logs in with resource owner password credentials.
+     * Gets a paginated list of resources from a REST API with a page length.
      *
-     * @param username a username
-     * @param password a password
+     * @param <T> the type of the elements
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param pageLength a page length, or zero for the default
+     * @param type the runtime type of the values
+     * @return a paginated list
+     * @see #setPageLength
+     * @see #setPageLengthController
      */
-    public final void login(final String username, final String password)
+    public final <T> List<T> getList(final URI base,
+        final UnaryOperator<WebTarget> modifier, final int pageLength,
+        final Class<? extends T> type)
     {
-        Form form = new Form("grant_type", "password");
-        form.param("username", username);
-        form.param("password", password);
-
-        oAuth2Authenticator.requestAccessToken(Entity.form(form));
+        return getList(getCursor(base, modifier, pageLength), type);
     }
 
     /**
-     * Logs out.
+     * Gets a paginated list of resources from a cursor to resume a sweep.
+     * The first value of the list will be the one at the offset of the
+     * cursor.
+     *
+     * @param <T> the type of the elements
+     * @param cursor a cursor of a sweep
+     * @param type the runtime type of the values
+     * @return a paginated list
+     * @see PaginatedList#getCursor(int)
      */
-    public final void logout()
+    public final <T> List<T> getList(final PageCursor cursor,
+        final Class<? extends T> type)
     {
-        oAuth2Authenticator.setRefreshToken(null);
-        oAuth2Authenticator.setAccessToken(null);
-        oAuth2Authenticator.setExpiration(null);
+        PaginatedList<T> list =
+            new PaginatedList<>(getTransport(), cursor, type);
+        list.setMaxCachedPages(getMaxCachedPages());
+        list.setPageLengthController(getPageLengthController());
+        list.setReadAhead(getPageReadAhead());
+        list.setFanOut(getPageFanOut());
+        list.setLazyContent(isLazyContent());
+        return list;
     }
 
     /**
-     * Gets a resource.
+     * Gets a paginated list of projections of resources from a REST API.
+     * The values can be bound into a lightweight view class that has only
+     * the projected properties.
      *
-     * @param <T> the return type
+     * @param <T> the type of the elements
      * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
-     * @param runtimeType the type of the resource to be returned
-     * @param mediaTypes acceptable MIME media types
-     * @return a received resource, or {@code null} not found
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param projection a projection of the values
+     * @param type the runtime type of the values
+     * @return a paginated list
      */
-    public final <T> T get(final URI base, final Class<T> runtimeType,
-        final MediaType... mediaTypes)
+    public final <T> List<T> getList(final URI base,
+        final UnaryOperator<WebTarget> modifier, final Projection projection,
+        final Class<? extends T> type)
     {
-        return get(base, null, runtimeType, mediaTypes);
+        return getList(base, project(modifier, projection::applyToPages),
+            type);
     }
 
     /**
-     * Gets a resource.
+     * Gets a stream of the values of a paginated resource from a REST API.
+     * Unlike a list returned by {@link #getList getList}, the stream holds
+     * only one page at a time, and drops each page once its values have
+     * been consumed.
+     * The first page is fetched when this method is called, so that the
+     * stream can report its size if the resource tells it.
      *
-     * @param <T> the return type
+     * @param <T> the type of the elements
      * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
-     * @param path a path relative to the base URI, or {@code null}
-     * @param templateValues a map of template values, or {@code null}
-     * @param runtimeType the type of the resource to be returned
-     * @param mediaTypes acceptable MIME media types
-     * @return a received resource, or {@code null} not found
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param type the runtime type of the values
+     * @return a sequential stream of the values
      */
-    public final <T> T get(URI base, final String path,
-        Map<String, Object> templateValues, final Class<T> runtimeType,
-        final MediaType... mediaTypes)
+    public final <T> Stream<T> getStream(final URI base,
+        final UnaryOperator<WebTarget> modifier, final Class<? extends T> type)
     {
-        if (base == null) {
-            base = API_BASE;
-        }
-        if (templateValues == null) {
-            templateValues = Collections.emptyMap();
-        }
+        return getStream(base, modifier, 0, type);
+    }
 
-        Client client = getClientBuilder().build();
-        try {
-            WebTarget target = client.target(base);
-            if (path != null) {
-                target = target.path(path);
-                target = target.resolveTemplates(templateValues);
-            }
-            return target.request(mediaTypes).get(runtimeType);
-        }
-        catch (NotFoundException exception) {
-            return null;
-        }
-        finally {
-            client.close();
-        }
+    /**
+     * Gets a stream of the values of a paginated resource from a REST API
+     * with a page length.
+     *
+     * @param <T> the type of the elements
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param pageLength a page length, or zero for the default
+     * @param type the runtime type of the values
+     * @return a sequential stream of the values
+     * @see #getStream(URI, UnaryOperator, Class)
+     */
+    public final <T> Stream<T> getStream(final URI base,
+        final UnaryOperator<WebTarget> modifier, final int pageLength,
+        final Class<? extends T> type)
+    {
+        return getStream(getCursor(base, modifier, pageLength), type);
     }
 
     /**
-     * Gets a resource from a REST API.
+     * Returns a cursor at the start of a sweep of a paginated resource from
+     * a REST API.
+     * No request is made by this method.
+     * The cursor may be given to {@link #getList(PageCursor, Class)
+     * getList}, {@link #getStream(PageCursor, Class) getStream} or {@link
+     * #getPageAsync(PageCursor, Class) getPageAsync}.
      *
-     * @param <T> the return type
      * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
-     * @param modifier a function modifies the {@link WebTarget} instance
-     * @param runtimeType the type of the resource to be returned
-     * @param mediaTypes acceptable MIME media types
-     * @return a received resource, or {@code null} not found
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param pageLength a page length, or zero for the default
+     * @return a cursor at the start of a sweep
      */
-    public final <T> T get(URI base, final UnaryOperator<WebTarget> modifier,
-        final Class<T> runtimeType, MediaType... mediaTypes)
+    public final PageCursor getCursor(URI base,
+        final UnaryOperator<WebTarget> modifier, final int pageLength)
     {
+        if (pageLength < 0) {
+            throw new IllegalArgumentException("Page length is negative");
+        }
         if (base == null) {
             base = API_BASE;
         }
-        if (mediaTypes != null && mediaTypes.length == 0) {
-            mediaTypes = new MediaType[] {MediaType.APPLICATION_JSON_TYPE};
-        }
 
-        Client client = getClientBuilder().build();
-        try {
-            WebTarget target = client.target(base);
-            if (modifier != null) {
-                target = modifier.apply(target);
-            }
-            return target.request(mediaTypes).get(runtimeType);
-        }
-        catch (NotFoundException exception) {
-            return null;
-        }
-        finally {
-            client.close();
+        ClientTransport transport = getTransport();
+        WebTarget target = transport.target(base);
+        if (modifier != null) {
+            target = modifier.apply(target);
         }
+
+        return PageCursor.start(paginate(target, pageLength));
     }
 
-    public final <T> List<T> getList(URI base,
-        final UnaryOperator<WebTarget> modifier, final Class<? extends T> type)
+    /**
+     * Gets a stream of the values of a paginated resource from a cursor.
+     * The first value of the stream will be the one at the offset of the
+     * cursor.
+     *
+     * @param <T> the type of the elements
+     * @param cursor a cursor of a sweep
+     * @param type the runtime type of the values
+     * @return a sequential stream of the values
+     * @see #getStream(URI, UnaryOperator, Class)
+     */
+    public final <T> Stream<T> getStream(final PageCursor cursor,
+        final Class<? extends T> type)
     {
-        if (base == null) {
-            base = API_BASE;
+        PageSpliterator<T> spliterator = new PageSpliterator<>(getTransport(),
+            cursor, type, getPageLengthController());
+        spliterator.setLazyContent(isLazyContent());
+        if (!cursor.isExhausted()) {
+            spliterator.fetchNext();
         }
+        return StreamSupport.stream(spliterator, false);
+    }
 
-        URI uri;
-        Client client = getClientBuilder().build();
-        try {
-            WebTarget target = client.target(base);
-            if (modifier != null) {
-                target = modifier.apply(target);
-            }
-            uri = target.getUri();
-        }
-        finally {
-            client.close();
+    /**
+     * Gets a page of a paginated resource asynchronously from a cursor.
+     * The page is fetched at the background priority and recorded to the
+     * page length controller of this client.
+     * The values skipped by the cursor are dropped from the page.
+     *
+     * @param <T> the type of the values
+     * @param cursor a cursor at which the page is fetched
+     * @param type the runtime type of the values
+     * @return a completion stage of the page, which will be completed with
+     * an empty last page if the cursor is exhausted or the page is not found
+     */
+    public final <T> CompletionStage<Page<T>> getPageAsync(
+        final PageCursor cursor, final Class<? extends T> type)
+    {
+        PageCursor last = new PageCursor(null, cursor.getOffset(), 0,
+            cursor.getFilter());
+        if (cursor.isExhausted()) {
+            return CompletableFuture.completedFuture(
+                new Page<>(Collections.emptyList(), last));
         }
 
-        return new PaginatedList<>(getClientBuilder(), uri, type);
+        PageBinder<T> binder = new PageBinder<>(type);
+        binder.setLazyContent(isLazyContent());
+        PageLengthController controller = getPageLengthController();
+
+        long start = System.nanoTime();
+        ClientTransport transport = getTransport();
+        return transport.getAsync(RequestPriority.BACKGROUND,
+            transport.target(cursor.getNext()), byte[].class,
+            MediaType.APPLICATION_JSON_TYPE)
+            .thenApply((content) -> {
+                if (content == null) {
+                    return new Page<>(Collections.<T>emptyList(), last);
+                }
+                ClientPage<T> page = binder.bind(content, start, controller);
+                List<T> values = Collections.emptyList();
+                if (page.getValues() != null) {
+                    values = page.getValues();
+                }
+                values = values.subList(
+                    Math.min(cursor.getSkip(), values.size()), values.size());
+
+                URI next = null;
+                if (page.getNext() != null) {
+                    next = URI.create(page.getNext());
+                }
+                return new Page<>(values, new PageCursor(next,
+                    cursor.getOffset() + values.size(), 0,
+                    cursor.getFilter()));
+            });
+    }
+
+    /**
+     * Gets a stream of projections of the values of a paginated resource
+     * from a REST API.
+     *
+     * @param <T> the type of the elements
+     * @param base a base URI, or {@code null} for the Bitbucket Cloud REST API
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param projection a projection of the values
+     * @param type the runtime type of the values
+     * @return a sequential stream of the values
+     * @see #getStream(URI, UnaryOperator, Class)
+     */
+    public final <T> Stream<T> getStream(final URI base,
+        final UnaryOperator<WebTarget> modifier, final Projection projection,
+        final Class<? extends T> type)
+    {
+        return getStream(base, project(modifier, projection::applyToPages),
+            type);
+    }
+
+    /**
+     * Returns a function that modifies a target and then applies a
+     * projection.
+     *
+     * @param modifier a function modifies the {@link WebTarget} instance, or
+     * {@code null}
+     * @param projection a function that applies a projection
+     * @return a composed function
+     */
+    private static UnaryOperator<WebTarget> project(
+        final UnaryOperator<WebTarget> modifier,
+        final UnaryOperator<WebTarget> projection)
+    {
+        if (modifier == null) {
+            return projection;
+        }
+        return (target) -> projection.apply(modifier.apply(target));
     }
 
     /**
@@ -297,15 +1304,9 @@ public class BitbucketClient implements Bitbucket, Serializable
      */
     public final JsonObject post(final URI uri, final Entity<?> entity)
     {
-        Client client = getClientBuilder().build();
-        try {
-            return client.target(uri).request()
-                .accept(MediaType.APPLICATION_JSON)
-                .post(entity, JsonObject.class);
-        }
-        finally {
-            client.close();
-        }
+        ClientTransport transport = getTransport();
+        return transport.post(transport.target(uri), entity, JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE);
     }
 
     /**
@@ -417,4 +1418,155 @@ public class BitbucketClient implements Bitbucket, Serializable
             return target;
         }, ClientIssue.class);
     }
+
+    /**
+     * Returns a cursor at the start of a sweep of the issues of a
+     * repository.
+     * No request is made by this method.
+     *
+     * @param fullName the full name of a repository
+     * @param filter a filter of issues, or {@code null}
+     * @return a cursor at the start of a sweep
+     * @see #getCursor(URI, UnaryOperator, int)
+     */
+    public final PageCursor getIssuesCursor(final String fullName,
+        final String filter)
+    {
+        if (fullName != null
+            && !(REPOSITORY_FULL_NAME_REGEXP.matcher(fullName).matches())) {
+            throw new IllegalArgumentException("Full name invalid");
+        }
+
+        return getCursor(API_BASE, (target) -> {
+            target = target.path("/2.0/repositories/{fullName}/issues");
+            target = target.resolveTemplate("fullName", fullName);
+            if (filter != null) {
+                target = target.queryParam("q", filter);
+            }
+            return target;
+        }, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation gets the user resource remotely from Bitbucket
+     * Cloud.</p>
+     */
+    @Override
+    public final CompletionStage<BitbucketUserAccount> getUserAccountAsync(
+        final String name)
+    {
+        return getAsync(API_BASE, (target) ->
+            target.path("/2.0/users/{name}").resolveTemplate("name", name),
+            ClientUserAccount.class).thenApply((user) -> user);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation gets the team resource remotely from Bitbucket
+     * Cloud.</p>
+     */
+    @Override
+    public final CompletionStage<BitbucketAccount> getTeamAccountAsync(
+        final String name)
+    {
+        return getAsync(API_BASE, (target) ->
+            target.path("/2.0/teams/{name}").resolveTemplate("name", name),
+            ClientTeamAccount.class).thenApply((team) -> team);
+    }
+
+    @Override
+    public final CompletionStage<BitbucketRepository> getRepositoryAsync(
+        final BitbucketAccount owner, final String name)
+    {
+        return getRepositoryAsync(
+            "{" + owner.getUuid().toString() + "}", name);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation gets the repository resource remotely from
+     * Bitbucket Cloud.</p>
+     */
+    @Override
+    public final CompletionStage<BitbucketRepository> getRepositoryAsync(
+        final String ownerName, final String name)
+    {
+        return getAsync(API_BASE, (target) ->
+            target.path("/2.0/repositories/{owner}/{name}")
+                .resolveTemplate("owner", ownerName)
+                .resolveTemplate("name", name),
+            ClientRepository.class).thenApply((repository) -> repository);
+    }
+
+    @Override
+    public final CompletionStage<BitbucketRepository> getRepositoryAsync(
+        final String fullName)
+    {
+        if (fullName != null
+            && !(REPOSITORY_FULL_NAME_REGEXP.matcher(fullName).matches())) {
+            throw new IllegalArgumentException("Full name is invalid");
+        }
+
+        return getAsync(API_BASE, (target) ->
+            target.path("/2.0/repositories/{fullName}")
+                .resolveTemplate("fullName", fullName),
+            ClientRepository.class).thenApply((repository) -> repository);
+    }
+
+    @Override
+    public final CompletionStage<BitbucketIssue> getIssueAsync(
+        final String fullName, final int id)
+    {
+        if (fullName != null
+            && !(REPOSITORY_FULL_NAME_REGEXP.matcher(fullName).matches())) {
+            throw new IllegalArgumentException("Full name is invalid");
+        }
+
+        return getAsync(API_BASE, (target) ->
+            target.path("/2.0/repositories/{fullName}/issues/{id}")
+                .resolveTemplate("fullName", fullName)
+                .resolveTemplate("id", id),
+            ClientIssue.class).thenApply((issue) -> issue);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation fetches the first page asynchronously and
+     * returns a {@link PaginatedList} object that fetches the rest on
+     * demand.</p>
+     */
+    @Override
+    public final CompletionStage<List<BitbucketIssue>> getIssuesAsync(
+        final String fullName, final String filter)
+    {
+        if (fullName != null
+            && !(REPOSITORY_FULL_NAME_REGEXP.matcher(fullName).matches())) {
+            throw new IllegalArgumentException("Full name invalid");
+        }
+
+        WebTarget target = getTransport().target(API_BASE)
+            .path("/2.0/repositories/{fullName}/issues")
+            .resolveTemplate("fullName", fullName);
+        if (filter != null) {
+            target = target.queryParam("q", filter);
+        }
+        URI uri = paginate(target, 0);
+        return getAsync(uri, null, byte[].class)
+            .thenApply((page) -> {
+                if (page == null) {
+                    return null;
+                }
+
+                PaginatedList<BitbucketIssue> issues =
+                    new PaginatedList<>(getTransport(), uri, ClientIssue.class);
+                issues.setMaxCachedPages(getMaxCachedPages());
+                issues.setPageLengthController(getPageLengthController());
+                issues.setLazyContent(isLazyContent());
+                issues.addPage(page);
+                issues.setReadAhead(getPageReadAhead());
+                issues.setFanOut(getPageFanOut());
+                return issues;
+            });
+    }
 }
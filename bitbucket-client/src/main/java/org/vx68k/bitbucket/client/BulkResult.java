@@ -0,0 +1,91 @@
+/*
+ * BulkResult.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of a bulk lookup.
+ * This map contains the values that were found, keyed by the lookup keys.
+ * Keys that were not found are contained neither in this map nor in the
+ * failures.
+ *
+ * @author Kaz Nishimura
+ * @param <V> the type of the values
+ * @since 6.0
+ */
+public class BulkResult<V> extends AbstractMap<String, V>
+{
+    /**
+     * Values that were found.
+     */
+    private final Map<String, V> values;
+
+    /**
+     * Failures of the lookups.
+     */
+    private final Map<String, Throwable> failures;
+
+    /**
+     * Constructs a bulk result.
+     *
+     * @param values the values that were found
+     * @param failures the failures of the lookups
+     */
+    public BulkResult(final Map<String, V> values,
+        final Map<String, Throwable> failures)
+    {
+        this.values = Collections.unmodifiableMap(values);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Set<Map.Entry<String, V>> entrySet()
+    {
+        return values.entrySet();
+    }
+
+    /**
+     * Returns the failures of the lookups keyed by the lookup keys.
+     *
+     * @return an unmodifiable map of the failures
+     */
+    public final Map<String, Throwable> getFailures()
+    {
+        return failures;
+    }
+
+    /**
+     * Returns {@code true} if any lookup failed.
+     *
+     * @return {@code true} if any lookup failed; {@code false} otherwise
+     */
+    public final boolean hasFailures()
+    {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * ChunkedArray.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.Arrays;
+
+/**
+ * Append-only array of elements stored in fixed-size chunks.
+ * Random access takes constant time, and appending never copies the
+ * elements of full chunks, only the small table of chunks and the last
+ * chunk while it grows.
+ *
+ * @author Kaz Nishimura
+ * @param <E> the type of the elements
+ * @since 6.0
+ */
+final class ChunkedArray<E>
+{
+    /**
+     * Number of bits of an index within a chunk.
+     */
+    static final int CHUNK_BITS = 10;
+
+    /**
+     * Number of elements in a chunk.
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Initial capacity of a chunk.
+     */
+    private static final int INITIAL_CHUNK_CAPACITY = 16;
+
+    /**
+     * Table of chunks.
+     */
+    private Object[][] chunks = new Object[4][];
+
+    /**
+     * Number of elements.
+     */
+    private int size = 0;
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns an element.
+     *
+     * @param index the index of the element
+     * @return the element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    E get(final int index)
+    {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + size);
+        }
+        return (E) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Appends an element.
+     *
+     * @param element an element
+     */
+    void add(final E element)
+    {
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        int offset = size & CHUNK_MASK;
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new Object[INITIAL_CHUNK_CAPACITY];
+        }
+        else if (offset == chunks[chunk].length) {
+            // Only the last chunk may be short, which keeps small lists
+            // compact.
+            chunks[chunk] = Arrays.copyOf(chunks[chunk],
+                Math.min(offset * 2, CHUNK_SIZE));
+        }
+        chunks[chunk][offset] = element;
+        size += 1;
+    }
+}
@@ -0,0 +1,1014 @@
+/*
+ * ClientTransport.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Shared HTTP transport for the Bitbucket API client.
+ * <p>An instance of this class owns a single JAX-RS {@link Client} object
+ * which is built on first use and reused by every request until this
+ * transport is closed, so that the connector can keep connections alive
+ * across requests.
+ * This class does not pool connections by itself.
+ * The number of requests in flight to each host is limited, which bounds
+ * the number of connections in use for the host, but how many idle
+ * connections are kept alive is up to the connector; the default connector
+ * of Jersey, for example, leaves it to the {@code http.maxConnections}
+ * system property of the JDK.
+ * Requests waiting for a host are served in their order of arrival whether
+ * they are synchronous or asynchronous, and queued asynchronous requests
+ * are started on the executor of the rate limiter.</p>
+ * <p>Every request is also paced by a {@link RateLimiter} object according
+ * to its {@link RequestPriority}, and a request that was answered with
+ * {@code 429 Too Many Requests} is retried after the limiter resumes.
+ * Other failures of {@code GET} requests are retried, and slow ones are
+ * hedged, if a {@link RetryPolicy} object is set.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class ClientTransport implements AutoCloseable
+{
+    /**
+     * Default maximum number of concurrent connections per host.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+
+    /**
+     * Default number of retries for throttled requests.
+     */
+    public static final int DEFAULT_THROTTLE_RETRIES = 3;
+
+    /**
+     * Priority of the filter for conditional requests.
+     * It makes the filter run after authentication filters registered with
+     * the default priority.
+     */
+    private static final int CONDITIONAL_PRIORITY = Priorities.USER + 1000;
+
+    /**
+     * {@link ClientBuilder} object given to the constructor.
+     */
+    private final ClientBuilder clientBuilder;
+
+    /**
+     * Shared {@link Client} object, or {@code null} if not built yet.
+     */
+    private Client client = null;
+
+    /**
+     * Indicates whether this transport was closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * Maximum number of concurrent connections per host.
+     */
+    private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    /**
+     * Maximum numbers of concurrent connections for specific hosts.
+     */
+    private final Map<String, Integer> hostMaxConnections =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Connection permits for each host.
+     */
+    private final ConcurrentMap<String, HostPermits> hostPermits =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Cache for conditional requests, or {@code null} if disabled.
+     */
+    private volatile ConditionalCache conditionalCache = null;
+
+    /**
+     * Rate limiter for the requests.
+     */
+    private final RateLimiter rateLimiter = new RateLimiter();
+
+    /**
+     * Number of retries for throttled requests.
+     */
+    private volatile int throttleRetries = DEFAULT_THROTTLE_RETRIES;
+
+    /**
+     * Retry policy for {@code GET} requests, or {@code null} if disabled.
+     */
+    private volatile RetryPolicy retryPolicy = null;
+
+    /**
+     * Constructs a transport.
+     *
+     * @param clientBuilder a JAX-RS client builder object
+     */
+    public ClientTransport(final ClientBuilder clientBuilder)
+    {
+        if (clientBuilder == null) {
+            throw new IllegalArgumentException("Client builder is null");
+        }
+        this.clientBuilder = clientBuilder;
+    }
+
+    /**
+     * Returns the shared {@link Client} object.
+     * It will be built on the first call.
+     *
+     * @return the shared {@link Client} object
+     * @throws IllegalStateException if this transport was closed
+     */
+    public final Client getClient()
+    {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Transport is closed");
+            }
+            if (client == null) {
+                client = clientBuilder.build();
+                client.register(rateLimiter);
+                client.register(new ConditionalRequestFilter(
+                    this::getConditionalCache), CONDITIONAL_PRIORITY);
+            }
+            return client;
+        }
+    }
+
+    /**
+     * Returns {@code true} if this transport was closed.
+     *
+     * @return {@code true} if closed; {@code false} otherwise
+     */
+    public final boolean isClosed()
+    {
+        synchronized (this) {
+            return closed;
+        }
+    }
+
+    /**
+     * Returns the maximum number of concurrent connections per host.
+     *
+     * @return the maximum number of concurrent connections per host
+     */
+    public final int getMaxConnectionsPerHost()
+    {
+        synchronized (this) {
+            return maxConnectionsPerHost;
+        }
+    }
+
+    /**
+     * Sets the maximum number of concurrent connections per host.
+     * This value does not affect hosts that have their own limits.
+     *
+     * @param newValue a new value of the maximum number of concurrent
+     * connections per host
+     */
+    public final void setMaxConnectionsPerHost(final int newValue)
+    {
+        if (newValue <= 0) {
+            throw new IllegalArgumentException("Value is not positive");
+        }
+        synchronized (this) {
+            maxConnectionsPerHost = newValue;
+            hostPermits.forEach((host, permits) -> {
+                if (!hostMaxConnections.containsKey(host)) {
+                    permits.setLimit(newValue);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the maximum number of concurrent connections to a host.
+     *
+     * @param host a host name
+     * @return the maximum number of concurrent connections to the host
+     */
+    public final int getMaxConnections(final String host)
+    {
+        synchronized (this) {
+            return hostMaxConnections.getOrDefault(host, maxConnectionsPerHost);
+        }
+    }
+
+    /**
+     * Sets the maximum number of concurrent connections to a specific host.
+     *
+     * @param host a host name
+     * @param newValue a new value of the maximum number of concurrent
+     * connections to the host
+     */
+    public final void setMaxConnections(final String host, final int newValue)
+    {
+        if (newValue <= 0) {
+            throw new IllegalArgumentException("Value is not positive");
+        }
+        synchronized (this) {
+            hostMaxConnections.put(host, newValue);
+            HostPermits permits = hostPermits.get(host);
+            if (permits != null) {
+                permits.setLimit(newValue);
+            }
+        }
+    }
+
+    /**
+     * Returns the cache for conditional requests.
+     *
+     * @return the cache for conditional requests, or {@code null} if
+     * conditional requests are disabled
+     */
+    public final ConditionalCache getConditionalCache()
+    {
+        return conditionalCache;
+    }
+
+    /**
+     * Sets the cache for conditional requests.
+     * If a cache is set, {@code GET} requests will be made conditional on
+     * the validators of the last response made with the same credentials,
+     * and a {@code 304 Not Modified} response will be answered with a copy
+     * of the resource decoded from the entity received before.
+     *
+     * @param newValue a new value of the cache for conditional requests, or
+     * {@code null} to disable conditional requests
+     */
+    public final void setConditionalCache(final ConditionalCache newValue)
+    {
+        conditionalCache = newValue;
+    }
+
+    /**
+     * Returns the rate limiter for the requests.
+     *
+     * @return the rate limiter
+     */
+    public final RateLimiter getRateLimiter()
+    {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the number of retries for throttled requests.
+     *
+     * @return the number of retries for throttled requests
+     */
+    public final int getThrottleRetries()
+    {
+        return throttleRetries;
+    }
+
+    /**
+     * Sets the number of retries for throttled requests.
+     *
+     * @param newValue a new value of the number of retries for throttled
+     * requests
+     */
+    public final void setThrottleRetries(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        throttleRetries = newValue;
+    }
+
+    /**
+     * Returns the retry policy for {@code GET} requests.
+     *
+     * @return the retry policy, or {@code null} if failed requests are not
+     * retried
+     */
+    public final RetryPolicy getRetryPolicy()
+    {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the retry policy for {@code GET} requests.
+     *
+     * @param newValue a new value of the retry policy, or {@code null} not
+     * to retry failed requests
+     */
+    public final void setRetryPolicy(final RetryPolicy newValue)
+    {
+        retryPolicy = newValue;
+    }
+
+    /**
+     * Returns a {@link WebTarget} object for a URI on the shared client.
+     *
+     * @param uri a URI
+     * @return a {@link WebTarget} object
+     */
+    public final WebTarget target(final URI uri)
+    {
+        return getClient().target(uri);
+    }
+
+    /**
+     * Makes a {@code GET} request to a target.
+     *
+     * @param <T> the return type
+     * @param target a target
+     * @param type the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource
+     */
+    public final <T> T get(final WebTarget target, final Class<T> type,
+        final MediaType... mediaTypes)
+    {
+        return get(RequestPriority.INTERACTIVE, target, type, mediaTypes);
+    }
+
+    /**
+     * Makes a {@code GET} request to a target with a priority class.
+     *
+     * @param <T> the return type
+     * @param priority the priority class of the request
+     * @param target a target
+     * @param type the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource
+     */
+    public final <T> T get(final RequestPriority priority,
+        final WebTarget target, final Class<T> type,
+        final MediaType... mediaTypes)
+    {
+        RetryPolicy policy = retryPolicy;
+        if (policy != null && policy.getHedgeDelay() >= 0) {
+            return join(getAsync(priority, target, type, mediaTypes));
+        }
+
+        Supplier<T> request = () -> target.request(mediaTypes).get(type);
+        if (policy == null) {
+            return execute(target.getUri(), priority, request);
+        }
+        return executeRetrying(policy, target.getUri(), priority, request);
+    }
+
+    /**
+     * Makes an asynchronous {@code GET} request to a target.
+     * This method uses the reactive invoker of the target and does not block
+     * the calling thread, even if the host has no permits available.
+     *
+     * @param <T> the return type
+     * @param target a target
+     * @param type the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a completion stage of a received resource
+     */
+    public final <T> CompletionStage<T> getAsync(final WebTarget target,
+        final Class<T> type, final MediaType... mediaTypes)
+    {
+        return getAsync(RequestPriority.INTERACTIVE, target, type,
+            mediaTypes);
+    }
+
+    /**
+     * Makes an asynchronous {@code GET} request to a target with a priority
+     * class.
+     *
+     * @param <T> the return type
+     * @param priority the priority class of the request
+     * @param target a target
+     * @param type the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a completion stage of a received resource
+     */
+    public final <T> CompletionStage<T> getAsync(
+        final RequestPriority priority, final WebTarget target,
+        final Class<T> type, final MediaType... mediaTypes)
+    {
+        Supplier<CompletionStage<T>> request =
+            () -> target.request(mediaTypes).rx().get(type);
+
+        RetryPolicy policy = retryPolicy;
+        if (policy == null) {
+            return executeAsync(target.getUri(), priority, request);
+        }
+        return executeRetryingAsync(policy, target.getUri(), priority,
+            request, 0);
+    }
+
+    /**
+     * Makes a {@code POST} request to a target.
+     *
+     * @param <T> the return type
+     * @param target a target
+     * @param entity an entity to post
+     * @param type the type of the resource to be returned
+     * @param mediaTypes acceptable MIME media types
+     * @return a received resource
+     */
+    public final <T> T post(final WebTarget target, final Entity<?> entity,
+        final Class<T> type, final MediaType... mediaTypes)
+    {
+        return execute(target.getUri(),
+            () -> target.request(mediaTypes).post(entity, type));
+    }
+
+    /**
+     * Waits for a completion stage and returns its result.
+     *
+     * @param <T> the return type
+     * @param stage a completion stage
+     * @return the result
+     */
+    private static <T> T join(final CompletionStage<T> stage)
+    {
+        try {
+            return stage.toCompletableFuture().join();
+        }
+        catch (final CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executes an interactive request.
+     *
+     * @param <T> the return type
+     * @param uri the request URI
+     * @param request a function that makes the request
+     * @return the result of the request
+     */
+    protected final <T> T execute(final URI uri, final Supplier<T> request)
+    {
+        return execute(uri, RequestPriority.INTERACTIVE, request);
+    }
+
+    /**
+     * Executes a request when the rate limiter grants it, and retries it if
+     * it was throttled.
+     *
+     * @param <T> the return type
+     * @param uri the request URI
+     * @param priority the priority class of the request
+     * @param request a function that makes the request
+     * @return the result of the request
+     */
+    protected final <T> T execute(final URI uri,
+        final RequestPriority priority, final Supplier<T> request)
+    {
+        int retries = throttleRetries;
+        while (true) {
+            try {
+                rateLimiter.acquire(priority);
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException("Interrupted", e);
+            }
+            try {
+                return executePermitted(uri, request);
+            }
+            catch (final WebApplicationException e) {
+                if (retries <= 0 || !isThrottled(e)) {
+                    throw e;
+                }
+                e.getResponse().close();
+                retries -= 1;
+            }
+        }
+    }
+
+    /**
+     * Executes a request holding a connection permit for the host.
+     *
+     * @param <T> the return type
+     * @param uri the request URI
+     * @param request a function that makes the request
+     * @return the result of the request
+     */
+    private <T> T executePermitted(final URI uri, final Supplier<T> request)
+    {
+        HostPermits permits = getHostPermits(uri.getHost());
+        try {
+            permits.acquire();
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted", e);
+        }
+        try {
+            return request.get();
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Executes an idempotent request retrying it on failures.
+     *
+     * @param <T> the return type
+     * @param policy a retry policy
+     * @param uri the request URI
+     * @param priority the priority class of the request
+     * @param request a function that makes the request
+     * @return the result of the request
+     */
+    private <T> T executeRetrying(final RetryPolicy policy, final URI uri,
+        final RequestPriority priority, final Supplier<T> request)
+    {
+        int retry = 0;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                T value = execute(uri, priority, request);
+                policy.recordLatency(System.nanoTime() - start);
+                return value;
+            }
+            catch (final RuntimeException e) {
+                if (retry >= policy.getMaxRetries()
+                    || !policy.isRetryable(e)) {
+                    throw e;
+                }
+                if (e instanceof WebApplicationException) {
+                    ((WebApplicationException) e).getResponse().close();
+                }
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(policy.getBackoff(retry));
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException("Interrupted", e);
+            }
+            policy.retried();
+            retry += 1;
+        }
+    }
+
+    /**
+     * Executes an idempotent asynchronous request retrying it on failures.
+     *
+     * @param <T> the return type
+     * @param policy a retry policy
+     * @param uri the request URI
+     * @param priority the priority class of the request
+     * @param request a function that starts the request
+     * @param retry the number of retries made before
+     * @return a completion stage of the result of the request
+     */
+    private <T> CompletionStage<T> executeRetryingAsync(
+        final RetryPolicy policy, final URI uri,
+        final RequestPriority priority,
+        final Supplier<? extends CompletionStage<T>> request, final int retry)
+    {
+        return executeHedgedAsync(policy, uri, priority, request)
+            .handle((value, exception) -> {
+                if (exception == null) {
+                    return CompletableFuture.completedFuture(value);
+                }
+
+                Throwable cause = exception;
+                if (cause instanceof CompletionException
+                    && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                CompletableFuture<T> next = new CompletableFuture<>();
+                if (retry >= policy.getMaxRetries()
+                    || !policy.isRetryable(cause)) {
+                    next.completeExceptionally(cause);
+                    return next;
+                }
+                if (cause instanceof WebApplicationException) {
+                    ((WebApplicationException) cause).getResponse().close();
+                }
+                RateLimiter.getTimer().schedule(() -> {
+                    policy.retried();
+                    executeRetryingAsync(policy, uri, priority, request,
+                        retry + 1).whenComplete((v, e) -> {
+                            if (e != null) {
+                                next.completeExceptionally(e);
+                            }
+                            else {
+                                next.complete(v);
+                            }
+                        });
+                }, policy.getBackoff(retry), TimeUnit.MILLISECONDS);
+                return next;
+            })
+            .thenCompose(Function.identity());
+    }
+
+    /**
+     * Executes an idempotent asynchronous request hedging it by a second
+     * copy if it is slow.
+     * The first successful result is taken.
+     *
+     * @param <T> the return type
+     * @param policy a retry policy
+     * @param uri the request URI
+     * @param priority the priority class of the request
+     * @param request a function that starts the request
+     * @return a completion stage of the result of the request
+     */
+    private <T> CompletionStage<T> executeHedgedAsync(
+        final RetryPolicy policy, final URI uri,
+        final RequestPriority priority,
+        final Supplier<? extends CompletionStage<T>> request)
+    {
+        long hedgeDelay = policy.getHedgeDelay();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Number of copies in flight, which drops to zero or below once the
+        // result is decided so that no hedge is started after that.
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<T, Throwable> completion = (value, exception) -> {
+            if (exception == null) {
+                outstanding.set(0);
+                result.complete(value);
+            }
+            else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(exception);
+            }
+        };
+
+        // The latency is measured from when the request is permitted, so
+        // that waits in the rate limiter and for a host permit are excluded.
+        AtomicLong start = new AtomicLong();
+        executeAsync(uri, priority, () -> {
+            start.set(System.nanoTime());
+            return request.get();
+        }).whenComplete((value, e) -> {
+            if (e == null) {
+                policy.recordLatency(System.nanoTime() - start.get());
+            }
+            completion.accept(value, e);
+        });
+        if (hedgeDelay >= 0 && !result.isDone()) {
+            ScheduledFuture<?> hedge = RateLimiter.getTimer().schedule(() -> {
+                int count;
+                do {
+                    count = outstanding.get();
+                    if (count <= 0) {
+                        return;
+                    }
+                } while (!outstanding.compareAndSet(count, count + 1));
+                policy.hedged();
+                executeAsync(uri, priority, request).whenComplete(completion);
+            }, hedgeDelay, TimeUnit.MILLISECONDS);
+            result.whenComplete((value, e) -> hedge.cancel(false));
+        }
+        return result;
+    }
+
+    /**
+     * Executes an interactive asynchronous request.
+     *
+     * @param <T> the return type
+     * @param uri the request URI
+     * @param request a function that starts the request
+     * @return a completion stage of the result of the request
+     */
+    protected final <T> CompletionStage<T> executeAsync(final URI uri,
+        final Supplier<? extends CompletionStage<T>> request)
+    {
+        return executeAsync(uri, RequestPriority.INTERACTIVE, request);
+    }
+
+    /**
+     * Executes an asynchronous request when the rate limiter grants it, and
+     * retries it if it was throttled.
+     *
+     * @param <T> the return type
+     * @param uri the request URI
+     * @param priority the priority class of the request
+     * @param request a function that starts the request
+     * @return a completion stage of the result of the request
+     */
+    protected final <T> CompletionStage<T> executeAsync(final URI uri,
+        final RequestPriority priority,
+        final Supplier<? extends CompletionStage<T>> request)
+    {
+        return executeAsync(uri, priority, request, throttleRetries);
+    }
+
+    private <T> CompletionStage<T> executeAsync(final URI uri,
+        final RequestPriority priority,
+        final Supplier<? extends CompletionStage<T>> request,
+        final int retries)
+    {
+        return rateLimiter.acquireAsync(priority)
+            .thenCompose((granted) -> executePermittedAsync(uri, request))
+            .handle((value, exception) -> {
+                if (exception == null) {
+                    return CompletableFuture.completedFuture(value);
+                }
+
+                Throwable cause = exception;
+                if (cause instanceof CompletionException
+                    && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                if (retries > 0 && isThrottled(cause)) {
+                    ((WebApplicationException) cause).getResponse().close();
+                    return executeAsync(uri, priority, request, retries - 1);
+                }
+                CompletableFuture<T> failed = new CompletableFuture<>();
+                failed.completeExceptionally(cause);
+                return failed;
+            })
+            .thenCompose(Function.identity());
+    }
+
+    /**
+     * Returns {@code true} if an exception is for a throttled response.
+     *
+     * @param exception an exception
+     * @return {@code true} if throttled; {@code false} otherwise
+     */
+    private static boolean isThrottled(final Throwable exception)
+    {
+        return exception instanceof WebApplicationException
+            && ((WebApplicationException) exception).getResponse().getStatus()
+            == RateLimiter.TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * Executes an asynchronous request holding a connection permit for the
+     * host.
+     * If no permit is available, the request is queued until one is
+     * released.
+     *
+     * @param <T> the return type
+     * @param uri the request URI
+     * @param request a function that starts the request
+     * @return a completion stage of the result of the request
+     */
+    private <T> CompletionStage<T> executePermittedAsync(final URI uri,
+        final Supplier<? extends CompletionStage<T>> request)
+    {
+        HostPermits permits = getHostPermits(uri.getHost());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        permits.acquireAsync(() -> {
+            CompletionStage<T> stage;
+            try {
+                stage = request.get();
+            }
+            catch (final RuntimeException e) {
+                permits.release();
+                result.completeExceptionally(e);
+                return;
+            }
+            stage.whenComplete((value, e) -> {
+                permits.release();
+                if (e != null) {
+                    result.completeExceptionally(e);
+                }
+                else {
+                    result.complete(value);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Returns the connection permits for a host.
+     *
+     * @param host a host name
+     * @return the connection permits
+     */
+    private HostPermits getHostPermits(final String host)
+    {
+        String key = String.valueOf(host);
+        HostPermits permits = hostPermits.get(key);
+        if (permits == null) {
+            synchronized (this) {
+                permits = hostPermits.computeIfAbsent(key,
+                    (k) -> new HostPermits(getMaxConnections(k),
+                        rateLimiter::getExecutor));
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * Closes the shared client.
+     * Any later request will fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close()
+    {
+        Client closing;
+        synchronized (this) {
+            closing = client;
+            client = null;
+            closed = true;
+        }
+        if (closing != null) {
+            closing.close();
+        }
+    }
+
+    /**
+     * Permits with an adjustable limit.
+     * Blocked threads and asynchronous tasks wait in a single queue and are
+     * served in their order of arrival.
+     * A released permit is handed over to the first waiter, and a queued
+     * task is then started on an executor rather than on the releasing
+     * thread.
+     */
+    static final class HostPermits
+    {
+        /**
+         * Supplier of the executor on which queued tasks are started.
+         */
+        private final Supplier<? extends Executor> executorSupplier;
+
+        /**
+         * Current limit.
+         */
+        private int limit;
+
+        /**
+         * Number of available permits, which is negative while more
+         * permits are held than the limit.
+         */
+        private int available;
+
+        /**
+         * Waiters for a permit in their order of arrival.
+         */
+        private final Queue<CompletableFuture<Void>> waiters =
+            new ArrayDeque<>();
+
+        /**
+         * Constructs this object.
+         *
+         * @param limit the initial limit
+         * @param executorSupplier a supplier of the executor on which queued
+         * tasks are started
+         */
+        HostPermits(final int limit,
+            final Supplier<? extends Executor> executorSupplier)
+        {
+            this.executorSupplier = executorSupplier;
+            this.limit = limit;
+            this.available = limit;
+        }
+
+        /**
+         * Waits for a permit.
+         *
+         * @throws InterruptedException if interrupted while waiting
+         */
+        void acquire() throws InterruptedException
+        {
+            CompletableFuture<Void> granted = new CompletableFuture<>();
+            synchronized (this) {
+                if (available > 0 && waiters.isEmpty()) {
+                    available -= 1;
+                    return;
+                }
+                waiters.add(granted);
+            }
+            try {
+                granted.get();
+            }
+            catch (final InterruptedException e) {
+                if (!granted.cancel(false)) {
+                    // The permit was handed over before the cancellation.
+                    release();
+                }
+                throw e;
+            }
+            catch (final ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /**
+         * Runs a task with a permit, or queues it until a permit is
+         * released.
+         * The task is responsible for releasing the permit.
+         *
+         * @param task a task
+         */
+        void acquireAsync(final Runnable task)
+        {
+            CompletableFuture<Void> granted = new CompletableFuture<>();
+            synchronized (this) {
+                if (available > 0 && waiters.isEmpty()) {
+                    available -= 1;
+                    granted = null;
+                }
+                else {
+                    waiters.add(granted);
+                }
+            }
+            if (granted == null) {
+                task.run();
+                return;
+            }
+
+            granted.thenRun(() -> {
+                try {
+                    executorSupplier.get().execute(task);
+                }
+                catch (final RejectedExecutionException e) {
+                    task.run();
+                }
+            });
+        }
+
+        /**
+         * Releases a permit, handing it over to the first waiter if any.
+         */
+        void release()
+        {
+            while (true) {
+                CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = available < 0 ? null : waiters.poll();
+                    if (next == null) {
+                        available += 1;
+                        return;
+                    }
+                }
+                if (next.complete(null)) {
+                    return;
+                }
+                // The waiter was cancelled; try the next one.
+            }
+        }
+
+        /**
+         * Changes the limit.
+         *
+         * @param newLimit a new limit
+         */
+        void setLimit(final int newLimit)
+        {
+            int added;
+            synchronized (this) {
+                added = newLimit - limit;
+                limit = newLimit;
+                if (added <= 0) {
+                    available += added;
+                    return;
+                }
+            }
+            for (int i = 0; i < added; i++) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * ConditionalCache.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of response entities for conditional requests.
+ * Each entry keeps the validators of a response, namely {@code ETag} and
+ * {@code Last-Modified}, with the undecoded entity, so that a later request
+ * can be made conditional and a {@code 304 Not Modified} response can be
+ * answered with the entity received before.
+ * Entries are keyed by credentials as well as by requests, and each caller
+ * decodes its own copy of a cached entity.
+ * The least recently used entries are evicted when the capacity is
+ * exceeded.
+ * <p>This class is thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class ConditionalCache
+{
+    /**
+     * Default capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Cached entries in access order.
+     */
+    private final Map<Object, Entry> entries;
+
+    /**
+     * Number of responses that were answered from this cache.
+     */
+    private final AtomicLong notModifiedCount = new AtomicLong();
+
+    /**
+     * Constructs a cache with the default capacity.
+     */
+    public ConditionalCache()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param capacity the maximum number of entries
+     */
+    public ConditionalCache(final int capacity)
+    {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity is not positive");
+        }
+        this.entries = new LinkedHashMap<Object, ConditionalCache.Entry>(
+            16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<Object, ConditionalCache.Entry> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public final int size()
+    {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public final void clear()
+    {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of {@code 304 Not Modified} responses that were
+     * answered from this cache.
+     *
+     * @return the number of responses answered from this cache
+     */
+    public final long getNotModifiedCount()
+    {
+        return notModifiedCount.get();
+    }
+
+    /**
+     * Returns the entry for a key.
+     *
+     * @param key a key
+     * @return the entry, or {@code null} if none
+     */
+    final Entry get(final Object key)
+    {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Puts an entry for a key.
+     *
+     * @param key a key
+     * @param entry an entry
+     */
+    final void put(final Object key, final Entry entry)
+    {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes the entry for a key.
+     *
+     * @param key a key
+     */
+    final void remove(final Object key)
+    {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Records a {@code 304 Not Modified} response.
+     */
+    final void notModified()
+    {
+        notModifiedCount.incrementAndGet();
+    }
+
+    /**
+     * Cache entry.
+     */
+    static final class Entry
+    {
+        /**
+         * Value of {@code ETag}, or {@code null}.
+         */
+        private final String entityTag;
+
+        /**
+         * Value of {@code Last-Modified}, or {@code null}.
+         */
+        private final String lastModified;
+
+        /**
+         * Value of {@code Content-Type}, or {@code null}.
+         */
+        private final String contentType;
+
+        /**
+         * Value of {@code Content-Encoding}, or {@code null}.
+         */
+        private final String contentEncoding;
+
+        /**
+         * Undecoded entity.
+         */
+        private final byte[] content;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param entityTag a value of {@code ETag}, or {@code null}
+         * @param lastModified a value of {@code Last-Modified}, or {@code
+         * null}
+         * @param contentType a value of {@code Content-Type}, or {@code
+         * null}
+         * @param contentEncoding a value of {@code Content-Encoding}, or
+         * {@code null}
+         * @param content an undecoded entity, which shall not be modified
+         * later
+         */
+        Entry(final String entityTag, final String lastModified,
+            final String contentType, final String contentEncoding,
+            final byte[] content)
+        {
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.content = content;
+        }
+
+        String getEntityTag()
+        {
+            return entityTag;
+        }
+
+        String getLastModified()
+        {
+            return lastModified;
+        }
+
+        String getContentType()
+        {
+            return contentType;
+        }
+
+        String getContentEncoding()
+        {
+            return contentEncoding;
+        }
+
+        byte[] getContent()
+        {
+            return content;
+        }
+    }
+}
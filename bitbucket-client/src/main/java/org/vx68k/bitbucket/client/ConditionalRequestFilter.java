@@ -0,0 +1,230 @@
+/*
+ * ConditionalRequestFilter.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package org.vx68k.bitbucket.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+/**
+ * Filter that makes {@code GET} requests conditional on a {@link
+ * ConditionalCache} object.
+ * Entries are keyed by the request URI, the {@code Accept} header and the
+ * {@code Authorization} header, so that no entity is answered to a request
+ * made with other credentials.
+ * A {@code 304 Not Modified} response is turned into a {@code 200 OK}
+ * response with the cached entity, which is decoded anew for each caller.
+ * <p>This filter must be registered with a priority that makes it run
+ * after any filters that add {@code Authorization} headers.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+final class ConditionalRequestFilter
+    implements ClientRequestFilter, ClientResponseFilter
+{
+    /**
+     * Name of the request property for the lookup of a request.
+     */
+    private static final String LOOKUP_PROPERTY =
+        ConditionalRequestFilter.class.getName() + ".lookup";
+
+    /**
+     * Size of the buffer to read entities.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Supplier of the current cache.
+     */
+    private final Supplier<ConditionalCache> cacheSupplier;
+
+    /**
+     * Constructs a filter.
+     *
+     * @param cacheSupplier a supplier of the current cache, which may
+     * supply {@code null} to disable conditional requests
+     */
+    ConditionalRequestFilter(final Supplier<ConditionalCache> cacheSupplier)
+    {
+        this.cacheSupplier = cacheSupplier;
+    }
+
+    @Override
+    public void filter(final ClientRequestContext requestContext)
+    {
+        ConditionalCache cache = cacheSupplier.get();
+        if (cache == null
+            || !HttpMethod.GET.equals(requestContext.getMethod())) {
+            return;
+        }
+
+        Object key = Arrays.asList(requestContext.getUri(),
+            requestContext.getHeaderString(HttpHeaders.ACCEPT),
+            requestContext.getHeaderString(HttpHeaders.AUTHORIZATION));
+        ConditionalCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            MultivaluedMap<String, Object> headers =
+                requestContext.getHeaders();
+            if (entry.getEntityTag() != null) {
+                headers.putSingle(HttpHeaders.IF_NONE_MATCH,
+                    entry.getEntityTag());
+            }
+            if (entry.getLastModified() != null) {
+                headers.putSingle(HttpHeaders.IF_MODIFIED_SINCE,
+                    entry.getLastModified());
+            }
+        }
+        requestContext.setProperty(LOOKUP_PROPERTY,
+            new Lookup(cache, key, entry));
+    }
+
+    @Override
+    public void filter(final ClientRequestContext requestContext,
+        final ClientResponseContext responseContext) throws IOException
+    {
+        Object property = requestContext.getProperty(LOOKUP_PROPERTY);
+        if (!(property instanceof Lookup)) {
+            return;
+        }
+
+        Lookup lookup = (Lookup) property;
+        ConditionalCache cache = lookup.cache;
+        ConditionalCache.Entry entry = lookup.entry;
+        if (entry != null && responseContext.getStatus()
+            == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            cache.notModified();
+            MultivaluedMap<String, String> headers =
+                responseContext.getHeaders();
+            putHeader(headers, HttpHeaders.CONTENT_TYPE,
+                entry.getContentType());
+            putHeader(headers, HttpHeaders.CONTENT_ENCODING,
+                entry.getContentEncoding());
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            responseContext.setStatus(Response.Status.OK.getStatusCode());
+            responseContext.setEntityStream(
+                new ByteArrayInputStream(entry.getContent()));
+            return;
+        }
+        if (responseContext.getStatusInfo().getFamily()
+            != Response.Status.Family.SUCCESSFUL) {
+            return;
+        }
+
+        String entityTag = responseContext.getHeaderString(HttpHeaders.ETAG);
+        String lastModified =
+            responseContext.getHeaderString(HttpHeaders.LAST_MODIFIED);
+        if (entityTag == null && lastModified == null) {
+            cache.remove(lookup.key);
+            return;
+        }
+
+        byte[] content = new byte[0];
+        if (responseContext.hasEntity()) {
+            content = readAll(responseContext.getEntityStream());
+            responseContext.setEntityStream(new ByteArrayInputStream(content));
+        }
+        String contentType =
+            responseContext.getHeaderString(HttpHeaders.CONTENT_TYPE);
+        String contentEncoding =
+            responseContext.getHeaderString(HttpHeaders.CONTENT_ENCODING);
+        cache.put(lookup.key, new ConditionalCache.Entry(entityTag,
+            lastModified, contentType, contentEncoding, content));
+    }
+
+    /**
+     * Sets or removes a response header.
+     *
+     * @param headers response headers
+     * @param name a header name
+     * @param value a header value, or {@code null} to remove the header
+     */
+    private static void putHeader(final MultivaluedMap<String, String> headers,
+        final String name, final String value)
+    {
+        if (value != null) {
+            headers.putSingle(name, value);
+        }
+        else {
+            headers.remove(name);
+        }
+    }
+
+    /**
+     * Reads all the bytes from a stream and closes it.
+     *
+     * @param stream a stream
+     * @return the bytes read
+     * @throws IOException if an I/O error occurred
+     */
+    private static byte[] readAll(final InputStream stream) throws IOException
+    {
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length = in.read(buffer);
+            while (length >= 0) {
+                out.write(buffer, 0, length);
+                length = in.read(buffer);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Lookup of a request in a cache.
+     */
+    private static final class Lookup
+    {
+        /**
+         * Cache in which the request was looked up.
+         */
+        final ConditionalCache cache;
+
+        /**
+         * Cache key of the request.
+         */
+        final Object key;
+
+        /**
+         * Entry found for the request, or {@code null}.
+         */
+        final ConditionalCache.Entry entry;
+
+        Lookup(final ConditionalCache cache, final Object key,
+            final ConditionalCache.Entry entry)
+        {
+            this.cache = cache;
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+}
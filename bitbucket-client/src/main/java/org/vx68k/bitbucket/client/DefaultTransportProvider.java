@@ -0,0 +1,61 @@
+/*
+ * DefaultTransportProvider.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import javax.ws.rs.client.ClientBuilder;
+
+/**
+ * Transport provider that uses the default JAX-RS implementation with its
+ * default connector.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+final class DefaultTransportProvider implements TransportProvider
+{
+    /**
+     * Sole instance.
+     */
+    static final DefaultTransportProvider INSTANCE =
+        new DefaultTransportProvider();
+
+    private DefaultTransportProvider()
+    {
+    }
+
+    @Override
+    public String getName()
+    {
+        return "default";
+    }
+
+    @Override
+    public boolean isAvailable()
+    {
+        return true;
+    }
+
+    @Override
+    public ClientBuilder newClientBuilder()
+    {
+        return ClientBuilder.newBuilder();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Page.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of the values of a paginated resource.
+ * A page holds the values taken from the cursor at which it was fetched,
+ * and the cursor from which the sweep continues.
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Kaz Nishimura
+ * @param <T> the type of the values
+ * @see BitbucketClient#getPageAsync(PageCursor, Class)
+ * @since 6.0
+ */
+public final class Page<T>
+{
+    /**
+     * Values of this page.
+     */
+    private final List<T> values;
+
+    /**
+     * Cursor from which the sweep continues.
+     */
+    private final PageCursor next;
+
+    /**
+     * Constructs a page.
+     *
+     * @param values the values of the page
+     * @param next the cursor from which the sweep continues
+     */
+    public Page(final List<? extends T> values, final PageCursor next)
+    {
+        if (values == null) {
+            throw new IllegalArgumentException("Values are null");
+        }
+        if (next == null) {
+            throw new IllegalArgumentException("Cursor is null");
+        }
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        this.next = next;
+    }
+
+    /**
+     * Returns the values of this page.
+     * Values skipped by the cursor at which this page was fetched are not
+     * included.
+     *
+     * @return an unmodifiable list of the values
+     */
+    public List<T> getValues()
+    {
+        return values;
+    }
+
+    /**
+     * Returns the cursor from which the sweep continues.
+     *
+     * @return the cursor after this page, which is exhausted if this page is
+     * the last
+     */
+    public PageCursor getNext()
+    {
+        return next;
+    }
+}
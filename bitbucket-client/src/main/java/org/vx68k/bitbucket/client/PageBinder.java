@@ -0,0 +1,276 @@
+/*
+ * PageBinder.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import javax.json.bind.Jsonb;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import org.vx68k.bitbucket.client.bind.JsonValues;
+import org.vx68k.bitbucket.client.bind.ModelReader;
+import org.vx68k.bitbucket.client.bind.ModelReaders;
+import org.vx68k.bitbucket.client.internal.ClientPage;
+import org.vx68k.bitbucket.client.util.JsonbMessageBodyReader;
+
+/**
+ * Binder of pages of a paginated resource.
+ * A page is bound in a single pass with its values bound directly into the
+ * runtime type, without building an intermediate JSON structure.
+ * Values of a type that has a {@link ModelReader} are read by it, and the
+ * others are bound with JSON-B.
+ * In the lazy content mode, the model readers may keep large nested values,
+ * such as rendered texts, undecoded until they are accessed.
+ * <p>This class is thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @param <T> the type of the values
+ * @since 6.0
+ */
+final class PageBinder<T>
+{
+    /**
+     * JSON binding object shared by all the binders and the message body
+     * readers of clients.
+     */
+    private static final Jsonb JSONB =
+        JsonbMessageBodyReader.getDefaultJsonb();
+
+    /**
+     * Parameterized type of the pages.
+     */
+    private final Type pageType;
+
+    /**
+     * Reader of the pages, or {@code null} if the values have no model
+     * reader.
+     */
+    private final ModelReader<ClientPage<T>> pageReader;
+
+    /**
+     * {@code true} if the lazy content mode is enabled.
+     */
+    private volatile boolean lazyContent = false;
+
+    /**
+     * Constructs a binder.
+     *
+     * @param type the runtime type of the values
+     */
+    PageBinder(final Class<? extends T> type)
+    {
+        this.pageType = new PageType(type);
+        ModelReader<? extends T> valueReader = ModelReaders.get(type);
+        if (valueReader != null) {
+            this.pageReader = new PageReader<>(valueReader);
+        }
+        else {
+            this.pageReader = null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the lazy content mode is enabled.
+     *
+     * @return {@code true} if the lazy content mode is enabled
+     */
+    boolean isLazyContent()
+    {
+        return lazyContent;
+    }
+
+    /**
+     * Enables or disables the lazy content mode.
+     * It takes effect only if the values have a model reader.
+     *
+     * @param newValue {@code true} to enable the lazy content mode
+     * @see ModelReaders#readSliced(ModelReader, byte[])
+     */
+    void setLazyContent(final boolean newValue)
+    {
+        lazyContent = newValue;
+    }
+
+    /**
+     * Binds a page.
+     *
+     * @param content the content of a page
+     * @return the page
+     */
+    ClientPage<T> bind(final byte[] content)
+    {
+        if (pageReader != null && lazyContent) {
+            return ModelReaders.readSliced(pageReader, content);
+        }
+        return bind(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Binds a page and records its observation to a page length controller.
+     *
+     * @param content the content of a page
+     * @param start the value of {@link System#nanoTime} when the page was
+     * requested
+     * @param controller a page length controller, or {@code null}
+     * @return the page
+     */
+    ClientPage<T> bind(final byte[] content, final long start,
+        final PageLengthController controller)
+    {
+        ClientPage<T> page = bind(content);
+        if (controller != null && page.getPagelen() != null
+            && page.getValues() != null) {
+            controller.record(page.getPagelen(), page.getValues().size(),
+                content.length, System.nanoTime() - start);
+        }
+        return page;
+    }
+
+    /**
+     * Binds a page.
+     *
+     * @param stream a stream of the content of a page
+     * @return the page
+     */
+    ClientPage<T> bind(final InputStream stream)
+    {
+        if (pageReader != null) {
+            return ModelReaders.read(pageReader, stream);
+        }
+        return JSONB.fromJson(stream, pageType);
+    }
+
+    /**
+     * Reader of pages whose values have a model reader.
+     *
+     * @param <T> the type of the values
+     */
+    private static final class PageReader<T>
+        implements ModelReader<ClientPage<T>>
+    {
+        private final ModelReader<? extends T> valueReader;
+
+        PageReader(final ModelReader<? extends T> valueReader)
+        {
+            this.valueReader = valueReader;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<ClientPage<T>> getType()
+        {
+            return (Class<ClientPage<T>>) (Class<?>) ClientPage.class;
+        }
+
+        @Override
+        public ClientPage<T> read(final JsonParser parser)
+        {
+            ClientPage<T> page = new ClientPage<>();
+            for (Event event = parser.next(); event != Event.END_OBJECT;
+                event = parser.next()) {
+                String name = parser.getString();
+                event = parser.next();
+                switch (name) {
+                case "size":
+                    page.setSize(JsonValues.readInteger(parser, event));
+                    break;
+                case "page":
+                    page.setPage(JsonValues.readInteger(parser, event));
+                    break;
+                case "pagelen":
+                    page.setPagelen(JsonValues.readInteger(parser, event));
+                    break;
+                case "next":
+                    page.setNext(JsonValues.readString(parser, event));
+                    break;
+                case "values":
+                    page.setValues(
+                        JsonValues.readList(parser, event, valueReader));
+                    break;
+                default:
+                    JsonValues.skip(parser, event);
+                    break;
+                }
+            }
+            return page;
+        }
+    }
+
+    /**
+     * Parameterized type of pages.
+     */
+    private static final class PageType implements ParameterizedType
+    {
+        private final Type[] typeArguments;
+
+        PageType(final Type valueType)
+        {
+            this.typeArguments = new Type[] {valueType};
+        }
+
+        @Override
+        public Type[] getActualTypeArguments()
+        {
+            return typeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType()
+        {
+            return ClientPage.class;
+        }
+
+        @Override
+        public Type getOwnerType()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object object)
+        {
+            if (!(object instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType other = (ParameterizedType) object;
+            return other.getRawType() == ClientPage.class
+                && other.getOwnerType() == null
+                && Arrays.equals(typeArguments,
+                    other.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Arrays.hashCode(typeArguments) ^ ClientPage.class.hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return ClientPage.class.getName() + "<"
+                + typeArguments[0].getTypeName() + ">";
+        }
+    }
+}
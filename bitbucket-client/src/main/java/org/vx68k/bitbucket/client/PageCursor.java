@@ -0,0 +1,214 @@
+/*
+ * PageCursor.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.util.Objects;
+
+/**
+ * Cursor of a sweep over a paginated resource.
+ * A cursor holds the URI of the page to fetch next, the offset of the next
+ * value in the whole resource, and the number of values at the start of
+ * that page that were already consumed, so that a sweep can be checkpointed
+ * and resumed later, even in another process.
+ * The filter of the resource is held for reference only, as the URI keeps
+ * it.
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Kaz Nishimura
+ * @see PaginatedList#getCursor(int)
+ * @since 6.0
+ */
+public final class PageCursor implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Name of the query parameter of filters.
+     */
+    private static final String FILTER_PARAMETER = "q";
+
+    /**
+     * URI of the page to fetch next, or {@code null} if the sweep is
+     * exhausted.
+     */
+    private final URI next;
+
+    /**
+     * Offset of the next value in the whole resource.
+     */
+    private final long offset;
+
+    /**
+     * Number of values to skip at the start of the next page.
+     */
+    private final int skip;
+
+    /**
+     * Filter of the resource, or {@code null} if none.
+     */
+    private final String filter;
+
+    /**
+     * Constructs a cursor.
+     *
+     * @param next the URI of the page to fetch next, or {@code null} if the
+     * sweep is exhausted
+     * @param offset the offset of the next value in the whole resource
+     * @param skip the number of values to skip at the start of the next
+     * page
+     * @param filter the filter of the resource, or {@code null} if none
+     */
+    public PageCursor(final URI next, final long offset, final int skip,
+        final String filter)
+    {
+        if (offset < 0 || skip < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        if (skip > offset) {
+            throw new IllegalArgumentException("Skip is beyond offset");
+        }
+        this.next = next;
+        this.offset = offset;
+        this.skip = skip;
+        this.filter = filter;
+    }
+
+    /**
+     * Returns a cursor at the start of a paginated resource.
+     * The filter is taken from the {@code q} query parameter of the URI.
+     *
+     * @param first the URI of the first page
+     * @return a cursor
+     */
+    public static PageCursor start(final URI first)
+    {
+        return new PageCursor(first, 0, 0, getFilter(first));
+    }
+
+    /**
+     * Returns the filter in the URI of a page.
+     *
+     * @param uri the URI of a page, or {@code null}
+     * @return the value of the {@code q} query parameter, or {@code null} if
+     * none
+     */
+    static String getFilter(final URI uri)
+    {
+        if (uri == null || uri.getRawQuery() == null) {
+            return null;
+        }
+        for (String parameter : uri.getRawQuery().split("&")) {
+            if (parameter.startsWith(FILTER_PARAMETER + "=")) {
+                try {
+                    return URLDecoder.decode(
+                        parameter.substring(FILTER_PARAMETER.length() + 1),
+                        "UTF-8");
+                }
+                catch (final UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the URI of the page to fetch next.
+     *
+     * @return the URI of the page, or {@code null} if the sweep is exhausted
+     */
+    public URI getNext()
+    {
+        return next;
+    }
+
+    /**
+     * Returns the offset of the next value in the whole resource.
+     *
+     * @return the offset of the next value
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Returns the number of values to skip at the start of the next page.
+     *
+     * @return the number of values to skip
+     */
+    public int getSkip()
+    {
+        return skip;
+    }
+
+    /**
+     * Returns the filter of the resource.
+     *
+     * @return the filter, or {@code null} if none
+     */
+    public String getFilter()
+    {
+        return filter;
+    }
+
+    /**
+     * Returns {@code true} if the sweep is exhausted.
+     *
+     * @return {@code true} if there are no more pages; {@code false}
+     * otherwise
+     */
+    public boolean isExhausted()
+    {
+        return next == null;
+    }
+
+    @Override
+    public boolean equals(final Object object)
+    {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof PageCursor)) {
+            return false;
+        }
+        PageCursor other = (PageCursor) object;
+        return Objects.equals(next, other.next) && offset == other.offset
+            && skip == other.skip && Objects.equals(filter, other.filter);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(next, offset, skip, filter);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PageCursor[next=" + next + ", offset=" + offset
+            + ", skip=" + skip + ", filter=" + filter + "]";
+    }
+}
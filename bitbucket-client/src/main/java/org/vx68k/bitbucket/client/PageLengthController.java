@@ -0,0 +1,285 @@
+/*
+ * PageLengthController.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive controller of the page length of paginated resources.
+ * The controller starts from a short page length and doubles it while the
+ * number of values received per second grows and the pages stay well
+ * within the response time and size limits.
+ * It halves the page length if a page exceeds either limit, and steps back
+ * if a longer page turns out to be slower per value.
+ * After a step back, the controller tries only page lengths halfway to the
+ * one it stepped back from, until {@link #reset} is called.
+ * <p>As the links to the next pages keep the page length, the controller
+ * chooses the page length of each paginated resource when its first page is
+ * requested.</p>
+ * <p>Only the limits are serialized, and a deserialized controller starts
+ * over from the minimum page length.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class PageLengthController implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Name of the query parameter.
+     */
+    public static final String QUERY_PARAMETER = "pagelen";
+
+    /**
+     * Minimum page length.
+     */
+    public static final int MIN_PAGE_LENGTH = 10;
+
+    /**
+     * Default maximum page length, which is the maximum the Bitbucket Cloud
+     * REST API allows.
+     */
+    public static final int DEFAULT_MAX_PAGE_LENGTH = 100;
+
+    /**
+     * Default maximum response time in milliseconds.
+     */
+    public static final long DEFAULT_MAX_RESPONSE_TIME = 5000L;
+
+    /**
+     * Default maximum response size in bytes.
+     */
+    public static final long DEFAULT_MAX_RESPONSE_SIZE = 4L << 20;
+
+    /**
+     * Maximum page length.
+     */
+    private int maxPageLength = DEFAULT_MAX_PAGE_LENGTH;
+
+    /**
+     * Maximum response time in milliseconds.
+     */
+    private long maxResponseTime = DEFAULT_MAX_RESPONSE_TIME;
+
+    /**
+     * Maximum response size in bytes.
+     */
+    private long maxResponseSize = DEFAULT_MAX_RESPONSE_SIZE;
+
+    /**
+     * Current page length.
+     */
+    private transient int pageLength = MIN_PAGE_LENGTH;
+
+    /**
+     * Page length that shall not be reached, or zero if none.
+     */
+    private transient int ceiling = 0;
+
+    /**
+     * Shorter page length observed before, or zero if none.
+     */
+    private transient int previousLength = 0;
+
+    /**
+     * Rate of values per nanosecond observed with the shorter page length.
+     */
+    private transient double previousRate = 0;
+
+    /**
+     * Returns the maximum page length.
+     *
+     * @return the maximum page length
+     */
+    public final int getMaxPageLength()
+    {
+        synchronized (this) {
+            return maxPageLength;
+        }
+    }
+
+    /**
+     * Sets the maximum page length.
+     *
+     * @param newValue a new value of the maximum page length
+     */
+    public final void setMaxPageLength(final int newValue)
+    {
+        if (newValue < MIN_PAGE_LENGTH) {
+            throw new IllegalArgumentException("Value is too small");
+        }
+        synchronized (this) {
+            maxPageLength = newValue;
+            pageLength = Math.min(pageLength, newValue);
+        }
+    }
+
+    /**
+     * Returns the maximum response time.
+     *
+     * @return the maximum response time in milliseconds
+     */
+    public final long getMaxResponseTime()
+    {
+        synchronized (this) {
+            return maxResponseTime;
+        }
+    }
+
+    /**
+     * Sets the maximum response time.
+     *
+     * @param newValue a new value of the maximum response time in
+     * milliseconds
+     */
+    public final void setMaxResponseTime(final long newValue)
+    {
+        if (newValue <= 0) {
+            throw new IllegalArgumentException("Value is not positive");
+        }
+        synchronized (this) {
+            maxResponseTime = newValue;
+        }
+    }
+
+    /**
+     * Returns the maximum response size.
+     *
+     * @return the maximum response size in bytes
+     */
+    public final long getMaxResponseSize()
+    {
+        synchronized (this) {
+            return maxResponseSize;
+        }
+    }
+
+    /**
+     * Sets the maximum response size.
+     *
+     * @param newValue a new value of the maximum response size in bytes
+     */
+    public final void setMaxResponseSize(final long newValue)
+    {
+        if (newValue <= 0) {
+            throw new IllegalArgumentException("Value is not positive");
+        }
+        synchronized (this) {
+            maxResponseSize = newValue;
+        }
+    }
+
+    /**
+     * Returns the page length to request.
+     *
+     * @return the page length
+     */
+    public final int getPageLength()
+    {
+        synchronized (this) {
+            return pageLength;
+        }
+    }
+
+    /**
+     * Forgets the observations and starts over from the minimum page length.
+     */
+    public final void reset()
+    {
+        synchronized (this) {
+            pageLength = MIN_PAGE_LENGTH;
+            ceiling = 0;
+            previousLength = 0;
+            previousRate = 0;
+        }
+    }
+
+    /**
+     * Reads the limits and starts over from the minimum page length.
+     *
+     * @param in an object input stream
+     * @throws IOException if an I/O error occurred
+     * @throws ClassNotFoundException if a class was not found
+     */
+    private void readObject(final ObjectInputStream in)
+        throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        reset();
+    }
+
+    /**
+     * Records an observation of a page.
+     * Observations of pages with a page length other than the current one,
+     * or of pages that were not full, are ignored except for the limits.
+     *
+     * @param length the page length requested
+     * @param values the number of values in the page
+     * @param size the size of the page in bytes
+     * @param nanos the response time in nanoseconds
+     */
+    public final void record(final int length, final int values,
+        final long size, final long nanos)
+    {
+        synchronized (this) {
+            long maxNanos = TimeUnit.MILLISECONDS.toNanos(maxResponseTime);
+            if (nanos > maxNanos || size > maxResponseSize) {
+                if (length <= pageLength) {
+                    ceiling = length;
+                    pageLength = Math.max(MIN_PAGE_LENGTH, length / 2);
+                    previousLength = 0;
+                }
+                return;
+            }
+            if (length != pageLength || values < length || nanos <= 0) {
+                return;
+            }
+
+            double rate = (double) values / nanos;
+            if (previousLength != 0 && rate < previousRate) {
+                // The longer page was slower per value.
+                ceiling = length;
+                pageLength = previousLength;
+                previousLength = 0;
+                return;
+            }
+
+            int longer = Math.min(maxPageLength, 2 * length);
+            if (ceiling != 0 && longer >= ceiling) {
+                // Tries halfway to the page length stepped back from.
+                longer = (length + ceiling) / 2;
+            }
+            // Grows only if the longer page is expected to be well within the
+            // limits.
+            if (longer > length && 2 * nanos <= maxNanos / 2
+                && 2 * size <= maxResponseSize / 2) {
+                previousLength = length;
+                previousRate = rate;
+                pageLength = longer;
+            }
+        }
+    }
+}
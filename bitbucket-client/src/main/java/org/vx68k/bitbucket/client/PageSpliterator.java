@@ -0,0 +1,221 @@
+/*
+ * PageSpliterator.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import javax.ws.rs.core.MediaType;
+import org.vx68k.bitbucket.client.internal.ClientPage;
+
+/**
+ * Spliterator over the values of a paginated resource that holds one page
+ * at a time.
+ * Each page is fetched when the values of the previous one have been
+ * consumed, and it is dropped when the next one is fetched, so that a
+ * traversal takes constant memory regardless of the number of values.
+ *
+ * @author Kaz Nishimura
+ * @param <T> the type of the values
+ * @since 6.0
+ */
+final class PageSpliterator<T> implements Spliterator<T>
+{
+    /**
+     * Shared transport.
+     */
+    private final ClientTransport transport;
+
+    /**
+     * Binder of the pages.
+     */
+    private final PageBinder<T> binder;
+
+    /**
+     * Page length controller to which pages are recorded, or {@code null}.
+     */
+    private final PageLengthController pageLengthController;
+
+    /**
+     * URI of the next page, or {@code null} if there are no more pages.
+     */
+    private URI next;
+
+    /**
+     * Values of the current page that are not consumed yet.
+     */
+    private Iterator<T> values = Collections.emptyIterator();
+
+    /**
+     * Number of the values not consumed yet, or {@code -1} if unknown.
+     */
+    private long remaining = -1;
+
+    /**
+     * Offset in the whole resource of the first value of this spliterator.
+     */
+    private final long baseOffset;
+
+    /**
+     * Number of values to drop at the start of the next page.
+     */
+    private int skip;
+
+    /**
+     * Constructs a spliterator.
+     *
+     * @param transport a shared transport
+     * @param next the URI of the first page
+     * @param type the runtime type of the values
+     */
+    PageSpliterator(final ClientTransport transport, final URI next,
+        final Class<? extends T> type)
+    {
+        this(transport, PageCursor.start(next), type, null);
+    }
+
+    /**
+     * Constructs a spliterator from a cursor with a page length controller.
+     * The first value of this spliterator will be the one at the offset of
+     * the cursor.
+     *
+     * @param transport a shared transport
+     * @param cursor a cursor of a sweep
+     * @param type the runtime type of the values
+     * @param pageLengthController a page length controller to which pages
+     * are recorded, or {@code null}
+     */
+    PageSpliterator(final ClientTransport transport, final PageCursor cursor,
+        final Class<? extends T> type,
+        final PageLengthController pageLengthController)
+    {
+        this.transport = transport;
+        this.next = cursor.getNext();
+        this.baseOffset = cursor.getOffset();
+        this.skip = cursor.getSkip();
+        this.binder = new PageBinder<>(type);
+        this.pageLengthController = pageLengthController;
+        if (next == null) {
+            remaining = 0;
+        }
+    }
+
+    /**
+     * Enables or disables the lazy content mode.
+     *
+     * @param newValue {@code true} to enable the lazy content mode
+     * @see PaginatedList#setLazyContent(boolean)
+     */
+    void setLazyContent(final boolean newValue)
+    {
+        binder.setLazyContent(newValue);
+    }
+
+    /**
+     * Fetches the next page and replaces the current one with it.
+     */
+    void fetchNext()
+    {
+        long start = System.nanoTime();
+        byte[] content = transport.get(RequestPriority.BACKGROUND,
+            transport.target(next), byte[].class,
+            MediaType.APPLICATION_JSON_TYPE);
+        if (content == null) {
+            next = null;
+            values = Collections.emptyIterator();
+            remaining = 0;
+            return;
+        }
+
+        ClientPage<T> page =
+            binder.bind(content, start, pageLengthController);
+        if (remaining < 0 && page.getSize() != null) {
+            remaining = Math.max(0, page.getSize() - baseOffset);
+        }
+        if (page.getValues() != null) {
+            values = page.getValues().iterator();
+        }
+        else {
+            values = Collections.emptyIterator();
+        }
+        for (; skip > 0 && values.hasNext(); skip--) {
+            values.next();
+        }
+        skip = 0;
+        String nextPageUri = page.getNext();
+        if (nextPageUri != null) {
+            next = URI.create(nextPageUri);
+        }
+        else {
+            next = null;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action)
+    {
+        while (!values.hasNext()) {
+            if (next == null) {
+                remaining = 0;
+                return false;
+            }
+            fetchNext();
+        }
+
+        T value = values.next();
+        if (remaining > 0) {
+            remaining -= 1;
+        }
+        action.accept(value);
+        return true;
+    }
+
+    /**
+     * Returns {@code null} as pages can only be fetched in order.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public Spliterator<T> trySplit()
+    {
+        return null;
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        if (remaining < 0) {
+            return Long.MAX_VALUE;
+        }
+        return remaining;
+    }
+
+    @Override
+    public int characteristics()
+    {
+        if (remaining < 0) {
+            return ORDERED;
+        }
+        return ORDERED | SIZED;
+    }
+}
@@ -22,19 +22,44 @@ package org.vx68k.bitbucket.client;
 
 import java.net.URI;
 import java.util.AbstractList;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
-import javax.json.JsonArray;
-import javax.json.JsonObject;
-import javax.json.bind.Jsonb;
-import javax.json.bind.JsonbBuilder;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriBuilder;
+import org.vx68k.bitbucket.client.internal.ClientPage;
 
 /**
  * Paginated list on Bitbucket Cloud.
+ * <p>If read-ahead is enabled on a list with a shared transport, the list
+ * requests up to the given number of pages asynchronously before they are
+ * reached, so that consumers do not wait for a round trip at every page
+ * boundary.
+ * At most that many pages are held ahead of the values added to the list.
+ * A list shall be consumed by one thread at a time.</p>
+ * <p>If fan-out is enabled instead, once the first page has told the total
+ * size and the page length, the remaining pages are requested by number
+ * concurrently and added in order.</p>
+ * <p>If the number of cached pages is limited, values are kept by page
+ * instead, and the least recently used pages are evicted as new ones are
+ * added.
+ * An evicted page is fetched again from its URI when one of its values is
+ * accessed, so that heap use stays proportional to the limit rather than the
+ * size of the list.</p>
+ * <p>A sweep over a list can be checkpointed with {@link #getCursor(int)}
+ * and resumed later with a list constructed from the cursor.</p>
  *
  * @author Kaz Nishimura
  * @param <T> the type of the elements
@@ -44,6 +69,16 @@ import javax.ws.rs.core.MediaType;
  */
 public class PaginatedList<T> extends AbstractList<T>
 {
+    /**
+     * Shared transport, or {@code null} if a client shall be built for each
+     * page.
+     */
+    private final ClientTransport transport;
+
+    /**
+     * JAX-RS client builder object, or {@code null} if the shared transport
+     * shall be used.
+     */
     private final ClientBuilder clientBuilder;
 
     /**
@@ -52,16 +87,35 @@ public class PaginatedList<T> extends AbstractList<T>
     private URI next;
 
     /**
-     * Runtime type.
+     * Binder of the pages.
      */
-    private final Class<? extends T> type;
+    private final PageBinder<T> binder;
 
-    private final JsonbBuilder jsonbBuilder;
+    /**
+     * Known values, which can be accessed by index in constant time.
+     */
+    private final ChunkedArray<T> knownValues = new ChunkedArray<>();
+
+    /**
+     * Number of the values added.
+     */
+    private int addedCount = 0;
 
     /**
-     * List of the known values.
+     * Maximum number of cached pages, or zero if all the values are kept.
      */
-    private final List<T> knownValues = new LinkedList<>();
+    private int maxCachedPages = 0;
+
+    /**
+     * Cached pages in access order, or {@code null} if all the values are
+     * kept.
+     */
+    private Map<Integer, List<T>> cachedPages = null;
+
+    /**
+     * Number of evicted pages fetched again.
+     */
+    private final AtomicLong refetchCount = new AtomicLong();
 
     /**
      * Known size of the list.
@@ -69,8 +123,125 @@ public class PaginatedList<T> extends AbstractList<T>
      */
     private int knownSize = -1;
 
+    /**
+     * Offset in the whole resource of the first value of this list.
+     */
+    private final long baseOffset;
+
+    /**
+     * Number of values to drop at the start of the next page.
+     */
+    private int skip;
+
+    /**
+     * Filter of the resource, or {@code null} if none.
+     */
+    private final String filter;
+
+    /**
+     * URIs of the pages added.
+     */
+    private final List<URI> pageUris = new ArrayList<>();
+
+    /**
+     * Offsets in the whole resource of the first values of the pages added.
+     */
+    private final List<Long> pageOffsets = new ArrayList<>();
+
+    /**
+     * Number of the last page added, or {@code -1} if unknown.
+     */
+    private int pageNumber = -1;
+
+    /**
+     * Number of values in a page, or {@code -1} if unknown.
+     */
+    private int pageLength = -1;
+
+    /**
+     * Maximum number of concurrent page requests in a fan-out, or zero if
+     * fan-out is disabled.
+     */
+    private volatile int fanOut = 0;
+
+    /**
+     * Page length controller to which pages are recorded, or {@code null}.
+     */
+    private volatile PageLengthController pageLengthController = null;
+
+    /**
+     * Lock for the read-ahead state.
+     */
+    private final Object readAheadLock = new Object();
+
+    /**
+     * Maximum number of pages to read ahead.
+     */
+    private int readAhead = 0;
+
+    /**
+     * Pages requested ahead, in order.
+     */
+    private final Queue<CompletableFuture<ClientPage<T>>> aheadPages =
+        new ArrayDeque<>();
+
+    /**
+     * Last page requested ahead, or {@code null} if none in the queue.
+     */
+    private CompletableFuture<ClientPage<T>> lastAheadPage = null;
+
+    /**
+     * URI of the page to be requested ahead next, or {@code null} if it is
+     * not known yet or there are no more pages.
+     */
+    private URI aheadNext = null;
+
+    /**
+     * Number of pages added.
+     */
+    private final AtomicLong pageCount = new AtomicLong();
+
+    /**
+     * Number of times a consumer blocked on the network.
+     */
+    private final AtomicLong blockedCount = new AtomicLong();
+
+    /**
+     * Total time in nanoseconds consumers blocked on the network.
+     */
+    private final AtomicLong blockedTime = new AtomicLong();
+
+    /**
+     * Initializes this object with a shared transport.
+     *
+     * @param transport a shared transport
+     * @param next the URI of the first page
+     * @param type the runtime type of the values
+     */
+    public PaginatedList(final ClientTransport transport, final URI next,
+        final Class<? extends T> type)
+    {
+        this(transport, null, PageCursor.start(next), type);
+    }
+
+    /**
+     * Initializes this object with a shared transport to resume a sweep.
+     * The first value of this list will be the one at the offset of the
+     * cursor.
+     *
+     * @param transport a shared transport
+     * @param cursor a cursor of a sweep
+     * @param type the runtime type of the values
+     */
+    public PaginatedList(final ClientTransport transport,
+        final PageCursor cursor, final Class<? extends T> type)
+    {
+        this(transport, null, cursor, type);
+    }
+
     /**
      * Initializes this object.
+     * A new client will be built for each page.
      *
      * @param clientBuilder a JAX-RS client builder object
      * @param next the URI of the first page
@@ -79,51 +250,568 @@ public class PaginatedList<T> extends AbstractList<T>
     public PaginatedList(final ClientBuilder clientBuilder, final URI next,
         final Class<? extends T> type)
     {
+        this(null, clientBuilder, PageCursor.start(next), type);
+    }
+
+    private PaginatedList(final ClientTransport transport,
+        final ClientBuilder clientBuilder, final PageCursor cursor,
+        final Class<? extends T> type)
+    {
+        this.transport = transport;
         this.clientBuilder = clientBuilder;
-        this.next = next;
-        this.type = type;
-        this.jsonbBuilder = JsonbBuilder.newBuilder();
+        this.next = cursor.getNext();
+        this.baseOffset = cursor.getOffset();
+        this.skip = cursor.getSkip();
+        this.filter = cursor.getFilter();
+        this.binder = new PageBinder<>(type);
+        if (next == null) {
+            knownSize = 0;
+        }
     }
 
     /**
-     * Fetches the next page.
+     * Returns a cursor to resume a sweep at a value.
+     * The cursor can be used to construct a list that starts at the value
+     * without fetching the pages before it.
+     *
+     * @param index the index of the value to resume at, which may be the
+     * size of this list
+     * @return a cursor
+     * @throws IndexOutOfBoundsException if the index is out of range
      */
-    protected final void fetchNext()
+    public final PageCursor getCursor(final int index)
+    {
+        while (next != null && index > addedCount) {
+            fetchNext();
+        }
+        if (index < 0 || index > addedCount) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + addedCount);
+        }
+
+        long offset = baseOffset + index;
+        if (index == addedCount) {
+            return new PageCursor(next, offset, 0, filter);
+        }
+        int page = findPage(offset);
+        return new PageCursor(pageUris.get(page), offset,
+            (int) (offset - pageOffsets.get(page)), filter);
+    }
+
+    /**
+     * Finds the page that contains a value.
+     *
+     * @param offset the offset of a value added in the whole resource
+     * @return the index of the page
+     */
+    private int findPage(final long offset)
+    {
+        int page = Collections.binarySearch(pageOffsets, offset);
+        if (page < 0) {
+            return -page - 2;
+        }
+        // Takes the last page starting at the offset, as pages before it may
+        // be empty.
+        while (page + 1 < pageOffsets.size()
+            && pageOffsets.get(page + 1) == offset) {
+            page += 1;
+        }
+        return page;
+    }
+
+    /**
+     * Returns the maximum number of cached pages.
+     *
+     * @return the maximum number of cached pages, or zero if all the values
+     * are kept
+     */
+    public final int getMaxCachedPages()
+    {
+        return maxCachedPages;
+    }
+
+    /**
+     * Sets the maximum number of cached pages.
+     * This method shall be called before any pages are added.
+     * Fan-out is disabled if the number of cached pages is limited.
+     *
+     * @param newValue a new value of the maximum number of cached pages, or
+     * zero to keep all the values
+     * @throws IllegalStateException if any pages are already added
+     */
+    public final void setMaxCachedPages(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        if (!pageUris.isEmpty()) {
+            throw new IllegalStateException("Pages are already added");
+        }
+        maxCachedPages = newValue;
+        if (newValue > 0) {
+            cachedPages = new LinkedHashMap<Integer, List<T>>(16, 0.75F, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                    final Map.Entry<Integer, List<T>> eldest)
+                {
+                    return size() > newValue;
+                }
+            };
+        }
+        else {
+            cachedPages = null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the lazy content mode is enabled.
+     *
+     * @return {@code true} if the lazy content mode is enabled
+     */
+    public final boolean isLazyContent()
+    {
+        return binder.isLazyContent();
+    }
+
+    /**
+     * Enables or disables the lazy content mode.
+     * In this mode, rendered texts of issues and commits are kept as
+     * compact slices of the page content and decoded only when they are
+     * accessed.
+     * It applies to the pages added after this call.
+     *
+     * @param newValue {@code true} to enable the lazy content mode
+     */
+    public final void setLazyContent(final boolean newValue)
+    {
+        binder.setLazyContent(newValue);
+    }
+
+    /**
+     * Returns the number of evicted pages fetched again.
+     *
+     * @return the number of evicted pages fetched again
+     */
+    public final long getRefetchCount()
     {
-        JsonObject json;
+        return refetchCount.get();
+    }
+
+    /**
+     * Returns the maximum number of pages to read ahead.
+     *
+     * @return the maximum number of pages to read ahead
+     */
+    public final int getReadAhead()
+    {
+        synchronized (readAheadLock) {
+            return readAhead;
+        }
+    }
+
+    /**
+     * Sets the maximum number of pages to read ahead.
+     * Read-ahead is available only with a shared transport.
+     *
+     * @param newValue a new value of the maximum number of pages to read
+     * ahead, or zero to disable read-ahead
+     */
+    public final void setReadAhead(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        synchronized (readAheadLock) {
+            readAhead = newValue;
+            if (aheadPages.isEmpty()) {
+                aheadNext = next;
+            }
+        }
+        readAhead();
+    }
+
+    /**
+     * Returns the maximum number of concurrent page requests in a fan-out.
+     *
+     * @return the maximum number of concurrent page requests, or zero if
+     * fan-out is disabled
+     */
+    public final int getFanOut()
+    {
+        return fanOut;
+    }
+
+    /**
+     * Sets the maximum number of concurrent page requests in a fan-out.
+     * Fan-out is available only with a shared transport and takes
+     * precedence over read-ahead.
+     *
+     * @param newValue a new value of the maximum number of concurrent page
+     * requests, or zero to disable fan-out
+     */
+    public final void setFanOut(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        fanOut = newValue;
+    }
+
+    /**
+     * Returns the page length controller to which pages are recorded.
+     *
+     * @return the page length controller, or {@code null} if none
+     */
+    public final PageLengthController getPageLengthController()
+    {
+        return pageLengthController;
+    }
+
+    /**
+     * Sets the page length controller to which pages are recorded.
+     *
+     * @param newValue a new value of the page length controller, or {@code
+     * null}
+     */
+    public final void setPageLengthController(
+        final PageLengthController newValue)
+    {
+        pageLengthController = newValue;
+    }
+
+    /**
+     * Returns the number of pages added to this list.
+     *
+     * @return the number of pages added
+     */
+    public final long getPageCount()
+    {
+        return pageCount.get();
+    }
+
+    /**
+     * Returns the number of times a consumer blocked on the network for a
+     * page.
+     * With effective read-ahead, this value stays lower than the number of
+     * pages.
+     *
+     * @return the number of times a consumer blocked
+     */
+    public final long getBlockedCount()
+    {
+        return blockedCount.get();
+    }
+
+    /**
+     * Returns the total time consumers blocked on the network.
+     *
+     * @return the total time in nanoseconds
+     */
+    public final long getBlockedTime()
+    {
+        return blockedTime.get();
+    }
+
+    /**
+     * Requests pages ahead up to the limit.
+     */
+    private void readAhead()
+    {
+        if (transport == null) {
+            return;
+        }
+        synchronized (readAheadLock) {
+            while (aheadPages.size() < readAhead && aheadNext != null) {
+                URI uri = aheadNext;
+                aheadNext = null;
+                CompletableFuture<ClientPage<T>> page = getAsync(uri);
+                aheadPages.add(page);
+                lastAheadPage = page;
+                page.thenAccept((content) -> {
+                    synchronized (readAheadLock) {
+                        if (page == lastAheadPage) {
+                            aheadNext = getNextUri(content);
+                        }
+                    }
+                    readAhead();
+                });
+            }
+        }
+    }
+
+    /**
+     * Requests a page asynchronously.
+     *
+     * @param uri the URI of a page
+     * @return a future page
+     */
+    private CompletableFuture<ClientPage<T>> getAsync(final URI uri)
+    {
+        long start = System.nanoTime();
+        return transport.getAsync(RequestPriority.BACKGROUND,
+            transport.target(uri), byte[].class,
+            MediaType.APPLICATION_JSON_TYPE)
+            .thenApply((content) ->
+                binder.bind(content, start, pageLengthController))
+            .toCompletableFuture();
+    }
+
+    /**
+     * Returns the URI of the next page of a page.
+     *
+     * @param page a page
+     * @return the URI of the next page, or {@code null} if none
+     */
+    private static URI getNextUri(final ClientPage<?> page)
+    {
+        String nextPageUri = page.getNext();
+        if (nextPageUri == null) {
+            return null;
+        }
+        return URI.create(nextPageUri);
+    }
+
+    /**
+     * Waits for a page and returns it.
+     *
+     * @param page a future page
+     * @return the page
+     */
+    private static <T> ClientPage<T> join(
+        final CompletableFuture<ClientPage<T>> page)
+    {
+        try {
+            return page.join();
+        }
+        catch (final CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the remaining pages can be fanned out.
+     *
+     * @return {@code true} if the remaining pages can be fanned out;
+     * {@code false} otherwise
+     */
+    private boolean canFanOut()
+    {
+        if (fanOut <= 0 || transport == null || cachedPages != null) {
+            return false;
+        }
+        if (knownSize < 0 || pageNumber <= 0 || pageLength <= 0) {
+            return false;
+        }
+        return pageNumber < getLastPage();
+    }
+
+    /**
+     * Returns the number of the last page computed from the known size.
+     *
+     * @return the number of the last page
+     */
+    private int getLastPage()
+    {
+        long size = baseOffset + knownSize;
+        return (int) ((size + pageLength - 1) / pageLength);
+    }
+
+    /**
+     * Requests all the remaining pages concurrently and adds them in order.
+     * Pages already read ahead are taken over and count against the window.
+     * If the list grew in the meantime, the pages beyond the size known
+     * before will be fetched one by one.
+     */
+    private void fetchRemaining()
+    {
+        // Stops read-ahead as every remaining page is requested here.
+        List<CompletableFuture<ClientPage<T>>> pages;
+        synchronized (readAheadLock) {
+            readAhead = 0;
+            aheadNext = null;
+            lastAheadPage = null;
+            pages = new ArrayList<>(aheadPages);
+            aheadPages.clear();
+        }
+
+        int lastPage = getLastPage();
+        Semaphore window = new Semaphore(fanOut);
+        long start = System.nanoTime();
+        try {
+            for (CompletableFuture<ClientPage<T>> page : pages) {
+                window.acquire();
+                page.whenComplete((content, e) -> window.release());
+            }
+            for (int page = pageNumber + 1 + pages.size(); page <= lastPage;
+                page++) {
+                window.acquire();
+                URI uri = UriBuilder.fromUri(next)
+                    .replaceQueryParam("page", page)
+                    .build();
+                CompletableFuture<ClientPage<T>> future = getAsync(uri);
+                future.whenComplete((content, e) -> window.release());
+                pages.add(future);
+            }
+            for (CompletableFuture<ClientPage<T>> page : pages) {
+                if (next == null) {
+                    // The list shrank in the meantime.
+                    break;
+                }
+                addPage(join(page));
+            }
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        finally {
+            pages.forEach((page) -> page.cancel(false));
+            blockedCount.incrementAndGet();
+            blockedTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Fetches a page synchronously.
+     *
+     * @param uri the URI of a page
+     * @return the page
+     */
+    private ClientPage<T> fetchPage(final URI uri)
+    {
+        long start = System.nanoTime();
+        if (transport != null) {
+            try {
+                return binder.bind(transport.get(RequestPriority.BACKGROUND,
+                    transport.target(uri), byte[].class,
+                    MediaType.APPLICATION_JSON_TYPE), start,
+                    pageLengthController);
+            }
+            finally {
+                blockedCount.incrementAndGet();
+                blockedTime.addAndGet(System.nanoTime() - start);
+            }
+        }
+
         Client client = clientBuilder.build();
         try {
-            WebTarget target = client.target(next);
-            json = target.request(MediaType.APPLICATION_JSON_TYPE)
-                .get(JsonObject.class);
+            WebTarget target = client.target(uri);
+            return binder.bind(target
+                .request(MediaType.APPLICATION_JSON_TYPE)
+                .get(byte[].class), start, pageLengthController);
         }
         finally {
             client.close();
         }
+    }
 
-        if (knownSize < 0) {
-            knownSize = json.getInt("size", -1);
+    /**
+     * Fetches the next page.
+     */
+    protected final void fetchNext()
+    {
+        if (canFanOut()) {
+            fetchRemaining();
+            return;
         }
-        try (Jsonb jsonb = jsonbBuilder.build()) {
-            JsonArray values = json.getJsonArray("values");
-            values.stream()
-                .map((t) -> jsonb.fromJson(jsonb.toJson(t), type))
-                .forEachOrdered(knownValues::add);
+
+        CompletableFuture<ClientPage<T>> aheadPage;
+        synchronized (readAheadLock) {
+            aheadPage = aheadPages.poll();
+            if (aheadPage == lastAheadPage) {
+                lastAheadPage = null;
+            }
         }
-        catch (final RuntimeException e) {
-            throw e;
+
+        ClientPage<T> page;
+        if (aheadPage != null) {
+            long start = System.nanoTime();
+            boolean blocked = !aheadPage.isDone();
+            try {
+                page = join(aheadPage);
+            }
+            finally {
+                if (blocked) {
+                    blockedCount.incrementAndGet();
+                    blockedTime.addAndGet(System.nanoTime() - start);
+                }
+            }
         }
-        catch (final Exception e) {
-            throw new IllegalStateException(e);
+        else {
+            page = fetchPage(next);
         }
+        addPage(page);
 
-        String nextPageUri = json.getString("next", null);
-        if (nextPageUri != null) {
-            next = URI.create(nextPageUri);
+        if (canFanOut()) {
+            // The next call fans out, so no more pages are read ahead.
+            return;
+        }
+        synchronized (readAheadLock) {
+            if (aheadPages.isEmpty()) {
+                aheadNext = next;
+            }
+        }
+        readAhead();
+    }
+
+    /**
+     * Binds a page and adds its values.
+     *
+     * @param content the content of a page
+     */
+    final void addPage(final byte[] content)
+    {
+        addPage(binder.bind(content));
+    }
+
+    /**
+     * Adds the values of a page and advances to the next page.
+     *
+     * @param page the page
+     */
+    final void addPage(final ClientPage<? extends T> page)
+    {
+        pageCount.incrementAndGet();
+        int dropped = skip;
+        skip = 0;
+        pageUris.add(next);
+        pageOffsets.add(baseOffset + addedCount - dropped);
+        if (knownSize < 0 && page.getSize() != null) {
+            knownSize = (int) Math.max(0, page.getSize() - baseOffset);
+        }
+        if (page.getPage() != null) {
+            pageNumber = page.getPage();
+        }
+        else {
+            pageNumber = -1;
+        }
+        if (page.getPagelen() != null) {
+            pageLength = page.getPagelen();
+        }
+        List<T> values = Collections.emptyList();
+        if (page.getValues() != null) {
+            values = Collections.unmodifiableList(page.getValues());
+        }
+        if (cachedPages != null) {
+            cachedPages.put(pageUris.size() - 1, values);
         }
         else {
-            next = null;
-            knownSize = knownValues.size();
+            values.stream()
+                .skip(dropped)
+                .forEachOrdered(knownValues::add);
+        }
+        addedCount += Math.max(0, values.size() - dropped);
+
+        next = getNextUri(page);
+        if (next == null) {
+            knownSize = addedCount;
         }
     }
 
@@ -133,10 +821,35 @@ public class PaginatedList<T> extends AbstractList<T>
     @Override
     public final T get(final int index)
     {
-        while (next != null && index >= knownValues.size()) {
+        while (next != null && index >= addedCount) {
             fetchNext();
         }
-        return knownValues.get(index);
+        if (cachedPages == null) {
+            return knownValues.get(index);
+        }
+
+        if (index < 0 || index >= addedCount) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + addedCount);
+        }
+        long offset = baseOffset + index;
+        int page = findPage(offset);
+        List<T> values = cachedPages.get(page);
+        if (values == null) {
+            ClientPage<T> refetched = fetchPage(pageUris.get(page));
+            refetchCount.incrementAndGet();
+            values = Collections.emptyList();
+            if (refetched.getValues() != null) {
+                values = Collections.unmodifiableList(refetched.getValues());
+            }
+            cachedPages.put(page, values);
+        }
+        int position = (int) (offset - pageOffsets.get(page));
+        if (position >= values.size()) {
+            throw new ConcurrentModificationException(
+                "Page was changed on the server");
+        }
+        return values.get(position);
     }
 
     /**
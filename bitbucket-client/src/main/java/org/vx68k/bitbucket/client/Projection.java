@@ -0,0 +1,196 @@
+/*
+ * Projection.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.ws.rs.client.WebTarget;
+
+/**
+ * Projection of a resource to a subset of its fields.
+ * A projection is translated into the {@code fields} query parameter of the
+ * Bitbucket Cloud REST API so that the server omits the other fields, and
+ * the response can be bound into any lightweight view class that has the
+ * projected properties.
+ * Field names may be dotted paths, such as {@code owner.uuid}.
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Kaz Nishimura
+ * @see <a href="https://developer.atlassian.com/bitbucket/api/2/reference/meta/partial-response"
+ * >Partial response</a>
+ * @since 6.0
+ */
+public final class Projection
+{
+    /**
+     * Name of the query parameter.
+     */
+    public static final String QUERY_PARAMETER = "fields";
+
+    /**
+     * Fields that are always kept as the type of a resource may be used to
+     * bind it.
+     */
+    private static final String TYPE_FIELD = "type";
+
+    /**
+     * Fields of a page that are required to paginate, including {@code
+     * page} and {@code pagelen} without which pages can neither be fetched
+     * in parallel nor recorded to a page length controller.
+     */
+    private static final List<String> PAGE_FIELDS =
+        Collections.unmodifiableList(
+            Arrays.asList("next", "size", "page", "pagelen"));
+
+    /**
+     * Pattern of valid field names.
+     */
+    private static final Pattern FIELD_PATTERN =
+        Pattern.compile("[A-Za-z0-9_]+(\\.[A-Za-z0-9_]+)*");
+
+    /**
+     * Projected fields.
+     */
+    private final List<String> fields;
+
+    private Projection(final List<String> fields)
+    {
+        this.fields = fields;
+    }
+
+    /**
+     * Returns a projection to fields.
+     *
+     * @param fields field names
+     * @return a projection
+     */
+    public static Projection fields(final String... fields)
+    {
+        if (fields == null || fields.length == 0) {
+            throw new IllegalArgumentException("No fields");
+        }
+        List<String> list = new ArrayList<>(fields.length);
+        for (String field : fields) {
+            if (field == null || !FIELD_PATTERN.matcher(field).matches()) {
+                throw new IllegalArgumentException(
+                    "Invalid field name: " + field);
+            }
+            if (!list.contains(field)) {
+                list.add(field);
+            }
+        }
+        return new Projection(Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Returns the projected fields.
+     *
+     * @return an unmodifiable list of the field names
+     */
+    public List<String> getFields()
+    {
+        return fields;
+    }
+
+    /**
+     * Returns the value of the {@code fields} query parameter for a single
+     * resource.
+     *
+     * @return the query parameter value
+     */
+    public String toQueryValue()
+    {
+        List<String> values = new ArrayList<>(fields.size() + 1);
+        values.add(TYPE_FIELD);
+        fields.stream()
+            .filter((field) -> !field.equals(TYPE_FIELD))
+            .forEachOrdered(values::add);
+        return String.join(",", values);
+    }
+
+    /**
+     * Returns the value of the {@code fields} query parameter for pages of
+     * a paginated list.
+     *
+     * @return the query parameter value
+     */
+    public String toPageQueryValue()
+    {
+        List<String> values = new ArrayList<>(PAGE_FIELDS);
+        values.add("values." + TYPE_FIELD);
+        fields.stream()
+            .filter((field) -> !field.equals(TYPE_FIELD))
+            .map((field) -> "values." + field)
+            .forEachOrdered(values::add);
+        return String.join(",", values);
+    }
+
+    /**
+     * Applies this projection to a target for a single resource.
+     *
+     * @param target a target
+     * @return the target with the {@code fields} query parameter
+     */
+    public WebTarget apply(final WebTarget target)
+    {
+        return target.queryParam(QUERY_PARAMETER, toQueryValue());
+    }
+
+    /**
+     * Applies this projection to a target for a paginated list.
+     * The {@code next} link returned by the server keeps the query
+     * parameter, so that every page is projected.
+     *
+     * @param target a target
+     * @return the target with the {@code fields} query parameter
+     */
+    public WebTarget applyToPages(final WebTarget target)
+    {
+        return target.queryParam(QUERY_PARAMETER, toPageQueryValue());
+    }
+
+    @Override
+    public boolean equals(final Object object)
+    {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Projection)) {
+            return false;
+        }
+        return fields.equals(((Projection) object).fields);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return fields.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Projection" + fields;
+    }
+}
@@ -0,0 +1,593 @@
+/*
+ * RateLimiter.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.Response;
+
+/**
+ * Rate limiter for outbound requests.
+ * Requests are paced by a token bucket whose rate can be set explicitly
+ * and is also lowered to spread the remaining budget reported by {@code
+ * X-RateLimit-Remaining} and {@code X-RateLimit-Reset} response headers
+ * until the reset.
+ * A {@code 429 Too Many Requests} response pauses all requests for the
+ * duration given by its {@code Retry-After} header.
+ * Waiting requests are granted in the order of their priority classes.
+ * Grants are signalled on an executor, so that the continuations of the
+ * requests never run on the timer of the limiter.
+ * <p>This class is thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class RateLimiter implements ClientResponseFilter
+{
+    /**
+     * Default burst size.
+     */
+    public static final int DEFAULT_BURST = 10;
+
+    /**
+     * Default pause in milliseconds after a {@code 429 Too Many Requests}
+     * response without {@code Retry-After}.
+     */
+    public static final long DEFAULT_RETRY_AFTER = 1000L;
+
+    /**
+     * Status code of {@code 429 Too Many Requests}.
+     */
+    static final int TOO_MANY_REQUESTS = 429;
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private static final String RATE_LIMIT_REMAINING =
+        "X-RateLimit-Remaining";
+
+    private static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Timer shared by the client to run delayed tasks.
+     */
+    private static final ScheduledExecutorService TIMER =
+        Executors.newSingleThreadScheduledExecutor((task) -> {
+            Thread thread = new Thread(task, "bitbucket-client-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * Executor on which waiting requests are granted.
+     */
+    private volatile Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * Rate in requests per second set explicitly.
+     */
+    private double rate = Double.POSITIVE_INFINITY;
+
+    /**
+     * Burst size, which is the capacity of the bucket.
+     */
+    private int burst = DEFAULT_BURST;
+
+    /**
+     * Tokens in the bucket.
+     */
+    private double tokens = DEFAULT_BURST;
+
+    /**
+     * Time in nanoseconds when the bucket was last refilled.
+     */
+    private long refilledAt = System.nanoTime();
+
+    /**
+     * Rate in requests per second to spread the remaining budget.
+     */
+    private double budgetRate = Double.POSITIVE_INFINITY;
+
+    /**
+     * Time in nanoseconds when the budget will be reset.
+     */
+    private long budgetResetAt = refilledAt;
+
+    /**
+     * Time in nanoseconds until which requests are paused.
+     */
+    private long pausedUntil = refilledAt;
+
+    /**
+     * Indicates whether a drain of the waiters is scheduled.
+     */
+    private boolean drainScheduled = false;
+
+    /**
+     * Waiting requests for each priority class.
+     */
+    private final Map<RequestPriority, Queue<CompletableFuture<Void>>>
+        waiters = new EnumMap<>(RequestPriority.class);
+
+    /**
+     * Number of throttled responses.
+     */
+    private final AtomicLong throttledCount = new AtomicLong();
+
+    /**
+     * Constructs a rate limiter.
+     * It does not pace requests until a rate is set or the server reports
+     * its budget.
+     */
+    public RateLimiter()
+    {
+        for (RequestPriority priority : RequestPriority.values()) {
+            waiters.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Returns the timer shared by the client.
+     * Tasks run on the timer must not block.
+     *
+     * @return the timer
+     */
+    static ScheduledExecutorService getTimer()
+    {
+        return TIMER;
+    }
+
+    /**
+     * Returns the executor on which waiting requests are granted.
+     *
+     * @return the executor
+     */
+    public final Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Sets the executor on which waiting requests are granted.
+     * Continuations of {@link #acquireAsync} that are not given their own
+     * executors run on it.
+     *
+     * @param newValue a new value of the executor, or {@code null} for the
+     * common pool
+     */
+    public final void setExecutor(final Executor newValue)
+    {
+        if (newValue == null) {
+            executor = ForkJoinPool.commonPool();
+        }
+        else {
+            executor = newValue;
+        }
+    }
+
+    /**
+     * Returns the rate set explicitly.
+     *
+     * @return the rate in requests per second, which may be infinite
+     */
+    public final double getRate()
+    {
+        synchronized (this) {
+            return rate;
+        }
+    }
+
+    /**
+     * Sets the rate.
+     *
+     * @param newValue a new value of the rate in requests per second, or
+     * {@link Double#POSITIVE_INFINITY} not to pace requests
+     */
+    public final void setRate(final double newValue)
+    {
+        if (!(newValue > 0)) {
+            throw new IllegalArgumentException("Rate is not positive");
+        }
+        synchronized (this) {
+            refill(System.nanoTime());
+            rate = newValue;
+        }
+        TIMER.execute(this::drain);
+    }
+
+    /**
+     * Returns the burst size.
+     *
+     * @return the burst size
+     */
+    public final int getBurst()
+    {
+        synchronized (this) {
+            return burst;
+        }
+    }
+
+    /**
+     * Sets the burst size.
+     *
+     * @param newValue a new value of the burst size
+     */
+    public final void setBurst(final int newValue)
+    {
+        if (newValue <= 0) {
+            throw new IllegalArgumentException("Burst size is not positive");
+        }
+        synchronized (this) {
+            refill(System.nanoTime());
+            burst = newValue;
+            tokens = Math.min(tokens, newValue);
+        }
+        TIMER.execute(this::drain);
+    }
+
+    /**
+     * Returns the number of throttled responses.
+     *
+     * @return the number of throttled responses
+     */
+    public final long getThrottledCount()
+    {
+        return throttledCount.get();
+    }
+
+    /**
+     * Waits for a request to be granted.
+     *
+     * @param priority the priority class of the request
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public final void acquire(final RequestPriority priority)
+        throws InterruptedException
+    {
+        CompletableFuture<Void> granted = enqueue(priority);
+        try {
+            granted.get();
+        }
+        catch (final InterruptedException e) {
+            granted.cancel(false);
+            throw e;
+        }
+        catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns a completion stage that will be completed when a request is
+     * granted.
+     *
+     * @param priority the priority class of the request
+     * @return a completion stage
+     */
+    public final CompletionStage<Void> acquireAsync(
+        final RequestPriority priority)
+    {
+        return enqueue(priority);
+    }
+
+    /**
+     * Pauses all requests.
+     *
+     * @param millis the duration in milliseconds
+     */
+    public final void pause(final long millis)
+    {
+        synchronized (this) {
+            long now = System.nanoTime();
+            long until = now + TimeUnit.MILLISECONDS.toNanos(millis);
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+            }
+            tokens = 0;
+            refilledAt = now;
+        }
+    }
+
+    /**
+     * Updates the budget and pauses requests if the response was throttled.
+     *
+     * @param requestContext a client request context
+     * @param responseContext a client response context
+     */
+    @Override
+    public final void filter(final ClientRequestContext requestContext,
+        final ClientResponseContext responseContext)
+    {
+        String retryAfter = responseContext.getHeaderString(RETRY_AFTER);
+        int status = responseContext.getStatus();
+        if (status == TOO_MANY_REQUESTS || (retryAfter != null
+            && status == Response.Status.SERVICE_UNAVAILABLE.getStatusCode())) {
+            throttledCount.incrementAndGet();
+            pause(parseRetryAfter(retryAfter));
+        }
+
+        String remaining =
+            responseContext.getHeaderString(RATE_LIMIT_REMAINING);
+        String reset = responseContext.getHeaderString(RATE_LIMIT_RESET);
+        if (remaining != null && reset != null) {
+            try {
+                updateBudget(Long.parseLong(remaining.trim()),
+                    Long.parseLong(reset.trim()));
+            }
+            catch (final NumberFormatException e) {
+                // Malformed headers are ignored.
+            }
+        }
+    }
+
+    /**
+     * Updates the budget.
+     *
+     * @param remaining the number of remaining requests
+     * @param reset the time when the budget will be reset, in seconds since
+     * the epoch
+     */
+    final void updateBudget(final long remaining, final long reset)
+    {
+        long seconds = reset - System.currentTimeMillis() / 1000;
+        if (seconds <= 0) {
+            return;
+        }
+        if (remaining <= 0) {
+            pause(TimeUnit.SECONDS.toMillis(seconds));
+            return;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            budgetRate = (double) remaining / seconds;
+            budgetResetAt = now + seconds * NANOS_PER_SECOND;
+            tokens = Math.min(tokens, remaining);
+        }
+    }
+
+    /**
+     * Parses a value of {@code Retry-After}.
+     *
+     * @param value a value of {@code Retry-After}, or {@code null}
+     * @return the delay in milliseconds
+     */
+    static long parseRetryAfter(final String value)
+    {
+        if (value == null) {
+            return DEFAULT_RETRY_AFTER;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(
+                Math.max(0, Long.parseLong(value.trim())));
+        }
+        catch (final NumberFormatException e) {
+            // The value may be an HTTP date.
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value.trim(),
+                DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0,
+                Duration.between(ZonedDateTime.now(), date).toMillis());
+        }
+        catch (final DateTimeParseException e) {
+            return DEFAULT_RETRY_AFTER;
+        }
+    }
+
+    /**
+     * Enqueues a request.
+     *
+     * @param priority the priority class of the request
+     * @return a future that will be completed when the request is granted
+     */
+    private CompletableFuture<Void> enqueue(final RequestPriority priority)
+    {
+        CompletableFuture<Void> granted = new CompletableFuture<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (!hasWaiters() && tryTake(now)) {
+                granted.complete(null);
+                return granted;
+            }
+            waiters.get(priority).add(granted);
+            scheduleDrain(now);
+        }
+        return granted;
+    }
+
+    /**
+     * Grants waiting requests in the order of their priority classes.
+     */
+    private void drain()
+    {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            long now = System.nanoTime();
+            grant:
+            for (RequestPriority priority : RequestPriority.values()) {
+                Queue<CompletableFuture<Void>> queue = waiters.get(priority);
+                while (!queue.isEmpty()) {
+                    if (queue.peek().isDone()) {
+                        queue.remove();
+                    }
+                    else if (tryTake(now)) {
+                        granted.add(queue.remove());
+                    }
+                    else {
+                        break grant;
+                    }
+                }
+            }
+            if (hasWaiters()) {
+                scheduleDrain(now);
+            }
+        }
+        Executor current = executor;
+        granted.forEach((future) -> {
+            try {
+                current.execute(() -> grant(future));
+            }
+            catch (final RejectedExecutionException e) {
+                grant(future);
+            }
+        });
+    }
+
+    /**
+     * Grants a waiting request for which a token was taken.
+     *
+     * @param future the future of the waiting request
+     */
+    private void grant(final CompletableFuture<Void> future)
+    {
+        if (!future.complete(null)) {
+            // The waiter was cancelled after the token was taken.
+            synchronized (this) {
+                tokens = Math.min(tokens + 1, burst);
+            }
+        }
+    }
+
+    /**
+     * Schedules a drain of the waiters unless one is already scheduled.
+     *
+     * @param now the current time in nanoseconds
+     */
+    private void scheduleDrain(final long now)
+    {
+        assert Thread.holdsLock(this);
+        if (!drainScheduled) {
+            drainScheduled = true;
+            TIMER.schedule(this::drain, getDelay(now), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean hasWaiters()
+    {
+        assert Thread.holdsLock(this);
+        return waiters.values().stream().anyMatch((queue) -> !queue.isEmpty());
+    }
+
+    /**
+     * Returns the effective rate.
+     *
+     * @param now the current time in nanoseconds
+     * @return the effective rate in requests per second
+     */
+    private double getEffectiveRate(final long now)
+    {
+        assert Thread.holdsLock(this);
+        if (budgetResetAt - now > 0) {
+            return Math.min(rate, budgetRate);
+        }
+        return rate;
+    }
+
+    /**
+     * Refills the bucket.
+     *
+     * @param now the current time in nanoseconds
+     */
+    private void refill(final long now)
+    {
+        assert Thread.holdsLock(this);
+        if (now - pausedUntil < 0) {
+            return;
+        }
+        double effectiveRate = getEffectiveRate(now);
+        if (Double.isInfinite(effectiveRate)) {
+            tokens = burst;
+        }
+        else {
+            long start = refilledAt;
+            if (pausedUntil - start > 0) {
+                start = pausedUntil;
+            }
+            tokens = Math.min(burst, tokens
+                + effectiveRate * (now - start) / NANOS_PER_SECOND);
+        }
+        refilledAt = now;
+    }
+
+    /**
+     * Takes a token if available.
+     *
+     * @param now the current time in nanoseconds
+     * @return {@code true} if a token was taken; {@code false} otherwise
+     */
+    private boolean tryTake(final long now)
+    {
+        assert Thread.holdsLock(this);
+        if (now - pausedUntil < 0) {
+            return false;
+        }
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the delay until a token will be available.
+     *
+     * @param now the current time in nanoseconds
+     * @return the delay in nanoseconds
+     */
+    private long getDelay(final long now)
+    {
+        assert Thread.holdsLock(this);
+        if (now - pausedUntil < 0) {
+            return pausedUntil - now;
+        }
+        double effectiveRate = getEffectiveRate(now);
+        if (Double.isInfinite(effectiveRate) || tokens >= 1) {
+            return 0;
+        }
+        return Math.max(1,
+            (long) Math.ceil((1 - tokens) / effectiveRate * NANOS_PER_SECOND));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * RequestCoalescer.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalescer of identical concurrent requests.
+ * While a request for a key is in flight, other requests for an equal key
+ * wait for it and share its result instead of making their own exchanges.
+ * Keys must include everything that can affect the response, including the
+ * credentials.
+ * <p>This class is thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class RequestCoalescer
+{
+    /**
+     * Coalescer shared in the JVM.
+     */
+    private static final RequestCoalescer SHARED = new RequestCoalescer();
+
+    /**
+     * Requests in flight.
+     */
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Number of requests that were served from a shared exchange.
+     */
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Returns the coalescer shared in the JVM.
+     * It is used only by the clients that are set it explicitly.
+     *
+     * @return the coalescer shared in the JVM
+     */
+    public static RequestCoalescer getShared()
+    {
+        return SHARED;
+    }
+
+    /**
+     * Returns the number of requests that were served from a shared
+     * exchange.
+     *
+     * @return the number of requests served from a shared exchange
+     */
+    public final long getCoalescedCount()
+    {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Executes a request unless an equal one is in flight.
+     *
+     * @param <T> the return type
+     * @param key a key that identifies the request
+     * @param request a function that makes the request
+     * @return the result of the request
+     */
+    @SuppressWarnings("unchecked")
+    public final <T> T execute(final Object key, final Supplier<T> request)
+    {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> shared = inFlight.putIfAbsent(key, future);
+        if (shared != null) {
+            coalescedCount.incrementAndGet();
+            try {
+                return (T) shared.join();
+            }
+            catch (final CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            T value = request.get();
+            future.complete(value);
+            return value;
+        }
+        catch (final RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Executes an asynchronous request unless an equal one is in flight.
+     *
+     * @param <T> the return type
+     * @param key a key that identifies the request
+     * @param request a function that starts the request
+     * @return a completion stage of the result of the request
+     */
+    @SuppressWarnings("unchecked")
+    public final <T> CompletionStage<T> executeAsync(final Object key,
+        final Supplier<? extends CompletionStage<T>> request)
+    {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> shared = inFlight.putIfAbsent(key, future);
+        if (shared != null) {
+            coalescedCount.incrementAndGet();
+            return shared.thenApply((value) -> (T) value);
+        }
+
+        try {
+            request.get().whenComplete((value, e) -> {
+                inFlight.remove(key, future);
+                if (e != null) {
+                    future.completeExceptionally(e);
+                }
+                else {
+                    future.complete(value);
+                }
+            });
+        }
+        catch (final RuntimeException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future.thenApply((value) -> (T) value);
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * RetryPolicy.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Retry policy for idempotent requests.
+ * A failed request is retried after a delay chosen at random between zero
+ * and an exponentially growing bound, which is known as full jitter.
+ * Optionally, a request that has not been answered within a percentile of
+ * the recent latencies is hedged by a second copy, and whichever answers
+ * first is taken.
+ * <p>This class is thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class RetryPolicy
+{
+    /**
+     * Default maximum number of retries.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 2;
+
+    /**
+     * Default bound of the first retry delay in milliseconds.
+     */
+    public static final long DEFAULT_INITIAL_DELAY = 100L;
+
+    /**
+     * Default maximum bound of retry delays in milliseconds.
+     */
+    public static final long DEFAULT_MAX_DELAY = 5000L;
+
+    /**
+     * Number of the latencies kept to compute the hedge delay.
+     */
+    private static final int LATENCY_SAMPLES = 256;
+
+    /**
+     * Minimum number of the latencies required to hedge requests.
+     */
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    /**
+     * Maximum number of retries.
+     */
+    private volatile int maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     * Bound of the first retry delay in milliseconds.
+     */
+    private volatile long initialDelay = DEFAULT_INITIAL_DELAY;
+
+    /**
+     * Maximum bound of retry delays in milliseconds.
+     */
+    private volatile long maxDelay = DEFAULT_MAX_DELAY;
+
+    /**
+     * Latency percentile to hedge requests, or zero if disabled.
+     */
+    private volatile double hedgePercentile = 0;
+
+    /**
+     * Recent latencies in nanoseconds.
+     */
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+
+    /**
+     * Number of the latencies recorded.
+     */
+    private long latencyCount = 0;
+
+    /**
+     * Number of retries made.
+     */
+    private final AtomicLong retryCount = new AtomicLong();
+
+    /**
+     * Number of hedged requests made.
+     */
+    private final AtomicLong hedgeCount = new AtomicLong();
+
+    /**
+     * Returns the maximum number of retries.
+     *
+     * @return the maximum number of retries
+     */
+    public final int getMaxRetries()
+    {
+        return maxRetries;
+    }
+
+    /**
+     * Sets the maximum number of retries.
+     *
+     * @param newValue a new value of the maximum number of retries
+     */
+    public final void setMaxRetries(final int newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        maxRetries = newValue;
+    }
+
+    /**
+     * Returns the bound of the first retry delay.
+     *
+     * @return the bound of the first retry delay in milliseconds
+     */
+    public final long getInitialDelay()
+    {
+        return initialDelay;
+    }
+
+    /**
+     * Sets the bound of the first retry delay.
+     *
+     * @param newValue a new value of the bound of the first retry delay in
+     * milliseconds
+     */
+    public final void setInitialDelay(final long newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        initialDelay = newValue;
+    }
+
+    /**
+     * Returns the maximum bound of retry delays.
+     *
+     * @return the maximum bound of retry delays in milliseconds
+     */
+    public final long getMaxDelay()
+    {
+        return maxDelay;
+    }
+
+    /**
+     * Sets the maximum bound of retry delays.
+     *
+     * @param newValue a new value of the maximum bound of retry delays in
+     * milliseconds
+     */
+    public final void setMaxDelay(final long newValue)
+    {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("Value is negative");
+        }
+        maxDelay = newValue;
+    }
+
+    /**
+     * Returns the latency percentile to hedge requests.
+     *
+     * @return the latency percentile between zero and one, or zero if
+     * hedging is disabled
+     */
+    public final double getHedgePercentile()
+    {
+        return hedgePercentile;
+    }
+
+    /**
+     * Sets the latency percentile to hedge requests.
+     * For example, {@code 0.95} sends a second copy of a request that has
+     * not been answered within the 95th percentile of the recent latencies.
+     *
+     * @param newValue a new value of the latency percentile between zero
+     * and one, or zero to disable hedging
+     */
+    public final void setHedgePercentile(final double newValue)
+    {
+        if (!(newValue >= 0 && newValue < 1)) {
+            throw new IllegalArgumentException("Value is out of range");
+        }
+        hedgePercentile = newValue;
+    }
+
+    /**
+     * Returns the number of retries made.
+     *
+     * @return the number of retries made
+     */
+    public final long getRetryCount()
+    {
+        return retryCount.get();
+    }
+
+    /**
+     * Returns the number of hedged requests made.
+     *
+     * @return the number of hedged requests made
+     */
+    public final long getHedgeCount()
+    {
+        return hedgeCount.get();
+    }
+
+    /**
+     * Returns {@code true} if a failure may be retried.
+     * This implementation accepts I/O errors, including connect errors and
+     * timeouts, and server errors except {@code 501 Not Implemented}.
+     *
+     * @param exception an exception
+     * @return {@code true} if the failure may be retried; {@code false}
+     * otherwise
+     */
+    public boolean isRetryable(final Throwable exception)
+    {
+        Throwable cause = exception;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof ProcessingException) {
+            return cause.getCause() instanceof IOException;
+        }
+        if (cause instanceof WebApplicationException) {
+            Response response = ((WebApplicationException) cause).getResponse();
+            return response.getStatusInfo().getFamily()
+                == Response.Status.Family.SERVER_ERROR
+                && response.getStatus()
+                != Response.Status.NOT_IMPLEMENTED.getStatusCode();
+        }
+        return false;
+    }
+
+    /**
+     * Returns a random delay before a retry.
+     *
+     * @param retry the number of retries made before
+     * @return the delay in milliseconds
+     */
+    public final long getBackoff(final int retry)
+    {
+        long bound = maxDelay;
+        if (retry < Long.numberOfLeadingZeros(initialDelay) - 1) {
+            bound = Math.min(bound, initialDelay << retry);
+        }
+        if (bound == Long.MAX_VALUE) {
+            // The bound cannot be made inclusive without an overflow.
+            return ThreadLocalRandom.current().nextLong(bound);
+        }
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * Returns the delay before a request is hedged.
+     *
+     * @return the delay in milliseconds, or a negative value if the request
+     * shall not be hedged
+     */
+    public final long getHedgeDelay()
+    {
+        double percentile = hedgePercentile;
+        if (percentile <= 0) {
+            return -1;
+        }
+
+        long[] samples;
+        synchronized (latencies) {
+            if (latencyCount < MIN_LATENCY_SAMPLES) {
+                return -1;
+            }
+            samples = Arrays.copyOf(latencies,
+                (int) Math.min(latencyCount, LATENCY_SAMPLES));
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile * samples.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(
+            samples[Math.max(0, index)]);
+    }
+
+    /**
+     * Records the latency of a successful request.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    final void recordLatency(final long nanos)
+    {
+        synchronized (latencies) {
+            latencies[(int) (latencyCount % LATENCY_SAMPLES)] = nanos;
+            latencyCount += 1;
+        }
+    }
+
+    /**
+     * Records a retry.
+     */
+    final void retried()
+    {
+        retryCount.incrementAndGet();
+    }
+
+    /**
+     * Records a hedged request.
+     */
+    final void hedged()
+    {
+        hedgeCount.incrementAndGet();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * TransportProvider.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import java.util.ServiceLoader;
+import javax.ws.rs.client.ClientBuilder;
+
+/**
+ * Service provider interface for HTTP transports.
+ * A transport provider supplies the {@link ClientBuilder} object from which
+ * the shared {@link ClientTransport} object builds its client, and so
+ * decides the JAX-RS implementation and the connector that make the
+ * exchanges.
+ * <p>Providers are looked up with {@link ServiceLoader}, and the first one
+ * available in the runtime is used by default.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public interface TransportProvider
+{
+    /**
+     * Returns the name of this provider.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Returns {@code true} if this provider can be used in the runtime.
+     *
+     * @return {@code true} if available; {@code false} otherwise
+     */
+    boolean isAvailable();
+
+    /**
+     * Returns a new client builder.
+     *
+     * @return a new client builder
+     */
+    ClientBuilder newClientBuilder();
+
+    /**
+     * Returns the default transport provider.
+     * It is the first provider available among those looked up with {@link
+     * ServiceLoader}, or the one that uses the default JAX-RS implementation
+     * if there is none.
+     *
+     * @return the default transport provider
+     */
+    static TransportProvider getDefault()
+    {
+        for (TransportProvider provider
+            : ServiceLoader.load(TransportProvider.class)) {
+            if (provider.isAvailable()) {
+                return provider;
+            }
+        }
+        return DefaultTransportProvider.INSTANCE;
+    }
+}
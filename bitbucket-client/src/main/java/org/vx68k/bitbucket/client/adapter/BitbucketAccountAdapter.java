@@ -22,12 +22,19 @@ package org.vx68k.bitbucket.client.adapter;
 
 import javax.json.JsonObject;
 import javax.json.bind.Jsonb;
-import javax.json.bind.JsonbBuilder;
 import javax.json.bind.adapter.JsonbAdapter;
 import org.vx68k.bitbucket.BitbucketAccount;
 import org.vx68k.bitbucket.client.internal.ClientTeamAccount;
 import org.vx68k.bitbucket.client.internal.ClientUserAccount;
+import org.vx68k.bitbucket.client.util.JsonbMessageBodyReader;
 
+/**
+ * Adapter for {@link BitbucketAccount}.
+ * Properties are deserialized with {@link BitbucketAccountDeserializer}
+ * instead, which does not build an intermediate JSON structure.
+ *
+ * @author Kaz Nishimura
+ */
 public class BitbucketAccountAdapter
         implements JsonbAdapter<BitbucketAccount, JsonObject>
 {
@@ -35,10 +42,9 @@ public class BitbucketAccountAdapter
     public final JsonObject adaptToJson(final BitbucketAccount account)
         throws Exception
     {
-        try (Jsonb jsonb = JsonbBuilder.create()) {
-            // Stupid but probably the right path.
-            return jsonb.fromJson(jsonb.toJson(account), JsonObject.class);
-        }
+        Jsonb jsonb = JsonbMessageBodyReader.getDefaultJsonb();
+        // Stupid but probably the right path.
+        return jsonb.fromJson(jsonb.toJson(account), JsonObject.class);
     }
 
     @Override
@@ -47,13 +53,12 @@ public class BitbucketAccountAdapter
     {
         String type = json.getString("type", null);
         if (type != null) {
-            try (Jsonb jsonb = JsonbBuilder.create()) {
-                if (type.equals("user")) {
-                    return jsonb.fromJson(jsonb.toJson(json), ClientUserAccount.class);
-                }
-                if (type.equals("team")) {
-                    return jsonb.fromJson(jsonb.toJson(json), ClientTeamAccount.class);
-                }
+            Jsonb jsonb = JsonbMessageBodyReader.getDefaultJsonb();
+            if (type.equals("user")) {
+                return jsonb.fromJson(jsonb.toJson(json), ClientUserAccount.class);
+            }
+            if (type.equals("team")) {
+                return jsonb.fromJson(jsonb.toJson(json), ClientTeamAccount.class);
             }
         }
         return null;
@@ -0,0 +1,58 @@
+/*
+ * BitbucketAccountDeserializer.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.adapter;
+
+import java.lang.reflect.Type;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+import org.vx68k.bitbucket.BitbucketAccount;
+import org.vx68k.bitbucket.client.bind.ModelReaders;
+import org.vx68k.bitbucket.client.internal.ClientAccount;
+
+/**
+ * Deserializer for {@link BitbucketAccount} that chooses the concrete class
+ * by the {@code type} property.
+ * The account is read from the parser in a single pass by the model reader
+ * of {@link ClientAccount}, without binding it with reflection or building
+ * an intermediate JSON structure.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class BitbucketAccountDeserializer
+    implements JsonbDeserializer<BitbucketAccount>
+{
+    /**
+     * Returns an account of the concrete class of its type.
+     *
+     * @param parser a JSON parser at the start of an account object
+     * @param context the deserialization context
+     * @param runtimeType the runtime type of the property
+     * @return the account, or {@code null} if its type is not known
+     */
+    @Override
+    public final BitbucketAccount deserialize(final JsonParser parser,
+        final DeserializationContext context, final Type runtimeType)
+    {
+        return ModelReaders.get(ClientAccount.class).read(parser);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * OffsetDateTimeDeserializer.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.adapter;
+
+import java.lang.reflect.Type;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import javax.json.bind.JsonbException;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+import org.vx68k.bitbucket.client.bind.TimestampDecoder;
+
+/**
+ * Deserializer for timestamps that decodes them with {@link
+ * TimestampDecoder} instead of a date-time formatter.
+ * It is meant for the setters of timestamp properties, and the date formats
+ * on their getters still apply to serialization.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class OffsetDateTimeDeserializer
+    implements JsonbDeserializer<OffsetDateTime>
+{
+    /**
+     * Returns a decoded timestamp.
+     *
+     * @param parser a JSON parser at a string value
+     * @param context the deserialization context
+     * @param runtimeType the runtime type of the property
+     * @return the timestamp
+     */
+    @Override
+    public final OffsetDateTime deserialize(final JsonParser parser,
+        final DeserializationContext context, final Type runtimeType)
+    {
+        String string = parser.getString();
+        try {
+            return TimestampDecoder.decode(string);
+        }
+        catch (final DateTimeParseException e) {
+            throw new JsonbException("Invalid date-time: " + string, e);
+        }
+    }
+}
@@ -20,26 +20,171 @@
 
 package org.vx68k.bitbucket.client.adapter;
 
+import java.lang.ref.WeakReference;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import javax.json.bind.adapter.JsonbAdapter;
 
+/**
+ * Adapter for UUIDs, which may be enclosed in braces in JSON.
+ * UUIDs in the canonical form are decoded directly from their characters
+ * without intermediate strings.
+ * <p>Decoded UUIDs may optionally be interned in a table of weak
+ * references, so that a UUID that repeats in a response, such as the one
+ * of the owner of listed repositories, resolves to one shared instance.
+ * The table keeps the UUIDs seen most recently at each of its slots, and
+ * it is shared by all the adapters.</p>
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
 public class UUIDAdapter implements JsonbAdapter<UUID, String>
 {
+    /**
+     * Number of bits of an index of the interning table.
+     */
+    private static final int TABLE_BITS = 10;
+
+    /**
+     * Interning table indexed by the hash of UUIDs.
+     */
+    private static final AtomicReferenceArray<WeakReference<UUID>> TABLE =
+        new AtomicReferenceArray<>(1 << TABLE_BITS);
+
+    /**
+     * {@code true} if decoded UUIDs are interned.
+     */
+    private static volatile boolean interning = false;
+
+    /**
+     * Returns {@code true} if decoded UUIDs are interned.
+     *
+     * @return {@code true} if decoded UUIDs are interned
+     */
+    public static boolean isInterning()
+    {
+        return interning;
+    }
+
+    /**
+     * Enables or disables interning of decoded UUIDs by all the adapters.
+     *
+     * @param newValue {@code true} to intern decoded UUIDs
+     */
+    public static void setInterning(final boolean newValue)
+    {
+        interning = newValue;
+    }
+
     @Override
     public final String adaptToJson(final UUID uuid)
     {
         return uuid.toString();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>The returned UUID is interned if interning is enabled.</p>
+     */
     @Override
-    public final UUID adaptFromJson(String string)
+    public final UUID adaptFromJson(final String string)
     {
         if (string != null) {
-            if (string.startsWith("{") && string.endsWith("}")) {
-                string = string.substring(1, string.length() - 1);
-            }
-            return UUID.fromString(string);
+            return decode(string, interning);
         }
         return null;
     }
+
+    /**
+     * Decodes a UUID, which may be enclosed in braces.
+     *
+     * @param text a UUID
+     * @param intern {@code true} to intern the decoded UUID
+     * @return the UUID
+     * @throws IllegalArgumentException if the text is not a UUID
+     */
+    public static UUID decode(final CharSequence text, final boolean intern)
+    {
+        int start = 0;
+        int end = text.length();
+        if (end >= 2 && text.charAt(0) == '{' && text.charAt(end - 1) == '}') {
+            start += 1;
+            end -= 1;
+        }
+        if (end - start != 36 || text.charAt(start + 8) != '-'
+            || text.charAt(start + 13) != '-'
+            || text.charAt(start + 18) != '-'
+            || text.charAt(start + 23) != '-') {
+            // Leaves the other forms to the lenient parser.
+            return UUID.fromString(text.subSequence(start, end).toString());
+        }
+
+        long most = hex(text, start, 8) << 32
+            | hex(text, start + 9, 4) << 16 | hex(text, start + 14, 4);
+        long least = hex(text, start + 19, 4) << 48
+            | hex(text, start + 24, 12);
+        if (intern) {
+            return intern(most, least);
+        }
+        return new UUID(most, least);
+    }
+
+    /**
+     * Returns the interned UUID of the given bits.
+     *
+     * @param most the most significant bits
+     * @param least the least significant bits
+     * @return the interned UUID
+     */
+    private static UUID intern(final long most, final long least)
+    {
+        long hash = most ^ least;
+        int index = (int) (hash ^ hash >>> 32) * 0x9e3779b9 >>> -TABLE_BITS;
+
+        WeakReference<UUID> reference = TABLE.get(index);
+        if (reference != null) {
+            UUID uuid = reference.get();
+            if (uuid != null && uuid.getMostSignificantBits() == most
+                && uuid.getLeastSignificantBits() == least) {
+                return uuid;
+            }
+        }
+        UUID uuid = new UUID(most, least);
+        TABLE.set(index, new WeakReference<>(uuid));
+        return uuid;
+    }
+
+    /**
+     * Decodes hexadecimal digits.
+     *
+     * @param text a text
+     * @param start the index of the first digit
+     * @param count the number of digits, which must not be more than 16
+     * @return the value
+     * @throws IllegalArgumentException if any of the characters is not a
+     * hexadecimal digit
+     */
+    private static long hex(final CharSequence text, final int start,
+        final int count)
+    {
+        long value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            }
+            else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            }
+            else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            }
+            else {
+                throw new IllegalArgumentException("Invalid UUID: " + text);
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
 }
@@ -0,0 +1,358 @@
+/*
+ * JsonValues.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.bind;
+
+import java.net.URI;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import javax.json.bind.JsonbException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import org.vx68k.bitbucket.client.adapter.UUIDAdapter;
+
+/**
+ * Utility methods to read values from a JSON parser for {@link
+ * ModelReader} implementations.
+ * Each method takes the event of a value that the parser has just
+ * returned, and leaves the parser at the end of the value.
+ * Values are converted the same way as JSON-B does for the model classes.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public final class JsonValues
+{
+    private static final UUIDAdapter UUID_ADAPTER = new UUIDAdapter();
+
+    private JsonValues()
+    {
+    }
+
+    /**
+     * Reads a string value.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @return the string, or {@code null} if the value is {@code null}
+     */
+    public static String readString(final JsonParser parser,
+        final Event event)
+    {
+        switch (event) {
+        case VALUE_STRING:
+        case VALUE_NUMBER:
+            return parser.getString();
+        case VALUE_NULL:
+            return null;
+        default:
+            throw unexpected(event);
+        }
+    }
+
+    /**
+     * Reads an {@code int} value.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value, which must not be {@code
+     * VALUE_NULL}
+     * @return the value
+     */
+    public static int readInt(final JsonParser parser, final Event event)
+    {
+        if (event != Event.VALUE_NUMBER || !parser.isIntegralNumber()) {
+            throw unexpected(event);
+        }
+        return parser.getInt();
+    }
+
+    /**
+     * Reads a {@code long} value.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value, which must not be {@code
+     * VALUE_NULL}
+     * @return the value
+     */
+    public static long readLong(final JsonParser parser, final Event event)
+    {
+        if (event != Event.VALUE_NUMBER || !parser.isIntegralNumber()) {
+            throw unexpected(event);
+        }
+        return parser.getLong();
+    }
+
+    /**
+     * Reads an {@link Integer} value.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @return the value, or {@code null} if the value is {@code null}
+     */
+    public static Integer readInteger(final JsonParser parser,
+        final Event event)
+    {
+        if (event == Event.VALUE_NULL) {
+            return null;
+        }
+        return readInt(parser, event);
+    }
+
+    /**
+     * Reads a {@code boolean} value.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value, which must not be {@code
+     * VALUE_NULL}
+     * @return the value
+     */
+    public static boolean readBoolean(final JsonParser parser,
+        final Event event)
+    {
+        switch (event) {
+        case VALUE_TRUE:
+            return true;
+        case VALUE_FALSE:
+            return false;
+        default:
+            throw unexpected(event);
+        }
+    }
+
+    /**
+     * Reads a date-time value with {@link TimestampDecoder}.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @return the date-time, or {@code null} if the value is {@code null}
+     */
+    public static OffsetDateTime readOffsetDateTime(final JsonParser parser,
+        final Event event)
+    {
+        String string = readString(parser, event);
+        if (string == null) {
+            return null;
+        }
+        try {
+            return TimestampDecoder.decode(string);
+        }
+        catch (final DateTimeParseException e) {
+            throw new JsonbException("Invalid date-time: " + string, e);
+        }
+    }
+
+    /**
+     * Reads a UUID value, which may be enclosed in braces.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @return the UUID, or {@code null} if the value is {@code null}
+     */
+    public static UUID readUuid(final JsonParser parser, final Event event)
+    {
+        String string = readString(parser, event);
+        if (string == null) {
+            return null;
+        }
+        try {
+            return UUID_ADAPTER.adaptFromJson(string);
+        }
+        catch (final IllegalArgumentException e) {
+            throw new JsonbException("Invalid UUID: " + string, e);
+        }
+    }
+
+    /**
+     * Reads a map of links.
+     * Each link is an object that has the {@code href} property, and the
+     * other values, such as arrays of links, are ignored.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @return the map of links, or {@code null} if the value is {@code null}
+     */
+    public static Map<String, URI> readLinks(final JsonParser parser,
+        final Event event)
+    {
+        if (event == Event.VALUE_NULL) {
+            return null;
+        }
+        if (event != Event.START_OBJECT) {
+            throw unexpected(event);
+        }
+
+        Map<String, URI> links = new HashMap<>();
+        for (Event e = parser.next(); e != Event.END_OBJECT;
+            e = parser.next()) {
+            String name = parser.getString();
+            e = parser.next();
+            if (e != Event.START_OBJECT) {
+                skip(parser, e);
+                continue;
+            }
+            for (Event f = parser.next(); f != Event.END_OBJECT;
+                f = parser.next()) {
+                String key = parser.getString();
+                f = parser.next();
+                if (key.equals("href") && f == Event.VALUE_STRING) {
+                    links.put(name, URI.create(parser.getString()));
+                }
+                else {
+                    skip(parser, f);
+                }
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Reads an array of strings.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @return the array, or {@code null} if the value is {@code null}
+     */
+    public static String[] readStrings(final JsonParser parser,
+        final Event event)
+    {
+        if (event == Event.VALUE_NULL) {
+            return null;
+        }
+        if (event != Event.START_ARRAY) {
+            throw unexpected(event);
+        }
+
+        List<String> strings = new ArrayList<>();
+        for (Event e = parser.next(); e != Event.END_ARRAY;
+            e = parser.next()) {
+            strings.add(readString(parser, e));
+        }
+        return strings.toArray(new String[0]);
+    }
+
+    /**
+     * Reads an object with a model reader.
+     *
+     * @param <T> the model class
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @param reader a model reader
+     * @return the object, or {@code null} if the value is {@code null}
+     */
+    public static <T> T readObject(final JsonParser parser, final Event event,
+        final ModelReader<? extends T> reader)
+    {
+        if (event == Event.VALUE_NULL) {
+            return null;
+        }
+        if (event != Event.START_OBJECT) {
+            throw unexpected(event);
+        }
+        return reader.read(parser);
+    }
+
+    /**
+     * Reads an object with a model reader, or takes it as a slice of the
+     * content if the parser was created by {@link
+     * ModelReaders#readSliced(ModelReader, byte[])}.
+     * A slice is the UTF-8 JSON text of the object, which is given to a
+     * function that makes an object to decode it later.
+     *
+     * @param <T> the model class
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @param reader a model reader
+     * @param lazy a function that makes an object from a slice
+     * @return the object, or {@code null} if the value is {@code null}
+     */
+    public static <T> T readObject(final JsonParser parser, final Event event,
+        final ModelReader<? extends T> reader,
+        final Function<byte[], ? extends T> lazy)
+    {
+        if (event == Event.START_OBJECT && parser instanceof SlicingParser) {
+            byte[] slice = ((SlicingParser) parser).sliceObject();
+            if (slice != null) {
+                return lazy.apply(slice);
+            }
+        }
+        return readObject(parser, event, reader);
+    }
+
+    /**
+     * Reads an array of objects with a model reader.
+     *
+     * @param <T> the model class
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @param reader a model reader
+     * @return the list of the objects, or {@code null} if the value is
+     * {@code null}
+     */
+    public static <T> List<T> readList(final JsonParser parser,
+        final Event event, final ModelReader<? extends T> reader)
+    {
+        if (event == Event.VALUE_NULL) {
+            return null;
+        }
+        if (event != Event.START_ARRAY) {
+            throw unexpected(event);
+        }
+
+        List<T> list = new ArrayList<>();
+        for (Event e = parser.next(); e != Event.END_ARRAY;
+            e = parser.next()) {
+            list.add(readObject(parser, e, reader));
+        }
+        return list;
+    }
+
+    /**
+     * Skips a value.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     */
+    public static void skip(final JsonParser parser, final Event event)
+    {
+        if (event == Event.START_OBJECT) {
+            parser.skipObject();
+        }
+        else if (event == Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+
+    /**
+     * Returns an exception for an unexpected event.
+     *
+     * @param event an event
+     * @return an exception
+     */
+    static JsonbException unexpected(final Event event)
+    {
+        return new JsonbException("Unexpected JSON event: " + event);
+    }
+}
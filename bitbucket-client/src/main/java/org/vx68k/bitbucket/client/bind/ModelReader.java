@@ -0,0 +1,59 @@
+/*
+ * ModelReader.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.bind;
+
+import javax.json.stream.JsonParser;
+
+/**
+ * Reader of a model class from a JSON parser.
+ * A reader binds the properties of an object as their names are parsed,
+ * without reflection or an intermediate JSON structure.
+ * <p>Readers other than the built-in ones may be provided as services,
+ * which are looked up with {@link java.util.ServiceLoader} by {@link
+ * ModelReaders}; a provided reader replaces the built-in one of the same
+ * type.
+ * Implementations must be thread-safe.</p>
+ *
+ * @author Kaz Nishimura
+ * @param <T> the model class
+ * @since 6.0
+ */
+public interface ModelReader<T>
+{
+    /**
+     * Returns the model class that this reader reads.
+     *
+     * @return the model class
+     */
+    Class<T> getType();
+
+    /**
+     * Reads an object.
+     * The parser must have just returned the {@code START_OBJECT} event of
+     * the object, and it will have returned the {@code END_OBJECT} event
+     * when this method returns.
+     *
+     * @param parser a JSON parser
+     * @return the object
+     * @throws javax.json.bind.JsonbException if the object cannot be bound
+     */
+    T read(JsonParser parser);
+}
@@ -0,0 +1,180 @@
+/*
+ * ModelReaders.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.bind;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.bind.JsonbException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
+import org.vx68k.bitbucket.client.internal.ClientReaders;
+
+/**
+ * Registry of the model readers.
+ * It has the built-in readers of the client model classes and the ones
+ * provided as services of {@link ModelReader}, which are looked up once
+ * when this class is initialized.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public final class ModelReaders
+{
+    /**
+     * Shared factory of JSON parsers, which avoids looking up the JSON
+     * provider for each parser.
+     */
+    private static final JsonParserFactory PARSER_FACTORY =
+        Json.createParserFactory(null);
+
+    /**
+     * Model readers indexed by their types.
+     */
+    private static final Map<Class<?>, ModelReader<?>> READERS = load();
+
+    private ModelReaders()
+    {
+    }
+
+    /**
+     * Loads the model readers.
+     *
+     * @return the model readers indexed by their types
+     */
+    private static Map<Class<?>, ModelReader<?>> load()
+    {
+        Map<Class<?>, ModelReader<?>> readers = new HashMap<>();
+        for (ModelReader<?> reader : ClientReaders.getReaders()) {
+            readers.put(reader.getType(), reader);
+        }
+        for (ModelReader<?> reader : ServiceLoader.load(ModelReader.class)) {
+            readers.put(reader.getType(), reader);
+        }
+        return Collections.unmodifiableMap(readers);
+    }
+
+    /**
+     * Returns the model reader of a type.
+     *
+     * @param <T> the model class
+     * @param type a type
+     * @return the model reader, or {@code null} if the type has none
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ModelReader<T> get(final Class<T> type)
+    {
+        return (ModelReader<T>) READERS.get(type);
+    }
+
+    /**
+     * Creates a JSON parser with the shared factory.
+     *
+     * @param stream a stream of JSON text
+     * @return a JSON parser
+     */
+    public static JsonParser createParser(final InputStream stream)
+    {
+        return PARSER_FACTORY.createParser(stream);
+    }
+
+    /**
+     * Reads a whole JSON text that is an object or {@code null}.
+     *
+     * @param <T> the model class
+     * @param reader a model reader
+     * @param stream a stream of JSON text
+     * @return the object, or {@code null} if the JSON text is {@code null}
+     * @throws JsonbException if the JSON text cannot be parsed or bound
+     */
+    public static <T> T read(final ModelReader<? extends T> reader,
+        final InputStream stream)
+    {
+        try (JsonParser parser = createParser(stream)) {
+            return read(reader, parser);
+        }
+    }
+
+    /**
+     * Reads a whole UTF-8 JSON text that is an object or {@code null},
+     * letting the model readers take nested objects as slices of the
+     * content.
+     * Objects that are taken as slices are decoded only when they are
+     * accessed.
+     *
+     * @param <T> the model class
+     * @param reader a model reader
+     * @param content UTF-8 JSON text
+     * @return the object, or {@code null} if the JSON text is {@code null}
+     * @throws JsonbException if the JSON text cannot be parsed or bound
+     * @see JsonValues#readObject(JsonParser, Event, ModelReader,
+     * java.util.function.Function)
+     */
+    public static <T> T readSliced(final ModelReader<? extends T> reader,
+        final byte[] content)
+    {
+        // The decoder reports malformed input so that slices always start
+        // and end at the offsets the delegate parser tells.
+        InputStreamReader stream = new InputStreamReader(
+            new ByteArrayInputStream(content),
+            StandardCharsets.UTF_8.newDecoder());
+        try (JsonParser parser = new SlicingParser(
+            PARSER_FACTORY.createParser(stream), content)) {
+            return read(reader, parser);
+        }
+    }
+
+    /**
+     * Reads an object or {@code null} from a parser at the start of a JSON
+     * text.
+     * Exceptions thrown by the model classes are reported as {@link
+     * JsonbException} as JSON-B does.
+     *
+     * @param <T> the model class
+     * @param reader a model reader
+     * @param parser a JSON parser
+     * @return the object, or {@code null} if the JSON text is {@code null}
+     * @throws JsonbException if the JSON text cannot be parsed or bound
+     */
+    public static <T> T read(final ModelReader<? extends T> reader,
+        final JsonParser parser)
+    {
+        try {
+            Event event = parser.next();
+            return JsonValues.readObject(parser, event, reader);
+        }
+        catch (final JsonbException e) {
+            throw e;
+        }
+        catch (final JsonException | IllegalArgumentException
+            | IllegalStateException e) {
+            throw new JsonbException(e.getMessage(), e);
+        }
+    }
+}
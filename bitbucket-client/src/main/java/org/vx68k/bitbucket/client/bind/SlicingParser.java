@@ -0,0 +1,230 @@
+/*
+ * SlicingParser.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.bind;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Stream;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParser;
+
+/**
+ * JSON parser over UTF-8 content that can take objects as slices of the
+ * content without decoding them.
+ * The parser must be given the content as characters decoded from UTF-8,
+ * and its stream offsets are converted to byte offsets in the content.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+final class SlicingParser implements JsonParser
+{
+    /**
+     * Parser to which events are delegated.
+     */
+    private final JsonParser parser;
+
+    /**
+     * UTF-8 content being parsed.
+     */
+    private final byte[] content;
+
+    /**
+     * Character offset to which {@link #byteOffset} corresponds.
+     */
+    private long charOffset = 0;
+
+    /**
+     * Byte offset of the character at {@link #charOffset}.
+     */
+    private int byteOffset = 0;
+
+    /**
+     * Constructs a parser.
+     *
+     * @param parser a parser of the characters decoded from the content
+     * @param content UTF-8 content
+     */
+    SlicingParser(final JsonParser parser, final byte[] content)
+    {
+        this.parser = parser;
+        this.content = content;
+    }
+
+    /**
+     * Takes the current object as a slice of the content.
+     * This parser must have just returned the {@code START_OBJECT} event of
+     * the object, and it will have returned the {@code END_OBJECT} event
+     * when this method returns a slice.
+     *
+     * @return the UTF-8 JSON text of the object, or {@code null} if the
+     * delegate parser does not tell its location, in which case the object
+     * has not been skipped
+     */
+    byte[] sliceObject()
+    {
+        long start = parser.getLocation().getStreamOffset() - 1;
+        if (start < 0) {
+            return null;
+        }
+        int from = toByteOffset(start);
+        parser.skipObject();
+        int to = toByteOffset(parser.getLocation().getStreamOffset());
+        return Arrays.copyOfRange(content, from, to);
+    }
+
+    /**
+     * Converts a character offset to a byte offset in the content.
+     * Offsets must be converted in ascending order, so that the content is
+     * scanned only once.
+     *
+     * @param offset a character offset
+     * @return the byte offset
+     */
+    private int toByteOffset(final long offset)
+    {
+        while (charOffset < offset && byteOffset < content.length) {
+            int lead = content[byteOffset] & 0xff;
+            if (lead < 0x80) {
+                byteOffset += 1;
+            }
+            else if (lead < 0xe0) {
+                byteOffset += 2;
+            }
+            else if (lead < 0xf0) {
+                byteOffset += 3;
+            }
+            else {
+                // A supplementary character is decoded to two characters.
+                byteOffset += 4;
+                charOffset += 1;
+            }
+            charOffset += 1;
+        }
+        return Math.min(byteOffset, content.length);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return parser.hasNext();
+    }
+
+    @Override
+    public Event next()
+    {
+        return parser.next();
+    }
+
+    @Override
+    public String getString()
+    {
+        return parser.getString();
+    }
+
+    @Override
+    public boolean isIntegralNumber()
+    {
+        return parser.isIntegralNumber();
+    }
+
+    @Override
+    public int getInt()
+    {
+        return parser.getInt();
+    }
+
+    @Override
+    public long getLong()
+    {
+        return parser.getLong();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal()
+    {
+        return parser.getBigDecimal();
+    }
+
+    @Override
+    public JsonLocation getLocation()
+    {
+        return parser.getLocation();
+    }
+
+    @Override
+    public JsonObject getObject()
+    {
+        return parser.getObject();
+    }
+
+    @Override
+    public JsonValue getValue()
+    {
+        return parser.getValue();
+    }
+
+    @Override
+    public JsonArray getArray()
+    {
+        return parser.getArray();
+    }
+
+    @Override
+    public Stream<JsonValue> getArrayStream()
+    {
+        return parser.getArrayStream();
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonValue>> getObjectStream()
+    {
+        return parser.getObjectStream();
+    }
+
+    @Override
+    public Stream<JsonValue> getValueStream()
+    {
+        return parser.getValueStream();
+    }
+
+    @Override
+    public void skipArray()
+    {
+        parser.skipArray();
+    }
+
+    @Override
+    public void skipObject()
+    {
+        parser.skipObject();
+    }
+
+    @Override
+    public void close()
+    {
+        parser.close();
+    }
+}
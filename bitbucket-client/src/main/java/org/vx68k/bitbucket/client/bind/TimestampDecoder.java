@@ -0,0 +1,216 @@
+/*
+ * TimestampDecoder.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.bind;
+
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Decoder of the timestamps of the Bitbucket Cloud REST API.
+ * Timestamps in the form {@code uuuu-MM-dd'T'HH:mm:ss[.S...]} followed by
+ * {@code Z}, {@code +HH:MM} or {@code +HHMM}, with up to nine fractional
+ * digits, are decoded directly from their characters without a {@link
+ * java.time.format.DateTimeFormatter}, and the offsets of whole quarter
+ * hours are taken from a table.
+ * Any other text is parsed by {@link OffsetDateTime#parse(CharSequence)}.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public final class TimestampDecoder
+{
+    /**
+     * Length of the part before the fraction.
+     */
+    private static final int SECONDS_END = 19;
+
+    /**
+     * Number of seconds in a quarter hour.
+     */
+    private static final int QUARTER_HOUR = 15 * 60;
+
+    /**
+     * Maximum number of quarter hours of an offset.
+     */
+    private static final int MAX_QUARTER_HOURS = 18 * 4;
+
+    /**
+     * Offsets of whole quarter hours from {@code -18:00} to {@code +18:00}.
+     */
+    private static final ZoneOffset[] OFFSETS =
+        new ZoneOffset[2 * MAX_QUARTER_HOURS + 1];
+
+    static {
+        for (int i = 0; i < OFFSETS.length; i++) {
+            OFFSETS[i] = ZoneOffset.ofTotalSeconds(
+                (i - MAX_QUARTER_HOURS) * QUARTER_HOUR);
+        }
+    }
+
+    private TimestampDecoder()
+    {
+    }
+
+    /**
+     * Decodes a timestamp.
+     *
+     * @param text a timestamp
+     * @return the decoded timestamp
+     * @throws DateTimeParseException if the text is not a valid timestamp
+     */
+    public static OffsetDateTime decode(final CharSequence text)
+    {
+        int length = text.length();
+        if (length < SECONDS_END + 1 || text.charAt(4) != '-'
+            || text.charAt(7) != '-' || text.charAt(10) != 'T'
+            || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return OffsetDateTime.parse(text);
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        if ((year | month | day | hour | minute | second) < 0) {
+            return OffsetDateTime.parse(text);
+        }
+
+        int index = SECONDS_END;
+        int nano = 0;
+        if (text.charAt(index) == '.') {
+            int start = ++index;
+            while (index < length && index - start < 9) {
+                int digit = text.charAt(index) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                nano = nano * 10 + digit;
+                index += 1;
+            }
+            if (index == start) {
+                return OffsetDateTime.parse(text);
+            }
+            for (int i = index - start; i < 9; i++) {
+                nano *= 10;
+            }
+        }
+
+        ZoneOffset offset = decodeOffset(text, index);
+        if (offset == null) {
+            return OffsetDateTime.parse(text);
+        }
+        try {
+            return OffsetDateTime.of(year, month, day, hour, minute, second,
+                nano, offset);
+        }
+        catch (final DateTimeException e) {
+            throw new DateTimeParseException(e.getMessage(), text, 0, e);
+        }
+    }
+
+    /**
+     * Decodes the offset at the end of a timestamp.
+     *
+     * @param text a timestamp
+     * @param index the index of the offset, which may be the length of the
+     * text if the offset is missing
+     * @return the offset, or {@code null} if it is missing or not in a
+     * simple form
+     */
+    private static ZoneOffset decodeOffset(final CharSequence text,
+        final int index)
+    {
+        int length = text.length() - index;
+        if (length <= 0) {
+            return null;
+        }
+
+        char sign = text.charAt(index);
+        if (sign == 'Z') {
+            if (length != 1) {
+                return null;
+            }
+            return ZoneOffset.UTC;
+        }
+        if (sign != '+' && sign != '-') {
+            return null;
+        }
+
+        int hours;
+        int minutes;
+        if (length == 6 && text.charAt(index + 3) == ':') {
+            hours = digits(text, index + 1, 2);
+            minutes = digits(text, index + 4, 2);
+        }
+        else if (length == 5) {
+            hours = digits(text, index + 1, 2);
+            minutes = digits(text, index + 3, 2);
+        }
+        else {
+            return null;
+        }
+        if (hours < 0 || minutes < 0 || minutes > 59) {
+            return null;
+        }
+
+        int seconds = hours * 3600 + minutes * 60;
+        if (sign == '-') {
+            seconds = -seconds;
+        }
+        int quarters = seconds / QUARTER_HOUR;
+        if (seconds % QUARTER_HOUR == 0
+            && Math.abs(quarters) <= MAX_QUARTER_HOURS) {
+            return OFFSETS[quarters + MAX_QUARTER_HOURS];
+        }
+        try {
+            return ZoneOffset.ofTotalSeconds(seconds);
+        }
+        catch (final DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes decimal digits.
+     *
+     * @param text a text
+     * @param start the index of the first digit
+     * @param count the number of digits
+     * @return the value, or {@code -1} if any of the characters is not a
+     * digit
+     */
+    private static int digits(final CharSequence text, final int start,
+        final int count)
+    {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
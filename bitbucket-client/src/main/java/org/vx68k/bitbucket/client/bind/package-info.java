@@ -0,0 +1,28 @@
+/*
+ * package-info.java - package org.vx68k.bitbucket.client.bind
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+/**
+ * Package of the streaming readers of the model classes.
+ * Model classes that have a {@link ModelReader} are bound directly from a
+ * JSON parser without reflection, and the others are bound with JSON-B.
+ *
+ * @since 6.0
+ */
+package org.vx68k.bitbucket.client.bind;
@@ -28,8 +28,10 @@ import java.util.UUID;
 import javax.json.bind.annotation.JsonbDateFormat;
 import javax.json.bind.annotation.JsonbProperty;
 import javax.json.bind.annotation.JsonbTypeAdapter;
+import javax.json.bind.annotation.JsonbTypeDeserializer;
 import org.vx68k.bitbucket.BitbucketAccount;
 import org.vx68k.bitbucket.client.adapter.LinkMapAdapter;
+import org.vx68k.bitbucket.client.adapter.OffsetDateTimeDeserializer;
 import org.vx68k.bitbucket.client.adapter.UUIDAdapter;
 
 /**
@@ -203,6 +205,7 @@ public abstract class ClientAccount implements BitbucketAccount
      * @param created a {@link OffsetDateTime} object for the create time
      */
     @JsonbProperty("created_on")
+    @JsonbTypeDeserializer(OffsetDateTimeDeserializer.class)
     public final void setCreated(final OffsetDateTime created)
     {
         this.created = created;
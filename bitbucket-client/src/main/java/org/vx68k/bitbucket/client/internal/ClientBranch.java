@@ -68,6 +68,7 @@ public class ClientBranch extends ClientRef implements BitbucketBranch
      */
     public ClientBranch(final ClientBranch other)
     {
+        super(other);
         this.type = other.type;
         this.defaultMergeStrategy = other.defaultMergeStrategy;
 
@@ -23,9 +23,11 @@ package org.vx68k.bitbucket.client.internal;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import javax.json.bind.annotation.JsonbDateFormat;
+import javax.json.bind.annotation.JsonbTypeDeserializer;
 import org.vx68k.bitbucket.BitbucketCommit;
 import org.vx68k.bitbucket.BitbucketRendered;
 import org.vx68k.bitbucket.BitbucketRepository;
+import org.vx68k.bitbucket.client.adapter.OffsetDateTimeDeserializer;
 
 /**
  * Implementation class of {@link BitbucketCommit} for the Bitbucket
@@ -107,6 +109,7 @@ public class ClientCommit implements BitbucketCommit
         return date;
     }
 
+    @JsonbTypeDeserializer(OffsetDateTimeDeserializer.class)
     public final void setDate(final OffsetDateTime date) {
         this.date = date;
     }
@@ -23,10 +23,12 @@ package org.vx68k.bitbucket.client.internal;
 import java.time.OffsetDateTime;
 import javax.json.bind.annotation.JsonbDateFormat;
 import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbTypeDeserializer;
 import org.vx68k.bitbucket.BitbucketIssue;
 import org.vx68k.bitbucket.BitbucketRendered;
 import org.vx68k.bitbucket.BitbucketRepository;
 import org.vx68k.bitbucket.BitbucketUserAccount;
+import org.vx68k.bitbucket.client.adapter.OffsetDateTimeDeserializer;
 
 /**
  * Client implementation class of {@link BitbucketIssue} for the
@@ -179,6 +181,7 @@ public class ClientIssue implements BitbucketIssue
     }
 
     @JsonbProperty("created_on")
+    @JsonbTypeDeserializer(OffsetDateTimeDeserializer.class)
     public final void setCreated(final OffsetDateTime created)
     {
         this.created = created;
@@ -193,6 +196,7 @@ public class ClientIssue implements BitbucketIssue
     }
 
     @JsonbProperty("updated_on")
+    @JsonbTypeDeserializer(OffsetDateTimeDeserializer.class)
     public final void setUpdated(final OffsetDateTime updated)
     {
         this.updated = updated;
@@ -207,6 +211,7 @@ public class ClientIssue implements BitbucketIssue
     }
 
     @JsonbProperty("edited_on")
+    @JsonbTypeDeserializer(OffsetDateTimeDeserializer.class)
     public final void setEdited(final OffsetDateTime edited)
     {
         this.edited = edited;
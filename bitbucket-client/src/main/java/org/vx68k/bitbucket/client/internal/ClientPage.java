@@ -0,0 +1,151 @@
+/*
+ * ClientPage.java
+ * Copyright (C) 2015-2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.internal;
+
+import java.util.List;
+
+/**
+ * Client implementation class of a page of a paginated resource.
+ *
+ * @author Kaz Nishimura
+ * @param <T> the type of the values
+ * @since 6.0
+ */
+public class ClientPage<T>
+{
+    private Integer size;
+
+    private Integer page;
+
+    private Integer pagelen;
+
+    private String next;
+
+    private List<T> values;
+
+    /**
+     * Constructs a page.
+     */
+    public ClientPage()
+    {
+        // Nothing to do.
+    }
+
+    /**
+     * Returns the total number of values in the paginated resource.
+     *
+     * @return the total number of values, or {@code null} if not known
+     */
+    public final Integer getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Sets the total number of values in the paginated resource.
+     *
+     * @param size the total number of values
+     */
+    public final void setSize(final Integer size)
+    {
+        this.size = size;
+    }
+
+    /**
+     * Returns the page number.
+     *
+     * @return the page number, or {@code null} if not known
+     */
+    public final Integer getPage()
+    {
+        return page;
+    }
+
+    /**
+     * Sets the page number.
+     *
+     * @param page the page number
+     */
+    public final void setPage(final Integer page)
+    {
+        this.page = page;
+    }
+
+    /**
+     * Returns the number of values in a page.
+     *
+     * @return the number of values in a page, or {@code null} if not known
+     */
+    public final Integer getPagelen()
+    {
+        return pagelen;
+    }
+
+    /**
+     * Sets the number of values in a page.
+     *
+     * @param pagelen the number of values in a page
+     */
+    public final void setPagelen(final Integer pagelen)
+    {
+        this.pagelen = pagelen;
+    }
+
+    /**
+     * Returns the URI of the next page.
+     *
+     * @return the URI of the next page, or {@code null} if none
+     */
+    public final String getNext()
+    {
+        return next;
+    }
+
+    /**
+     * Sets the URI of the next page.
+     *
+     * @param next the URI of the next page
+     */
+    public final void setNext(final String next)
+    {
+        this.next = next;
+    }
+
+    /**
+     * Returns the values in this page.
+     *
+     * @return the values, or {@code null} if none
+     */
+    public final List<T> getValues()
+    {
+        return values;
+    }
+
+    /**
+     * Sets the values in this page.
+     *
+     * @param values the values
+     */
+    public final void setValues(final List<T> values)
+    {
+        this.values = values;
+    }
+}
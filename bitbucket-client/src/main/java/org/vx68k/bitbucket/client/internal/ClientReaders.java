@@ -0,0 +1,577 @@
+/*
+ * ClientReaders.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import org.vx68k.bitbucket.client.bind.JsonValues;
+import org.vx68k.bitbucket.client.bind.ModelReader;
+
+/**
+ * Built-in model readers of the client model classes.
+ * Each reader follows the property names given by the {@code JsonbProperty}
+ * annotations of its class and converts values the same way as JSON-B.
+ * Values are set through the setters of the class, as JSON-B does.
+ * Rendered texts of issues and commits are taken as slices of the content
+ * if the parser supports it, and decoded only when they are accessed.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public final class ClientReaders
+{
+    /**
+     * Reader of {@link ClientRendered}.
+     */
+    static final ModelReader<ClientRendered> RENDERED =
+        new Reader<ClientRendered>(ClientRendered.class) {
+            @Override
+            public ClientRendered read(final JsonParser parser)
+            {
+                ClientRendered rendered = new ClientRendered();
+                for (Event event = parser.next(); event != Event.END_OBJECT;
+                    event = parser.next()) {
+                    String name = parser.getString();
+                    event = parser.next();
+                    switch (name) {
+                    case "type":
+                        rendered.setType(JsonValues.readString(parser, event));
+                        break;
+                    case "markup":
+                        rendered.setMarkup(
+                            JsonValues.readString(parser, event));
+                        break;
+                    case "raw":
+                        rendered.setRaw(JsonValues.readString(parser, event));
+                        break;
+                    case "html":
+                        rendered.setHtml(JsonValues.readString(parser, event));
+                        break;
+                    default:
+                        JsonValues.skip(parser, event);
+                        break;
+                    }
+                }
+                return rendered;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientProject}.
+     */
+    static final ModelReader<ClientProject> PROJECT =
+        new Reader<ClientProject>(ClientProject.class) {
+            @Override
+            public ClientProject read(final JsonParser parser)
+            {
+                ClientProject project = new ClientProject();
+                for (Event event = parser.next(); event != Event.END_OBJECT;
+                    event = parser.next()) {
+                    String name = parser.getString();
+                    event = parser.next();
+                    switch (name) {
+                    case "type":
+                        project.setType(JsonValues.readString(parser, event));
+                        break;
+                    case "uuid":
+                        project.setUuid(JsonValues.readUuid(parser, event));
+                        break;
+                    case "key":
+                        project.setKey(JsonValues.readString(parser, event));
+                        break;
+                    case "name":
+                        project.setName(JsonValues.readString(parser, event));
+                        break;
+                    case "links":
+                        project.setLinks(
+                            JsonValues.readLinks(parser, event));
+                        break;
+                    default:
+                        JsonValues.skip(parser, event);
+                        break;
+                    }
+                }
+                return project;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientUserAccount}.
+     */
+    static final ModelReader<ClientUserAccount> USER_ACCOUNT =
+        new Reader<ClientUserAccount>(ClientUserAccount.class) {
+            @Override
+            public ClientUserAccount read(final JsonParser parser)
+            {
+                ClientUserAccount user = new ClientUserAccount();
+                String type = readAccount(parser, user);
+                user.setType(type);
+                return user;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientTeamAccount}.
+     */
+    static final ModelReader<ClientTeamAccount> TEAM_ACCOUNT =
+        new Reader<ClientTeamAccount>(ClientTeamAccount.class) {
+            @Override
+            public ClientTeamAccount read(final JsonParser parser)
+            {
+                ClientUserAccount user = new ClientUserAccount();
+                String type = readAccount(parser, user);
+                ClientTeamAccount team = new ClientTeamAccount(user);
+                team.setType(type);
+                return team;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientAccount}, which chooses the concrete class by
+     * the {@code type} property.
+     */
+    static final ModelReader<ClientAccount> ACCOUNT =
+        new Reader<ClientAccount>(ClientAccount.class) {
+            @Override
+            public ClientAccount read(final JsonParser parser)
+            {
+                // A user account has all the properties of a team account.
+                ClientUserAccount user = new ClientUserAccount();
+                String type = readAccount(parser, user);
+                if (ClientUserAccount.USER.equals(type)) {
+                    user.setType(type);
+                    return user;
+                }
+                if (ClientTeamAccount.TEAM.equals(type)) {
+                    return new ClientTeamAccount(user);
+                }
+                return null;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientCommit}.
+     */
+    static final ModelReader<ClientCommit> COMMIT =
+        new Reader<ClientCommit>(ClientCommit.class) {
+            @Override
+            public ClientCommit read(final JsonParser parser)
+            {
+                ClientCommit commit = new ClientCommit();
+                for (Event event = parser.next(); event != Event.END_OBJECT;
+                    event = parser.next()) {
+                    String name = parser.getString();
+                    event = parser.next();
+                    switch (name) {
+                    case "type":
+                        commit.setType(JsonValues.readString(parser, event));
+                        break;
+                    case "hash":
+                        commit.setHash(JsonValues.readString(parser, event));
+                        break;
+                    case "date":
+                        commit.setDate(
+                            JsonValues.readOffsetDateTime(parser, event));
+                        break;
+                    case "message":
+                        commit.setMessage(
+                            JsonValues.readString(parser, event));
+                        break;
+                    case "repository":
+                        commit.setRepository(
+                            JsonValues.readObject(parser, event, REPOSITORY));
+                        break;
+                    case "parents":
+                        commit.setParents(toArray(
+                            JsonValues.readList(parser, event, COMMIT),
+                            new ClientCommit[0]));
+                        break;
+                    case "summary":
+                        commit.setSummary(JsonValues.readObject(parser,
+                            event, RENDERED, ClientRendered::new));
+                        break;
+                    default:
+                        JsonValues.skip(parser, event);
+                        break;
+                    }
+                }
+                return commit;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientBranch}.
+     */
+    static final ModelReader<ClientBranch> BRANCH =
+        new Reader<ClientBranch>(ClientBranch.class) {
+            @Override
+            public ClientBranch read(final JsonParser parser)
+            {
+                ClientBranch branch = new ClientBranch();
+                for (Event event = parser.next(); event != Event.END_OBJECT;
+                    event = parser.next()) {
+                    String name = parser.getString();
+                    event = parser.next();
+                    switch (name) {
+                    case "type":
+                        branch.setType(JsonValues.readString(parser, event));
+                        break;
+                    case "name":
+                        branch.setName(JsonValues.readString(parser, event));
+                        break;
+                    case "target":
+                        branch.setTarget(
+                            JsonValues.readObject(parser, event, COMMIT));
+                        break;
+                    case "default_merge_strategy":
+                        branch.setDefaultMergeStrategy(
+                            JsonValues.readString(parser, event));
+                        break;
+                    case "merge_strategies":
+                        branch.setMergeStrategies(
+                            JsonValues.readStrings(parser, event));
+                        break;
+                    case "heads":
+                        branch.setHeads(toArray(
+                            JsonValues.readList(parser, event, COMMIT),
+                            new ClientCommit[0]));
+                        break;
+                    default:
+                        JsonValues.skip(parser, event);
+                        break;
+                    }
+                }
+                return branch;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientRepository}.
+     */
+    static final ModelReader<ClientRepository> REPOSITORY =
+        new Reader<ClientRepository>(ClientRepository.class) {
+            @Override
+            public ClientRepository read(final JsonParser parser)
+            {
+                ClientRepository repository = new ClientRepository();
+                for (Event event = parser.next(); event != Event.END_OBJECT;
+                    event = parser.next()) {
+                    String name = parser.getString();
+                    event = parser.next();
+                    readProperty(parser, event, name, repository);
+                }
+                return repository;
+            }
+        };
+
+    /**
+     * Reader of {@link ClientIssue}.
+     */
+    static final ModelReader<ClientIssue> ISSUE =
+        new Reader<ClientIssue>(ClientIssue.class) {
+            @Override
+            public ClientIssue read(final JsonParser parser)
+            {
+                ClientIssue issue = new ClientIssue();
+                for (Event event = parser.next(); event != Event.END_OBJECT;
+                    event = parser.next()) {
+                    String name = parser.getString();
+                    event = parser.next();
+                    readProperty(parser, event, name, issue);
+                }
+                return issue;
+            }
+        };
+
+    private ClientReaders()
+    {
+    }
+
+    /**
+     * Returns the built-in model readers.
+     *
+     * @return an unmodifiable list of the model readers
+     */
+    public static List<ModelReader<?>> getReaders()
+    {
+        return Collections.unmodifiableList(Arrays.asList(RENDERED, PROJECT,
+            USER_ACCOUNT, TEAM_ACCOUNT, ACCOUNT, COMMIT, BRANCH, REPOSITORY,
+            ISSUE));
+    }
+
+    /**
+     * Reads the properties of an account except its type.
+     *
+     * @param parser a JSON parser after the start of an account object
+     * @param account an account to which the properties are set
+     * @return the value of the {@code type} property
+     */
+    private static String readAccount(final JsonParser parser,
+        final ClientUserAccount account)
+    {
+        String type = null;
+        for (Event event = parser.next(); event != Event.END_OBJECT;
+            event = parser.next()) {
+            String name = parser.getString();
+            event = parser.next();
+            switch (name) {
+            case "type":
+                type = JsonValues.readString(parser, event);
+                break;
+            case "uuid":
+                account.setUuid(JsonValues.readUuid(parser, event));
+                break;
+            case "username":
+                account.setUsername(JsonValues.readString(parser, event));
+                break;
+            case "display_name":
+                account.setDisplayName(JsonValues.readString(parser, event));
+                break;
+            case "website":
+                account.setWebsite(JsonValues.readString(parser, event));
+                break;
+            case "location":
+                account.setLocation(JsonValues.readString(parser, event));
+                break;
+            case "created_on":
+                account.setCreated(
+                    JsonValues.readOffsetDateTime(parser, event));
+                break;
+            case "links":
+                account.setLinks(JsonValues.readLinks(parser, event));
+                break;
+            case "is_staff":
+                if (event != Event.VALUE_NULL) {
+                    account.setStaff(JsonValues.readBoolean(parser, event));
+                }
+                break;
+            case "account_id":
+                account.setAccountId(JsonValues.readString(parser, event));
+                break;
+            default:
+                JsonValues.skip(parser, event);
+                break;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Reads a property of a repository.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @param name the name of the property
+     * @param repository a repository to which the property is set
+     */
+    private static void readProperty(final JsonParser parser,
+        final Event event, final String name,
+        final ClientRepository repository)
+    {
+        switch (name) {
+        case "type":
+            repository.setType(JsonValues.readString(parser, event));
+            break;
+        case "uuid":
+            repository.setUuid(JsonValues.readUuid(parser, event));
+            break;
+        case "name":
+            repository.setName(JsonValues.readString(parser, event));
+            break;
+        case "full_name":
+            repository.setFullName(JsonValues.readString(parser, event));
+            break;
+        case "description":
+            repository.setDescription(JsonValues.readString(parser, event));
+            break;
+        case "is_private":
+            if (event != Event.VALUE_NULL) {
+                repository.setPrivate(JsonValues.readBoolean(parser, event));
+            }
+            break;
+        case "fork_policy":
+            repository.setForkPolicy(JsonValues.readString(parser, event));
+            break;
+        case "website":
+            repository.setWebsite(JsonValues.readString(parser, event));
+            break;
+        case "language":
+            repository.setLanguage(JsonValues.readString(parser, event));
+            break;
+        case "scm":
+            repository.setScm(JsonValues.readString(parser, event));
+            break;
+        case "created_on":
+            repository.setCreated(
+                JsonValues.readOffsetDateTime(parser, event));
+            break;
+        case "updated_on":
+            repository.setUpdated(
+                JsonValues.readOffsetDateTime(parser, event));
+            break;
+        case "size":
+            if (event != Event.VALUE_NULL) {
+                repository.setSize(JsonValues.readLong(parser, event));
+            }
+            break;
+        case "has_issues":
+            if (event != Event.VALUE_NULL) {
+                repository.setIssuesEnabled(
+                    JsonValues.readBoolean(parser, event));
+            }
+            break;
+        case "has_wiki":
+            if (event != Event.VALUE_NULL) {
+                repository.setWikiEnabled(
+                    JsonValues.readBoolean(parser, event));
+            }
+            break;
+        case "owner":
+            repository.setOwner(
+                JsonValues.readObject(parser, event, ACCOUNT));
+            break;
+        case "project":
+            repository.setProject(
+                JsonValues.readObject(parser, event, PROJECT));
+            break;
+        case "mainbranch":
+            repository.setMainBranch(
+                JsonValues.readObject(parser, event, BRANCH));
+            break;
+        default:
+            JsonValues.skip(parser, event);
+            break;
+        }
+    }
+
+    /**
+     * Reads a property of an issue.
+     *
+     * @param parser a JSON parser
+     * @param event the event of the value
+     * @param name the name of the property
+     * @param issue an issue to which the property is set
+     */
+    private static void readProperty(final JsonParser parser,
+        final Event event, final String name, final ClientIssue issue)
+    {
+        switch (name) {
+        case "type":
+            issue.setType(JsonValues.readString(parser, event));
+            break;
+        case "id":
+            if (event != Event.VALUE_NULL) {
+                issue.setId(JsonValues.readInt(parser, event));
+            }
+            break;
+        case "title":
+            issue.setTitle(JsonValues.readString(parser, event));
+            break;
+        case "kind":
+            issue.setKind(JsonValues.readString(parser, event));
+            break;
+        case "priority":
+            issue.setPriority(JsonValues.readString(parser, event));
+            break;
+        case "state":
+            issue.setState(JsonValues.readString(parser, event));
+            break;
+        case "created_on":
+            issue.setCreated(JsonValues.readOffsetDateTime(parser, event));
+            break;
+        case "updated_on":
+            issue.setUpdated(JsonValues.readOffsetDateTime(parser, event));
+            break;
+        case "edited_on":
+            issue.setEdited(JsonValues.readOffsetDateTime(parser, event));
+            break;
+        case "votes":
+            if (event != Event.VALUE_NULL) {
+                issue.setVotes(JsonValues.readInt(parser, event));
+            }
+            break;
+        case "watches":
+            if (event != Event.VALUE_NULL) {
+                issue.setWatches(JsonValues.readInt(parser, event));
+            }
+            break;
+        case "repository":
+            issue.setRepository(
+                JsonValues.readObject(parser, event, REPOSITORY));
+            break;
+        case "content":
+            issue.setContent(JsonValues.readObject(parser, event, RENDERED,
+                ClientRendered::new));
+            break;
+        case "reporter":
+            issue.setReporter(
+                JsonValues.readObject(parser, event, USER_ACCOUNT));
+            break;
+        case "assignee":
+            issue.setAssignee(
+                JsonValues.readObject(parser, event, USER_ACCOUNT));
+            break;
+        default:
+            JsonValues.skip(parser, event);
+            break;
+        }
+    }
+
+    /**
+     * Converts a list to an array.
+     *
+     * @param <T> the type of the elements
+     * @param list a list, or {@code null}
+     * @param array an array of the runtime type
+     * @return the array, or {@code null} if the list is {@code null}
+     */
+    private static <T> T[] toArray(final List<T> list, final T[] array)
+    {
+        if (list == null) {
+            return null;
+        }
+        return list.toArray(array);
+    }
+
+    /**
+     * Base class of the built-in model readers.
+     *
+     * @param <T> the model class
+     */
+    private abstract static class Reader<T> implements ModelReader<T>
+    {
+        private final Class<T> type;
+
+        Reader(final Class<T> type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        public final Class<T> getType()
+        {
+            return type;
+        }
+    }
+}
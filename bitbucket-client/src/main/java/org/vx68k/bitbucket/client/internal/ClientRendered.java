@@ -20,11 +20,16 @@
 
 package org.vx68k.bitbucket.client.internal;
 
+import java.io.ByteArrayInputStream;
 import org.vx68k.bitbucket.BitbucketRendered;
+import org.vx68k.bitbucket.client.bind.ModelReaders;
 
 /**
  * Implementation class of {@link BitbucketRendered} for the Bitbucket
  * Cloud REST API.
+ * A rendered text may be constructed from the undecoded JSON text of its
+ * object, which is decoded when any of its properties is first accessed,
+ * so that texts never accessed take only their compact UTF-8 form.
  *
  * @author Kaz Nishimura
  * @since 6.0
@@ -41,6 +46,11 @@ public class ClientRendered implements BitbucketRendered
 
     private String html;
 
+    /**
+     * UTF-8 JSON text not decoded yet, or {@code null} if decoded.
+     */
+    private volatile byte[] source = null;
+
     /**
      * Constructs a rendered text.
      */
@@ -49,21 +59,56 @@ public class ClientRendered implements BitbucketRendered
         // Nothing to do.
     }
 
+    /**
+     * Constructs a rendered text that is decoded on first access.
+     *
+     * @param source the UTF-8 JSON text of a rendered object
+     */
+    public ClientRendered(final byte[] source)
+    {
+        this.source = source;
+    }
+
     public ClientRendered(final ClientRendered other)
     {
+        // If the source is not null, it overrides the other fields.
+        this.source = other.source;
         this.type = other.type;
         this.markup = other.markup;
         this.raw = other.raw;
         this.html = other.html;
     }
 
+    /**
+     * Decodes the source if it is not decoded yet.
+     */
+    private void decode()
+    {
+        if (source != null) {
+            synchronized (this) {
+                byte[] json = source;
+                if (json != null) {
+                    ClientRendered decoded = ModelReaders.read(
+                        ClientReaders.RENDERED, new ByteArrayInputStream(json));
+                    type = decoded.type;
+                    markup = decoded.markup;
+                    raw = decoded.raw;
+                    html = decoded.html;
+                    source = null;
+                }
+            }
+        }
+    }
+
     public final String getType()
     {
+        decode();
         return type;
     }
 
     public void setType(String type)
     {
+        decode();
         if (type != null && !(type.equals(RENDERED))) {
             throw new IllegalArgumentException("Type is not of rendered objects");
         }
@@ -73,33 +118,39 @@ public class ClientRendered implements BitbucketRendered
     @Override
     public final String getMarkup()
     {
+        decode();
         return markup;
     }
 
     public final void setMarkup(final String markup)
     {
+        decode();
         this.markup = markup;
     }
 
     @Override
     public final String getRaw()
     {
+        decode();
         return raw;
     }
 
     public final void setRaw(final String raw)
     {
+        decode();
         this.raw = raw;
     }
 
     @Override
     public final String getHtml()
     {
+        decode();
         return html;
     }
 
     public final void setHtml(final String html)
     {
+        decode();
         this.html = html;
     }
 }
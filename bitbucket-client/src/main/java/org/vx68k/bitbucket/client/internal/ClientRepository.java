@@ -24,11 +24,14 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 import javax.json.bind.annotation.JsonbProperty;
 import javax.json.bind.annotation.JsonbTypeAdapter;
+import javax.json.bind.annotation.JsonbTypeDeserializer;
 import org.vx68k.bitbucket.BitbucketAccount;
 import org.vx68k.bitbucket.BitbucketBranch;
 import org.vx68k.bitbucket.BitbucketProject;
 import org.vx68k.bitbucket.BitbucketRepository;
 import org.vx68k.bitbucket.client.adapter.BitbucketAccountAdapter;
+import org.vx68k.bitbucket.client.adapter.BitbucketAccountDeserializer;
+import org.vx68k.bitbucket.client.adapter.OffsetDateTimeDeserializer;
 import org.vx68k.bitbucket.client.adapter.UUIDAdapter;
 
 /**
@@ -302,6 +305,7 @@ public class ClientRepository implements BitbucketRepository
      * @param created a {@link OffsetDateTime} object for the create time
      */
     @JsonbProperty("created_on")
+    @JsonbTypeDeserializer(OffsetDateTimeDeserializer.class)
     public final void setCreated(final OffsetDateTime created)
     {
         this.created = created;
@@ -325,6 +329,7 @@ public class ClientRepository implements BitbucketRepository
      * @param updated a {@link OffsetDateTime} object for the update time
      */
     @JsonbProperty("updated_on")
+    @JsonbTypeDeserializer(OffsetDateTimeDeserializer.class)
     public final void setUpdated(final OffsetDateTime updated)
     {
         this.updated = updated;
@@ -382,6 +387,7 @@ public class ClientRepository implements BitbucketRepository
      *
      * @param owner a {@link ClientAccount} object for the owner
      */
+    @JsonbTypeDeserializer(BitbucketAccountDeserializer.class)
     public final void setOwner(ClientAccount owner)
     {
         if (owner != null) {
@@ -430,6 +436,7 @@ public class ClientRepository implements BitbucketRepository
      *
      * @param mainBranch a {@link ClientBranch} object for the main branch
      */
+    @JsonbProperty("mainbranch")
     public final void setMainBranch(ClientBranch mainBranch)
     {
         if (mainBranch != null) {
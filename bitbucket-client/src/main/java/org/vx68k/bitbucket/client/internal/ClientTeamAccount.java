@@ -54,6 +54,18 @@ public class ClientTeamAccount extends ClientAccount
         this.type = other.type;
     }
 
+    /**
+     * Constructs a team account copying the common properties of another
+     * account.
+     *
+     * @param other another account
+     */
+    public ClientTeamAccount(final ClientAccount other)
+    {
+        super(other);
+        this.type = TEAM;
+    }
+
     public ClientTeamAccount copy()
     {
         return new ClientTeamAccount(this);
@@ -62,6 +62,18 @@ public class ClientUserAccount extends ClientAccount
         this.accountId = other.accountId;
     }
 
+    /**
+     * Constructs a user account copying the common properties of another
+     * account.
+     *
+     * @param other another account
+     */
+    public ClientUserAccount(final ClientAccount other)
+    {
+        super(other);
+        this.type = USER;
+    }
+
     public ClientUserAccount copy()
     {
         return new ClientUserAccount(this);
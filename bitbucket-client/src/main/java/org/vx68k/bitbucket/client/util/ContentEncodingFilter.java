@@ -0,0 +1,276 @@
+/*
+ * ContentEncodingFilter.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+
+/**
+ * Content coding filter for the JAX-RS Client API.
+ * This filter advertises {@code gzip} and {@code deflate} in {@code
+ * Accept-Encoding} and decodes compressed response entities while they are
+ * read, so that message body readers consume the decoded stream without the
+ * whole entity being buffered.
+ * Empty entities are passed through as they are, even with a content coding.
+ * It also counts the bytes read from the wire and after decoding.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class ContentEncodingFilter
+    implements ClientRequestFilter, ReaderInterceptor
+{
+    /**
+     * Value of {@code Accept-Encoding} added to requests.
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * Name of the request property that holds the request URI.
+     */
+    private static final String URI_PROPERTY =
+        ContentEncodingFilter.class.getName() + ".uri";
+
+    /**
+     * Total number of bytes read from the wire.
+     */
+    private final AtomicLong wireBytes = new AtomicLong();
+
+    /**
+     * Total number of bytes after decoding.
+     */
+    private final AtomicLong decodedBytes = new AtomicLong();
+
+    /**
+     * Transfer listeners.
+     */
+    private final Set<TransferListener> transferListeners =
+        new CopyOnWriteArraySet<>();
+
+    /**
+     * Returns the total number of bytes read from the wire.
+     *
+     * @return the total number of bytes read from the wire
+     */
+    public final long getWireBytes()
+    {
+        return wireBytes.get();
+    }
+
+    /**
+     * Returns the total number of bytes after decoding.
+     *
+     * @return the total number of bytes after decoding
+     */
+    public final long getDecodedBytes()
+    {
+        return decodedBytes.get();
+    }
+
+    /**
+     * Adds a transfer listener.
+     *
+     * @param listener a transfer listener
+     */
+    public final void addTransferListener(final TransferListener listener)
+    {
+        transferListeners.add(listener);
+    }
+
+    /**
+     * Removes a transfer listener.
+     *
+     * @param listener a transfer listener
+     */
+    public final void removeTransferListener(final TransferListener listener)
+    {
+        transferListeners.remove(listener);
+    }
+
+    /**
+     * Fires a transfer event.
+     *
+     * @param event a transfer event
+     */
+    protected final void fireTransferred(final TransferEvent event)
+    {
+        transferListeners.forEach((l) -> l.transferred(event));
+    }
+
+    /**
+     * Adds an {@code Accept-Encoding} header unless the request has one.
+     *
+     * @param context a client request context
+     */
+    @Override
+    public final void filter(final ClientRequestContext context)
+    {
+        MultivaluedMap<String, Object> headers = context.getHeaders();
+        if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.putSingle(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+        }
+        context.setProperty(URI_PROPERTY, context.getUri());
+    }
+
+    /**
+     * Decodes the entity stream if it is compressed.
+     *
+     * @param context a reader interceptor context
+     * @return the entity read
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public final Object aroundReadFrom(final ReaderInterceptorContext context)
+        throws IOException
+    {
+        MultivaluedMap<String, String> headers = context.getHeaders();
+        String encoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+
+        CountingInputStream wire =
+            new CountingInputStream(context.getInputStream());
+        InputStream stream = wire;
+        if (encoding != null) {
+            // An empty entity, as of 204 or HEAD, has nothing to decode.
+            PushbackInputStream pushback = new PushbackInputStream(wire);
+            int c = pushback.read();
+            if (c < 0) {
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                encoding = null;
+            }
+            else {
+                pushback.unread(c);
+                stream = pushback;
+            }
+        }
+        if (encoding != null) {
+            encoding = encoding.trim().toLowerCase(Locale.ROOT);
+            switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                stream = new GZIPInputStream(stream);
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                break;
+            case "deflate":
+                stream = new InflaterInputStream(stream);
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                break;
+            case "identity":
+                encoding = null;
+                break;
+            default:
+                // Unknown codings are left to the reader.
+                break;
+            }
+        }
+
+        CountingInputStream decoded = new CountingInputStream(stream);
+        context.setInputStream(decoded);
+        try {
+            return context.proceed();
+        }
+        finally {
+            wireBytes.addAndGet(wire.getCount());
+            decodedBytes.addAndGet(decoded.getCount());
+            if (!transferListeners.isEmpty()) {
+                Object uri = context.getProperty(URI_PROPERTY);
+                fireTransferred(new TransferEvent(this,
+                    uri instanceof URI ? (URI) uri : null, encoding,
+                    wire.getCount(), decoded.getCount()));
+            }
+        }
+    }
+
+    /**
+     * Input stream that counts the bytes read.
+     */
+    private static final class CountingInputStream extends FilterInputStream
+    {
+        /**
+         * Number of bytes read.
+         */
+        private long count = 0;
+
+        /**
+         * Constructs this object.
+         *
+         * @param in an underlying input stream
+         */
+        CountingInputStream(final InputStream in)
+        {
+            super(in);
+        }
+
+        long getCount()
+        {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int c = super.read();
+            if (c >= 0) {
+                count += 1;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+            throws IOException
+        {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException
+        {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported()
+        {
+            return false;
+        }
+    }
+}
@@ -26,22 +26,68 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import javax.json.bind.Jsonb;
 import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
+import org.vx68k.bitbucket.client.bind.ModelReader;
+import org.vx68k.bitbucket.client.bind.ModelReaders;
 
 /**
  * Implementation class of {@link MessageBodyReader} that uses JSON-B
  * for deserialization of an object.
+ * Types that have a {@link ModelReader} are read by it, and the others are
+ * bound with a JSON binding object.
+ * A JSON binding object is built once and reused for every response, so
+ * that the metadata it resolves for each class is kept across responses.
  *
  * @param <T> a type of objects that are to be read
  */
 public class JsonbMessageBodyReader<T> implements MessageBodyReader<T>
 {
+    /**
+     * JSON binding object of the default configuration, which is shared by
+     * all the readers constructed without one.
+     */
+    private static final Jsonb DEFAULT_JSONB = JsonbBuilder.create();
+
     private final JsonbBuilder jsonbBuilder;
 
+    /**
+     * JSON binding object, or {@code null} if not built yet.
+     */
+    private volatile Jsonb jsonb;
+
+    /**
+     * Constructs a {@link JsonbMessageBodyReader} instance with the shared
+     * JSON binding object of the default configuration.
+     *
+     * @since 6.0
+     */
+    public JsonbMessageBodyReader()
+    {
+        this(DEFAULT_JSONB);
+    }
+
+    /**
+     * Constructs a {@link JsonbMessageBodyReader} instance with a JSON
+     * binding object.
+     *
+     * @param jsonb a thread-safe {@link Jsonb} object that is to be used
+     * @since 6.0
+     */
+    public JsonbMessageBodyReader(final Jsonb jsonb)
+    {
+        if (jsonb == null) {
+            throw new IllegalArgumentException("Jsonb is null");
+        }
+        this.jsonbBuilder = null;
+        this.jsonb = jsonb;
+    }
+
     /**
      * Constructs a {@link JsonbMessageBodyReader} instance.
+     * The JSON binding object will be built on the first response.
      *
      * @param jsonbBuilder a {@link JsonbBuilder} object that is to be used
      */
@@ -50,6 +96,41 @@ public class JsonbMessageBodyReader<T> implements MessageBodyReader<T>
         this.jsonbBuilder = jsonbBuilder;
     }
 
+    /**
+     * Returns the JSON binding object of the default configuration, which
+     * is shared by all the readers constructed without one.
+     *
+     * @return the shared {@link Jsonb} object
+     * @since 6.0
+     */
+    public static Jsonb getDefaultJsonb()
+    {
+        return DEFAULT_JSONB;
+    }
+
+    /**
+     * Returns the JSON binding object of this reader.
+     * It will be built on the first call if this reader was constructed
+     * with a {@link JsonbBuilder} object.
+     *
+     * @return the {@link Jsonb} object
+     * @since 6.0
+     */
+    public final Jsonb getJsonb()
+    {
+        Jsonb value = jsonb;
+        if (value == null) {
+            synchronized (this) {
+                value = jsonb;
+                if (value == null) {
+                    value = jsonbBuilder.build();
+                    jsonb = value;
+                }
+            }
+        }
+        return value;
+    }
+
     @Override
     public final boolean isReadable(Class<?> type, Type genericType,
         Annotation[] annotations, MediaType mediaType)
@@ -63,12 +144,21 @@ public class JsonbMessageBodyReader<T> implements MessageBodyReader<T>
         MultivaluedMap<String, String> headers, InputStream stream)
         throws IOException
     {
-        try (Jsonb jsonb = jsonbBuilder.build()) {
-            return jsonb.fromJson(stream, type);
+        Type runtimeType = type;
+        if (genericType != null) {
+            runtimeType = genericType;
         }
-        catch (final Exception e) {
+        try {
+            if (runtimeType == type) {
+                ModelReader<T> reader = ModelReaders.get(type);
+                if (reader != null) {
+                    return ModelReaders.read(reader, stream);
+                }
+            }
+            return getJsonb().fromJson(stream, runtimeType);
+        }
+        catch (final JsonbException e) {
             throw new IOException(e);
         }
     }
-
-}
\ No newline at end of file
+}
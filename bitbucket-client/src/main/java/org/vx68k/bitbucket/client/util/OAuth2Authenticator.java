@@ -25,10 +25,12 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.function.BiFunction;
 import javax.json.JsonObject;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
 
@@ -84,6 +86,19 @@ public class OAuth2Authenticator extends BearerAuthenticator
      */
     private String refreshToken = null;
 
+    /**
+     * Shared client for token requests, or {@code null} if a client shall be
+     * built for each request.
+     */
+    private transient Client client = null;
+
+    /**
+     * Function that posts token requests to targets, or {@code null} if
+     * token requests shall be posted directly.
+     */
+    private transient BiFunction<WebTarget, Entity<Form>, JsonObject>
+        tokenRequester = null;
+
     /**
      * Token refresh listeners.
      */
@@ -187,6 +202,38 @@ public class OAuth2Authenticator extends BearerAuthenticator
         this.refreshToken = refreshToken;
     }
 
+    /**
+     * Sets the shared client for token requests.
+     * If this value is {@code null}, a new client will be built for each
+     * token request.
+     *
+     * @param client a shared client, or {@code null}
+     */
+    public final void setClient(final Client client)
+    {
+        synchronized (this) {
+            this.client = client;
+        }
+    }
+
+    /**
+     * Sets the function that posts token requests.
+     * It is given a target of the token endpoint built with the shared
+     * client and a form entity, and returns the response object, so that
+     * token requests can be made through a transport that paces them.
+     *
+     * @param newValue a new value of the function, or {@code null} to post
+     * token requests directly
+     * @see #setClient(Client)
+     */
+    public final void setTokenRequester(
+        final BiFunction<WebTarget, Entity<Form>, JsonObject> newValue)
+    {
+        synchronized (this) {
+            tokenRequester = newValue;
+        }
+    }
+
     /**
      * Fires a token refreshed event.
      */
@@ -232,28 +279,49 @@ public class OAuth2Authenticator extends BearerAuthenticator
      */
     public final void requestAccessToken(final Entity<Form> entity)
     {
-        // Client is not {@link AutoCloseable}.
-        Client client = ClientBuilder.newClient()
-            .register(new JsonStructureMessageBodyReader())
-            .register(clientAuthenticator);
-        try {
-            JsonObject object = client.target(tokenEndpoint)
-                .request(MediaType.APPLICATION_JSON)
-                .post(entity, JsonObject.class);
-
-            setAccessToken(object.getString(ACCESS_TOKEN));
-            setRefreshToken(object.getString(REFRESH_TOKEN, null));
-
-            if (object.containsKey(EXPIRES_IN)) {
-                setExpiration(Instant.now()
-                    .plusSeconds(object.getInt(EXPIRES_IN)));
+        Client sharedClient;
+        BiFunction<WebTarget, Entity<Form>, JsonObject> requester;
+        synchronized (this) {
+            sharedClient = client;
+            requester = tokenRequester;
+        }
+
+        JsonObject object;
+        if (sharedClient != null) {
+            WebTarget target = sharedClient.target(tokenEndpoint)
+                .register(clientAuthenticator);
+            if (requester != null) {
+                object = requester.apply(target, entity);
             }
             else {
-                setExpiration(null);
+                object = target.request(MediaType.APPLICATION_JSON)
+                    .post(entity, JsonObject.class);
+            }
+        }
+        else {
+            // Client is not {@link AutoCloseable}.
+            Client newClient = ClientBuilder.newClient()
+                .register(new JsonStructureMessageBodyReader())
+                .register(clientAuthenticator);
+            try {
+                object = newClient.target(tokenEndpoint)
+                    .request(MediaType.APPLICATION_JSON)
+                    .post(entity, JsonObject.class);
+            }
+            finally {
+                newClient.close();
             }
         }
-        finally {
-            client.close();
+
+        setAccessToken(object.getString(ACCESS_TOKEN));
+        setRefreshToken(object.getString(REFRESH_TOKEN, null));
+
+        if (object.containsKey(EXPIRES_IN)) {
+            setExpiration(Instant.now()
+                .plusSeconds(object.getInt(EXPIRES_IN)));
+        }
+        else {
+            setExpiration(null);
         }
     }
 
@@ -0,0 +1,116 @@
+/*
+ * TransferEvent.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.util;
+
+import java.net.URI;
+import java.util.EventObject;
+
+/**
+ * Event which is fired when a response entity was read.
+ *
+ * @author Kaz Nishimura
+ * @since 6.0
+ */
+public class TransferEvent extends EventObject
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Request URI.
+     */
+    private final URI uri;
+
+    /**
+     * Content coding of the response entity.
+     */
+    private final String contentEncoding;
+
+    /**
+     * Number of bytes read from the wire.
+     */
+    private final long wireBytes;
+
+    /**
+     * Number of bytes after decoding.
+     */
+    private final long decodedBytes;
+
+    /**
+     * Initializes the event.
+     *
+     * @param source an event source
+     * @param uri the request URI, or {@code null} if unknown
+     * @param contentEncoding the content coding of the response entity, or
+     * {@code null} if not encoded
+     * @param wireBytes the number of bytes read from the wire
+     * @param decodedBytes the number of bytes after decoding
+     */
+    public TransferEvent(final Object source, final URI uri,
+        final String contentEncoding, final long wireBytes,
+        final long decodedBytes)
+    {
+        super(source);
+        this.uri = uri;
+        this.contentEncoding = contentEncoding;
+        this.wireBytes = wireBytes;
+        this.decodedBytes = decodedBytes;
+    }
+
+    /**
+     * Returns the request URI.
+     *
+     * @return the request URI, or {@code null} if unknown
+     */
+    public final URI getUri()
+    {
+        return uri;
+    }
+
+    /**
+     * Returns the content coding of the response entity.
+     *
+     * @return the content coding, or {@code null} if not encoded
+     */
+    public final String getContentEncoding()
+    {
+        return contentEncoding;
+    }
+
+    /**
+     * Returns the number of bytes read from the wire.
+     *
+     * @return the number of bytes read from the wire
+     */
+    public final long getWireBytes()
+    {
+        return wireBytes;
+    }
+
+    /**
+     * Returns the number of bytes after decoding.
+     *
+     * @return the number of bytes after decoding
+     */
+    public final long getDecodedBytes()
+    {
+        return decodedBytes;
+    }
+}
@@ -22,12 +22,32 @@ package org.vx68k.bitbucket.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.MediaType;
 import org.junit.jupiter.api.Test;
 import org.vx68k.bitbucket.BitbucketAccount;
 import org.vx68k.bitbucket.BitbucketIssue;
 import org.vx68k.bitbucket.BitbucketRepository;
 import org.vx68k.bitbucket.BitbucketUserAccount;
+import org.vx68k.bitbucket.client.internal.ClientRepository;
 
 /**
  * Unit tests for {@link BitbucketClient}.
@@ -173,4 +193,211 @@ class BitbucketClientTest
         BitbucketIssue issue1 = bitbucket.getIssue(REPOSITORY_FULL_NAME, 0);
         assertNull(issue1);
     }
+
+    /**
+     * Tests {@link BitbucketClient#getAll}.
+     */
+    @Test
+    void testGetAll1()
+    {
+        BitbucketClient bitbucket = new BitbucketClient();
+        BulkResult<String> result = bitbucket.getAll(
+            Arrays.asList("a", "b", "missing", "bad", "a"), (key) -> {
+                if (key.equals("bad")) {
+                    throw new IllegalArgumentException(key);
+                }
+                if (key.equals("missing")) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                return CompletableFuture.completedFuture(key.toUpperCase());
+            });
+        assertEquals(2, result.size());
+        assertEquals("A", result.get("a"));
+        assertEquals("B", result.get("b"));
+        assertNull(result.get("missing"));
+        assertEquals(1, result.getFailures().size());
+        assertTrue(result.getFailures().get("bad")
+            instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Tests {@link BitbucketClient#getAll} with a concurrency limit.
+     */
+    @Test
+    void testGetAll2()
+    {
+        BitbucketClient bitbucket = new BitbucketClient();
+        bitbucket.setBulkConcurrency(2);
+
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        BulkResult<Integer> result = bitbucket.getAll(
+            Arrays.asList("1", "2", "3", "4", "5", "6"),
+            (key) -> CompletableFuture.supplyAsync(() -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(),
+                    Math::max);
+                try {
+                    Thread.sleep(20);
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                return Integer.valueOf(key);
+            }));
+        assertEquals(6, result.size());
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    /**
+     * Tests {@link BitbucketClient#getRequestCoalescer}.
+     */
+    @Test
+    void testGetRequestCoalescer1()
+    {
+        BitbucketClient client1 = new BitbucketClient();
+        BitbucketClient client2 = new BitbucketClient();
+        assertNotSame(client1.getRequestCoalescer(),
+            client2.getRequestCoalescer());
+        assertNotSame(RequestCoalescer.getShared(),
+            client1.getRequestCoalescer());
+
+        client1.setRequestCoalescer(RequestCoalescer.getShared());
+        assertSame(RequestCoalescer.getShared(),
+            client1.getRequestCoalescer());
+        client1.setRequestCoalescer(null);
+        assertNotSame(RequestCoalescer.getShared(),
+            client1.getRequestCoalescer());
+    }
+
+    /**
+     * Tests that coalesced requests get copies of the resource.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    @Test
+    void testGetAsync1() throws IOException
+    {
+        byte[] body = ("{\"type\":\"repository\","
+            + "\"full_name\":\"example/test\"}")
+            .getBytes(StandardCharsets.UTF_8);
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server =
+            HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", (exchange) -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (BitbucketClient client = new BitbucketClient()) {
+            URI base = URI.create(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+            CompletableFuture<ClientRepository> first = client.getAsync(base,
+                null, ClientRepository.class).toCompletableFuture();
+            CompletableFuture<ClientRepository> second = client.getAsync(base,
+                null, ClientRepository.class).toCompletableFuture();
+            assertNotSame(first.join(), second.join());
+            assertEquals("example/test", first.join().getFullName());
+            assertEquals("example/test", second.join().getFullName());
+            assertEquals(1, requests.get());
+            assertEquals(1, client.getRequestCoalescer().getCoalescedCount());
+        }
+        finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests {@link BitbucketClient#getPageAsync(PageCursor, Class)}.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    @Test
+    void testGetPageAsync1() throws IOException
+    {
+        HttpServer server =
+            HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", (exchange) -> {
+            String query = exchange.getRequestURI().getQuery();
+            String next = "null";
+            if ("page=1".equals(query)) {
+                next = "\"http://127.0.0.1:"
+                    + server.getAddress().getPort() + "/?page=2\"";
+            }
+            byte[] body = ("{\"values\":[1,2,3],\"next\":" + next + "}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (BitbucketClient client = new BitbucketClient()) {
+            URI first = URI.create("http://127.0.0.1:"
+                + server.getAddress().getPort() + "/?page=1");
+            PageCursor cursor = new PageCursor(first, 1, 1, null);
+
+            Page<Integer> page1 = client.<Integer>getPageAsync(cursor,
+                Integer.class).toCompletableFuture().join();
+            assertEquals(Arrays.asList(2, 3), page1.getValues());
+            assertEquals(first.resolve("?page=2"), page1.getNext().getNext());
+            assertEquals(3, page1.getNext().getOffset());
+            assertEquals(0, page1.getNext().getSkip());
+
+            Page<Integer> page2 = client.<Integer>getPageAsync(
+                page1.getNext(), Integer.class).toCompletableFuture().join();
+            assertEquals(Arrays.asList(1, 2, 3), page2.getValues());
+            assertTrue(page2.getNext().isExhausted());
+            assertEquals(6, page2.getNext().getOffset());
+
+            Page<Integer> page3 = client.<Integer>getPageAsync(
+                page2.getNext(), Integer.class).toCompletableFuture().join();
+            assertTrue(page3.getValues().isEmpty());
+            assertTrue(page3.getNext().isExhausted());
+        }
+        finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Tests the serialization of {@link BitbucketClient} with a page length
+     * controller.
+     *
+     * @throws IOException if an I/O error occurred
+     * @throws ClassNotFoundException if a class was not found
+     */
+    @Test
+    void testSerialization1() throws IOException, ClassNotFoundException
+    {
+        BitbucketClient client = new BitbucketClient();
+        client.setPageLengthController(new PageLengthController());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(client);
+        }
+        BitbucketClient restored;
+        try (ObjectInputStream in = new ObjectInputStream(
+            new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (BitbucketClient) in.readObject();
+        }
+        assertNotNull(restored.getPageLengthController());
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * ChunkedArrayTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ChunkedArray}.
+ *
+ * @author Kaz Nishimura
+ */
+class ChunkedArrayTest
+{
+    /**
+     * Tests {@link ChunkedArray#add} and {@link ChunkedArray#get}.
+     */
+    @Test
+    void testGet1()
+    {
+        ChunkedArray<Integer> array = new ChunkedArray<>();
+        assertEquals(0, array.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(0));
+
+        int count = ChunkedArray.CHUNK_SIZE * 5 + 3;
+        for (int i = 0; i < count; i++) {
+            array.add(i);
+        }
+        assertEquals(count, array.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, array.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(-1));
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> array.get(count));
+    }
+}
@@ -0,0 +1,532 @@
+/*
+ * ClientTransportTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.JsonObject;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.client.util.JsonStructureMessageBodyReader;
+
+/**
+ * Unit tests for {@link ClientTransport}.
+ *
+ * @author Kaz Nishimura
+ */
+class ClientTransportTest
+{
+    private static final byte[] BODY =
+        "{\"type\":\"test\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private URI base;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    private final AtomicInteger entitiesSent = new AtomicInteger();
+
+    private final AtomicInteger throttled = new AtomicInteger();
+
+    private final AtomicInteger failing = new AtomicInteger();
+
+    private final AtomicInteger slow = new AtomicInteger();
+
+    private ClientTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", (exchange) -> {
+            int current = active.incrementAndGet();
+            maxActive.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(50);
+                exchange.getResponseHeaders()
+                    .add("Content-Type", MediaType.APPLICATION_JSON);
+                exchange.sendResponseHeaders(200, BODY.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(BODY);
+                }
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                active.decrementAndGet();
+            }
+        });
+        server.createContext("/etag", (exchange) -> {
+            String entityTag = "\"v1\"";
+            if (entityTag.equals(
+                exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            entitiesSent.incrementAndGet();
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.getResponseHeaders().add("ETag", entityTag);
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.createContext("/throttled", (exchange) -> {
+            if (throttled.getAndIncrement() % 2 == 0) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                exchange.sendResponseHeaders(429, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.createContext("/failing", (exchange) -> {
+            if (failing.getAndIncrement() % 2 == 0) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.createContext("/slow", (exchange) -> {
+            try {
+                if (slow.getAndIncrement() == 0) {
+                    Thread.sleep(2000);
+                }
+                exchange.getResponseHeaders()
+                    .add("Content-Type", MediaType.APPLICATION_JSON);
+                exchange.sendResponseHeaders(200, BODY.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(BODY);
+                }
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.createContext("/missing", (exchange) -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        base = URI.create(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        transport = new ClientTransport(ClientBuilder.newBuilder()
+            .register(JsonStructureMessageBodyReader.class));
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        transport.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests {@link ClientTransport#getClient()}.
+     */
+    @Test
+    void testGetClient1()
+    {
+        assertSame(transport.getClient(), transport.getClient());
+    }
+
+    /**
+     * Tests {@link ClientTransport#close()}.
+     */
+    @Test
+    void testClose1()
+    {
+        transport.getClient();
+        transport.close();
+        assertTrue(transport.isClosed());
+        assertThrows(IllegalStateException.class, () -> transport.target(base));
+    }
+
+    /**
+     * Tests {@link ClientTransport#setMaxConnections(String, int)}.
+     */
+    @Test
+    void testMaxConnections1()
+    {
+        assertEquals(ClientTransport.DEFAULT_MAX_CONNECTIONS_PER_HOST,
+            transport.getMaxConnections("example.org"));
+        transport.setMaxConnections("example.org", 2);
+        transport.setMaxConnectionsPerHost(4);
+        assertEquals(2, transport.getMaxConnections("example.org"));
+        assertEquals(4, transport.getMaxConnections("example.com"));
+    }
+
+    /**
+     * Tests {@link ClientTransport#get} with a per-host limit.
+     */
+    @Test
+    void testGet1() throws Exception
+    {
+        transport.setMaxConnections("127.0.0.1", 2);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<JsonObject>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> transport.get(
+                    transport.target(base), JsonObject.class,
+                    MediaType.APPLICATION_JSON_TYPE)));
+            }
+            for (Future<JsonObject> result : results) {
+                assertEquals("test", result.get().getString("type"));
+            }
+        }
+        finally {
+            callers.shutdownNow();
+        }
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    /**
+     * Tests {@link ClientTransport#getAsync} with a per-host limit.
+     */
+    @Test
+    void testGetAsync1()
+    {
+        transport.setMaxConnections("127.0.0.1", 2);
+
+        List<CompletableFuture<JsonObject>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            CompletionStage<JsonObject> result = transport.getAsync(
+                transport.target(base), JsonObject.class,
+                MediaType.APPLICATION_JSON_TYPE);
+            results.add(result.toCompletableFuture());
+        }
+        for (CompletableFuture<JsonObject> result : results) {
+            assertEquals("test", result.join().getString("type"));
+        }
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    /**
+     * Tests that queued tasks that release their permits at once do not
+     * nest on the stack.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void testHostPermits1() throws InterruptedException
+    {
+        ClientTransport.HostPermits permits =
+            new ClientTransport.HostPermits(1, () -> executor);
+        permits.acquire();
+
+        int count = 10000;
+        CountDownLatch done = new CountDownLatch(count);
+        AtomicInteger maxDepth = new AtomicInteger();
+        for (int i = 0; i < count; i++) {
+            permits.acquireAsync(() -> {
+                maxDepth.accumulateAndGet(
+                    Thread.currentThread().getStackTrace().length, Math::max);
+                permits.release();
+                done.countDown();
+            });
+        }
+        permits.release();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(maxDepth.get() < 100);
+    }
+
+    /**
+     * Tests that blocked threads and queued tasks are served in their order
+     * of arrival.
+     *
+     * @throws Exception if an exception occurred
+     */
+    @Test
+    void testHostPermits2() throws Exception
+    {
+        ClientTransport.HostPermits permits =
+            new ClientTransport.HostPermits(1, () -> executor);
+        permits.acquire();
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Future<?> blocked = executor.submit(() -> {
+            permits.acquire();
+            order.add("sync");
+            permits.release();
+            return null;
+        });
+        Thread.sleep(100);
+        CountDownLatch done = new CountDownLatch(1);
+        permits.acquireAsync(() -> {
+            order.add("async");
+            permits.release();
+            done.countDown();
+        });
+
+        permits.release();
+        blocked.get(10, TimeUnit.SECONDS);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("sync", "async"), order);
+    }
+
+    /**
+     * Tests {@link ClientTransport#get} with conditional requests.
+     */
+    @Test
+    void testGetConditional1()
+    {
+        ConditionalCache cache = new ConditionalCache();
+        transport.setConditionalCache(cache);
+
+        URI uri = base.resolve("/etag");
+        JsonObject first = transport.get(transport.target(uri),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE);
+        JsonObject second = transport.get(transport.target(uri),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE);
+        JsonObject third = transport.getAsync(transport.target(uri),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE)
+            .toCompletableFuture().join();
+        assertEquals(first, second);
+        assertEquals(first, third);
+        assertEquals(1, entitiesSent.get());
+        assertEquals(2, cache.getNotModifiedCount());
+
+        byte[] content = transport.get(transport.target(uri), byte[].class,
+            MediaType.APPLICATION_JSON_TYPE);
+        content[0] = 0;
+        assertArrayEquals(BODY, transport.get(transport.target(uri),
+            byte[].class, MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    /**
+     * Tests that conditional requests are not shared between credentials.
+     */
+    @Test
+    void testGetConditional3()
+    {
+        ConditionalCache cache = new ConditionalCache();
+        transport.setConditionalCache(cache);
+
+        URI uri = base.resolve("/etag");
+        transport.get(authorized(uri, "Bearer a"), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE);
+        transport.get(authorized(uri, "Bearer b"), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(2, entitiesSent.get());
+        assertEquals(0, cache.getNotModifiedCount());
+
+        transport.get(authorized(uri, "Bearer a"), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(2, entitiesSent.get());
+        assertEquals(1, cache.getNotModifiedCount());
+    }
+
+    /**
+     * Tests {@link ClientTransport#get} with conditional requests to a
+     * missing resource.
+     */
+    @Test
+    void testGetConditional2()
+    {
+        transport.setConditionalCache(new ConditionalCache());
+
+        URI uri = base.resolve("/missing");
+        assertThrows(NotFoundException.class, () -> transport.get(
+            transport.target(uri), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    /**
+     * Returns a target whose requests have an {@code Authorization} header.
+     *
+     * @param uri a URI
+     * @param authorization a value of the {@code Authorization} header
+     * @return a target
+     */
+    private WebTarget authorized(final URI uri, final String authorization)
+    {
+        return transport.target(uri).register(
+            (ClientRequestFilter) (context) -> context.getHeaders()
+                .add(HttpHeaders.AUTHORIZATION, authorization));
+    }
+
+    /**
+     * Tests {@link ClientTransport#get} with a throttled response.
+     */
+    @Test
+    void testGetThrottled1()
+    {
+        URI uri = base.resolve("/throttled");
+        JsonObject json = transport.get(RequestPriority.BACKGROUND,
+            transport.target(uri), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE);
+        assertEquals("test", json.getString("type"));
+        assertEquals(2, throttled.get());
+        assertEquals(1, transport.getRateLimiter().getThrottledCount());
+
+        transport.setThrottleRetries(0);
+        assertThrows(ClientErrorException.class, () -> transport.get(
+            transport.target(uri), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    /**
+     * Tests {@link ClientTransport#getAsync} with a throttled response.
+     */
+    @Test
+    void testGetAsyncThrottled1()
+    {
+        URI uri = base.resolve("/throttled");
+        JsonObject json = transport.getAsync(transport.target(uri),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE)
+            .toCompletableFuture().join();
+        assertEquals("test", json.getString("type"));
+        assertEquals(2, throttled.get());
+    }
+
+    /**
+     * Tests {@link ClientTransport#get} with a retry policy.
+     */
+    @Test
+    void testGetRetrying1()
+    {
+        URI uri = base.resolve("/failing");
+        assertThrows(ServiceUnavailableException.class, () -> transport.get(
+            transport.target(uri), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE));
+
+        RetryPolicy policy = new RetryPolicy();
+        policy.setInitialDelay(10);
+        transport.setRetryPolicy(policy);
+        failing.set(0);
+        JsonObject json = transport.get(transport.target(uri),
+            JsonObject.class, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals("test", json.getString("type"));
+        assertEquals(1, policy.getRetryCount());
+
+        json = transport.getAsync(transport.target(uri), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE).toCompletableFuture().join();
+        assertEquals("test", json.getString("type"));
+        assertEquals(2, policy.getRetryCount());
+
+        assertThrows(NotFoundException.class, () -> transport.get(
+            transport.target(base.resolve("/missing")), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE));
+        assertEquals(2, policy.getRetryCount());
+    }
+
+    /**
+     * Tests {@link ClientTransport#get} with hedging.
+     */
+    @Test
+    void testGetHedged1()
+    {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setHedgePercentile(0.5);
+        transport.setRetryPolicy(policy);
+        for (int i = 0; i < 20; i++) {
+            transport.get(transport.target(base.resolve("/etag")),
+                JsonObject.class, MediaType.APPLICATION_JSON_TYPE);
+        }
+        assertTrue(policy.getHedgeDelay() >= 0);
+
+        long start = System.nanoTime();
+        JsonObject json = transport.get(transport.target(
+            base.resolve("/slow")), JsonObject.class,
+            MediaType.APPLICATION_JSON_TYPE);
+        long elapsed = System.nanoTime() - start;
+        assertEquals("test", json.getString("type"));
+        assertEquals(1, policy.getHedgeCount());
+        assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(1500));
+    }
+
+    /**
+     * Tests that the latency for hedging excludes the wait for a grant.
+     */
+    @Test
+    void testGetHedged2()
+    {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setHedgePercentile(0.99);
+        transport.setRetryPolicy(policy);
+        transport.getRateLimiter().pause(500);
+        List<CompletableFuture<JsonObject>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(transport.getAsync(
+                transport.target(base.resolve("/etag")), JsonObject.class,
+                MediaType.APPLICATION_JSON_TYPE).toCompletableFuture());
+        }
+        results.forEach(CompletableFuture::join);
+        long hedgeDelay = policy.getHedgeDelay();
+        assertTrue(hedgeDelay >= 0 && hedgeDelay < 500);
+    }
+}
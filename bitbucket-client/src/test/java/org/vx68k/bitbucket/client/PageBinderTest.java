@@ -0,0 +1,143 @@
+/*
+ * PageBinderTest.java
+ * Copyright (C) 2018-2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.BitbucketIssue;
+import org.vx68k.bitbucket.client.internal.ClientIssue;
+import org.vx68k.bitbucket.client.internal.ClientPage;
+
+/**
+ * Unit tests for {@link PageBinder}.
+ *
+ * @author Kaz Nishimura
+ */
+class PageBinderTest
+{
+    private static byte[] toBytes(final String json)
+    {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tests {@link PageBinder#bind(byte[])}.
+     */
+    @Test
+    void testBind1()
+    {
+        PageBinder<Integer> binder = new PageBinder<>(Integer.class);
+        ClientPage<Integer> page = binder.bind(toBytes("{\"size\":5,"
+            + "\"page\":1,\"pagelen\":3,\"values\":[1,2,3],"
+            + "\"next\":\"https://example.com/?page=2\"}"));
+
+        assertEquals(Integer.valueOf(5), page.getSize());
+        assertEquals(Integer.valueOf(1), page.getPage());
+        assertEquals(Integer.valueOf(3), page.getPagelen());
+        assertEquals(Arrays.asList(1, 2, 3), page.getValues());
+        assertEquals("https://example.com/?page=2", page.getNext());
+    }
+
+    /**
+     * Tests {@link PageBinder#bind(byte[])} with a page without optional
+     * fields.
+     */
+    @Test
+    void testBind2()
+    {
+        PageBinder<Integer> binder = new PageBinder<>(Integer.class);
+        ClientPage<Integer> page = binder.bind(toBytes("{\"values\":[]}"));
+
+        assertNull(page.getSize());
+        assertNull(page.getPage());
+        assertNull(page.getNext());
+        assertTrue(page.getValues().isEmpty());
+    }
+
+    /**
+     * Tests {@link PageBinder#bind(byte[])} with objects.
+     */
+    @Test
+    void testBind3()
+    {
+        PageBinder<BitbucketIssue> binder =
+            new PageBinder<>(ClientIssue.class);
+        ClientPage<BitbucketIssue> page = binder.bind(toBytes("{\"values\":"
+            + "[{\"type\":\"issue\",\"id\":1,\"title\":\"First\"},"
+            + "{\"type\":\"issue\",\"id\":2,\"title\":\"Second\"}]}"));
+
+        assertEquals(2, page.getValues().size());
+        BitbucketIssue issue = page.getValues().get(1);
+        assertTrue(issue instanceof ClientIssue);
+        assertEquals(2, issue.getId());
+        assertEquals("Second", issue.getTitle());
+    }
+
+    /**
+     * Tests {@link PageBinder#bind(byte[])} in the lazy content mode with
+     * multi-byte characters before and in rendered texts.
+     */
+    @Test
+    void testBind4()
+    {
+        byte[] content = toBytes("{\"values\":["
+            + "{\"type\":\"issue\",\"id\":1,\"title\":\"\u65e5\u672c\","
+            + "\"content\":{\"type\":\"rendered\",\"markup\":\"markdown\","
+            + "\"raw\":\"caf\u00e9 \ud83d\ude00 \\\"}\\\"\","
+            + "\"html\":\"<p>caf&eacute;</p>\"}},"
+            + "{\"type\":\"issue\",\"id\":2,\"content\":null},"
+            + "{\"type\":\"issue\",\"id\":3,\"title\":\"\ud83d\ude00\","
+            + "\"content\":{\"raw\":\"\u00e9\"}}]}");
+        PageBinder<BitbucketIssue> eagerBinder =
+            new PageBinder<>(ClientIssue.class);
+        PageBinder<BitbucketIssue> lazyBinder =
+            new PageBinder<>(ClientIssue.class);
+        lazyBinder.setLazyContent(true);
+        assertTrue(lazyBinder.isLazyContent());
+
+        ClientPage<BitbucketIssue> eager = eagerBinder.bind(content);
+        ClientPage<BitbucketIssue> lazy = lazyBinder.bind(content);
+
+        assertEquals(3, lazy.getValues().size());
+        assertEquals("caf\u00e9 \ud83d\ude00 \"}\"",
+            lazy.getValues().get(0).getContent().getRaw());
+        assertNull(lazy.getValues().get(1).getContent());
+        assertEquals("\ud83d\ude00", lazy.getValues().get(2).getTitle());
+        for (int i = 0; i < 3; i++) {
+            BitbucketIssue expected = eager.getValues().get(i);
+            BitbucketIssue actual = lazy.getValues().get(i);
+            assertEquals(expected.getTitle(), actual.getTitle());
+            if (expected.getContent() != null) {
+                assertEquals(expected.getContent().getMarkup(),
+                    actual.getContent().getMarkup());
+                assertEquals(expected.getContent().getRaw(),
+                    actual.getContent().getRaw());
+                assertEquals(expected.getContent().getHtml(),
+                    actual.getContent().getHtml());
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * PageCursorTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PageCursor}.
+ *
+ * @author Kaz Nishimura
+ */
+class PageCursorTest
+{
+    private static final URI FIRST = URI.create("https://api.bitbucket.org/"
+        + "2.0/repositories/a/b/issues?q=state%3D%22open%22&pagelen=50");
+
+    /**
+     * Tests {@link PageCursor#start}.
+     */
+    @Test
+    void testStart1()
+    {
+        PageCursor cursor = PageCursor.start(FIRST);
+        assertEquals(FIRST, cursor.getNext());
+        assertEquals(0, cursor.getOffset());
+        assertEquals(0, cursor.getSkip());
+        assertEquals("state=\"open\"", cursor.getFilter());
+        assertFalse(cursor.isExhausted());
+
+        assertNull(PageCursor.start(
+            URI.create("https://api.bitbucket.org/2.0/teams")).getFilter());
+    }
+
+    /**
+     * Tests {@link PageCursor#PageCursor} with invalid values.
+     */
+    @Test
+    void testPageCursor1()
+    {
+        assertThrows(IllegalArgumentException.class,
+            () -> new PageCursor(FIRST, -1, 0, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new PageCursor(FIRST, 1, 2, null));
+        assertTrue(new PageCursor(null, 10, 0, null).isExhausted());
+    }
+
+    /**
+     * Tests serialization of {@link PageCursor}.
+     *
+     * @throws IOException if an I/O error occurred
+     * @throws ClassNotFoundException if a class was not found
+     */
+    @Test
+    void testSerialization1() throws IOException, ClassNotFoundException
+    {
+        PageCursor cursor = new PageCursor(FIRST, 120, 20, "state=\"open\"");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(cursor);
+        }
+        Object restored;
+        try (ObjectInputStream in = new ObjectInputStream(
+            new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = in.readObject();
+        }
+        assertEquals(cursor, restored);
+        assertEquals(cursor.hashCode(), restored.hashCode());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * PageLengthControllerTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PageLengthController}.
+ *
+ * @author Kaz Nishimura
+ */
+class PageLengthControllerTest
+{
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Tests the initial page length.
+     */
+    @Test
+    void testGetPageLength1()
+    {
+        PageLengthController controller = new PageLengthController();
+        assertEquals(PageLengthController.MIN_PAGE_LENGTH,
+            controller.getPageLength());
+    }
+
+    /**
+     * Tests {@link PageLengthController#record} with fast pages.
+     */
+    @Test
+    void testRecord1()
+    {
+        PageLengthController controller = new PageLengthController();
+        controller.record(10, 10, 10000, 100 * MILLIS);
+        assertEquals(20, controller.getPageLength());
+        controller.record(20, 20, 20000, 110 * MILLIS);
+        assertEquals(40, controller.getPageLength());
+        controller.record(40, 40, 40000, 120 * MILLIS);
+        assertEquals(80, controller.getPageLength());
+        controller.record(80, 80, 80000, 130 * MILLIS);
+        assertEquals(100, controller.getPageLength());
+        controller.record(100, 100, 100000, 140 * MILLIS);
+        assertEquals(100, controller.getPageLength());
+    }
+
+    /**
+     * Tests {@link PageLengthController#record} with pages that are slower
+     * per value when longer.
+     */
+    @Test
+    void testRecord2()
+    {
+        PageLengthController controller = new PageLengthController();
+        controller.record(10, 10, 10000, 100 * MILLIS);
+        assertEquals(20, controller.getPageLength());
+        controller.record(20, 20, 20000, 300 * MILLIS);
+        assertEquals(10, controller.getPageLength());
+        // Only the page lengths shorter than the slower one are tried.
+        controller.record(10, 10, 10000, 100 * MILLIS);
+        assertEquals(15, controller.getPageLength());
+        controller.record(15, 15, 15000, 100 * MILLIS);
+        assertEquals(17, controller.getPageLength());
+
+        controller.reset();
+        controller.record(10, 10, 10000, 100 * MILLIS);
+        assertEquals(20, controller.getPageLength());
+    }
+
+    /**
+     * Tests {@link PageLengthController#record} with pages over the limits.
+     */
+    @Test
+    void testRecord3()
+    {
+        PageLengthController controller = new PageLengthController();
+        controller.setMaxResponseSize(100000);
+        controller.record(10, 10, 10000, 10 * MILLIS);
+        controller.record(20, 20, 20000, 10 * MILLIS);
+        assertEquals(40, controller.getPageLength());
+        // The longer page would be too large.
+        controller.record(40, 40, 40000, 10 * MILLIS);
+        assertEquals(40, controller.getPageLength());
+
+        controller.record(40, 40, 200000, 10 * MILLIS);
+        assertEquals(20, controller.getPageLength());
+        controller.record(20, 20, 10000, 6000 * MILLIS);
+        assertEquals(10, controller.getPageLength());
+    }
+
+    /**
+     * Tests {@link PageLengthController#record} with pages that are not
+     * full or have other page lengths.
+     */
+    @Test
+    void testRecord4()
+    {
+        PageLengthController controller = new PageLengthController();
+        controller.record(10, 5, 5000, 10 * MILLIS);
+        assertEquals(10, controller.getPageLength());
+        controller.record(50, 50, 5000, 10 * MILLIS);
+        assertEquals(10, controller.getPageLength());
+    }
+
+    /**
+     * Tests {@link PageLengthController#setMaxPageLength}.
+     */
+    @Test
+    void testSetMaxPageLength1()
+    {
+        PageLengthController controller = new PageLengthController();
+        controller.setMaxPageLength(30);
+        controller.record(10, 10, 10000, 10 * MILLIS);
+        controller.record(20, 20, 20000, 10 * MILLIS);
+        assertEquals(30, controller.getPageLength());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> controller.setMaxPageLength(5));
+    }
+
+    /**
+     * Tests the serialization of {@link PageLengthController}.
+     *
+     * @throws IOException if an I/O error occurred
+     * @throws ClassNotFoundException if a class was not found
+     */
+    @Test
+    void testSerialization1() throws IOException, ClassNotFoundException
+    {
+        PageLengthController controller = new PageLengthController();
+        controller.setMaxPageLength(50);
+        controller.record(10, 10, 10000, 100 * MILLIS);
+        assertEquals(20, controller.getPageLength());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(controller);
+        }
+        PageLengthController restored;
+        try (ObjectInputStream in = new ObjectInputStream(
+            new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (PageLengthController) in.readObject();
+        }
+        assertEquals(50, restored.getMaxPageLength());
+        assertEquals(PageLengthController.MIN_PAGE_LENGTH,
+            restored.getPageLength());
+        restored.record(10, 10, 10000, 100 * MILLIS);
+        assertEquals(20, restored.getPageLength());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * PageSpliteratorTest.java
+ * Copyright (C) 2018-2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.client.util.JsonStructureMessageBodyReader;
+
+/**
+ * Unit tests for {@link PageSpliterator}.
+ *
+ * @author Kaz Nishimura
+ */
+class PageSpliteratorTest
+{
+    /**
+     * Number of the pages served by the local server.
+     */
+    private static final int PAGES = 3;
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private URI base;
+
+    private ClientTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/pages", (exchange) -> {
+            String query = exchange.getRequestURI().getQuery();
+            int page = Integer.parseInt(
+                query.substring(query.indexOf('=') + 1));
+            String next = "null";
+            if (page < PAGES) {
+                next = "\"" + base.resolve("pages?page=" + (page + 1)) + "\"";
+            }
+            byte[] body = String.format(
+                "{\"size\":%d,\"values\":[%d,%d],\"next\":%s}",
+                2 * PAGES, 2 * page - 2, 2 * page - 1, next)
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        base = URI.create(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        transport = new ClientTransport(ClientBuilder.newBuilder()
+            .register(JsonStructureMessageBodyReader.class));
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        transport.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests {@link PageSpliterator#tryAdvance}.
+     */
+    @Test
+    void testTryAdvance1()
+    {
+        PageSpliterator<Integer> spliterator = new PageSpliterator<>(
+            transport, base.resolve("pages?page=1"), Integer.class);
+
+        List<Integer> values = StreamSupport.stream(spliterator, false)
+            .collect(Collectors.toList());
+        assertEquals(IntStream.range(0, 2 * PAGES).boxed()
+            .collect(Collectors.toList()), values);
+        assertFalse(spliterator.tryAdvance((value) -> { }));
+        assertEquals(0, spliterator.estimateSize());
+    }
+
+    /**
+     * Tests {@link PageSpliterator#characteristics}.
+     */
+    @Test
+    void testCharacteristics1()
+    {
+        PageSpliterator<Integer> spliterator = new PageSpliterator<>(
+            transport, base.resolve("pages?page=1"), Integer.class);
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+
+        spliterator.fetchNext();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(2 * PAGES, spliterator.estimateSize());
+
+        assertTrue(spliterator.tryAdvance((value) -> { }));
+        assertEquals(2 * PAGES - 1, spliterator.estimateSize());
+        assertEquals(2 * PAGES, StreamSupport.stream(spliterator, false)
+            .count() + 1);
+    }
+
+    /**
+     * Tests {@link PageSpliterator#trySplit}.
+     */
+    @Test
+    void testTrySplit1()
+    {
+        PageSpliterator<Integer> spliterator = new PageSpliterator<>(
+            transport, base.resolve("pages?page=1"), Integer.class);
+        assertNull(spliterator.trySplit());
+    }
+
+    /**
+     * Tests {@link PageSpliterator} resumed from a cursor.
+     */
+    @Test
+    void testTryAdvance2()
+    {
+        PageSpliterator<Integer> spliterator = new PageSpliterator<>(
+            transport, new PageCursor(base.resolve("pages?page=2"), 3, 1,
+                null), Integer.class, null);
+        spliterator.fetchNext();
+        assertEquals(2 * PAGES - 3, spliterator.estimateSize());
+
+        List<Integer> values = StreamSupport.stream(spliterator, false)
+            .collect(Collectors.toList());
+        assertEquals(IntStream.range(3, 2 * PAGES).boxed()
+            .collect(Collectors.toList()), values);
+    }
+}
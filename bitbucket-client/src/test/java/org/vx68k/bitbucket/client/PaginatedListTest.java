@@ -20,11 +20,23 @@
 
 package org.vx68k.bitbucket.client;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,21 +58,99 @@ class PaginatedListTest
         URI.create("https://api.bitbucket.org/"
             + "2.0/repositories/vx68k/bitbucket-api-client.java/issues");
 
+    /**
+     * Number of the pages served by the local server.
+     */
+    private static final int PAGES = 5;
+
     private ClientBuilder clientBuilder;
 
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private URI base;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    private ClientTransport transport;
+
     @BeforeEach
-    void setUp()
+    void setUp() throws IOException
     {
         clientBuilder = ClientBuilder.newBuilder()
             .register(JsonStructureMessageBodyReader.class);
+
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/pages", (exchange) -> {
+            requests.incrementAndGet();
+            int current = active.incrementAndGet();
+            maxActive.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(50);
+                String query = exchange.getRequestURI().getQuery();
+                int page = Integer.parseInt(
+                    query.substring(query.indexOf('=') + 1));
+                String next = "null";
+                if (page < PAGES) {
+                    next = "\"" + base.resolve("pages?page=" + (page + 1))
+                        + "\"";
+                }
+                byte[] body = String.format("{\"size\":%d,\"page\":%d,"
+                    + "\"pagelen\":2,\"values\":[%d,%d],\"next\":%s}",
+                    2 * PAGES, page, 2 * page - 2, 2 * page - 1, next)
+                    .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders()
+                    .add("Content-Type", MediaType.APPLICATION_JSON);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                active.decrementAndGet();
+            }
+        });
+        server.start();
+        base = URI.create(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        transport = new ClientTransport(clientBuilder);
     }
 
     @AfterEach
     void tearDown()
     {
+        transport.close();
+        server.stop(0);
+        executor.shutdownNow();
         clientBuilder = null;
     }
 
+    /**
+     * Waits until the local server has received a number of requests.
+     *
+     * @param count a number of requests
+     * @throws InterruptedException if interrupted
+     */
+    private void awaitRequests(final int count) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests.get() < count
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
     /**
      * Tests {@link PaginatedList#get(int)}.
      */
@@ -85,4 +175,216 @@ class PaginatedListTest
 
         assertTrue(issues.size() > 0);
     }
+
+    /**
+     * Tests {@link PaginatedList#get(int)} without read-ahead.
+     */
+    @Test
+    void testGetLocal1()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+
+        assertEquals(0, list.getReadAhead());
+        assertEquals(Integer.valueOf(2 * PAGES - 1), list.get(2 * PAGES - 1));
+        assertEquals(PAGES, list.getPageCount());
+        assertEquals(PAGES, list.getBlockedCount());
+        assertEquals(PAGES, requests.get());
+    }
+
+    /**
+     * Tests {@link PaginatedList#setReadAhead(int)}.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    void testSetReadAhead1() throws InterruptedException
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+        list.setReadAhead(2);
+
+        awaitRequests(2);
+        Thread.sleep(100);
+        // Only the pages within the read-ahead limit are requested.
+        assertEquals(2, requests.get());
+
+        assertEquals(Integer.valueOf(0), list.get(0));
+        awaitRequests(3);
+        Thread.sleep(100);
+        assertEquals(3, requests.get());
+
+        List<Integer> values = new ArrayList<>(list);
+        assertEquals(2 * PAGES, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(Integer.valueOf(i), values.get(i));
+        }
+        assertEquals(PAGES, list.getPageCount());
+        assertEquals(PAGES, requests.get());
+        assertTrue(list.getBlockedCount() < PAGES);
+    }
+
+    /**
+     * Tests {@link PaginatedList#setReadAhead(int)} with a negative value.
+     */
+    @Test
+    void testSetReadAhead2()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> list.setReadAhead(-1));
+    }
+
+    /**
+     * Tests {@link PaginatedList#setFanOut(int)}.
+     */
+    @Test
+    void testSetFanOut1()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+        list.setFanOut(2);
+
+        assertEquals(Integer.valueOf(0), list.get(0));
+        assertEquals(1, requests.get());
+
+        List<Integer> values = new ArrayList<>(list);
+        assertEquals(2 * PAGES, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(Integer.valueOf(i), values.get(i));
+        }
+        assertEquals(PAGES, requests.get());
+        assertEquals(2, maxActive.get());
+        // The remaining pages are waited for at once.
+        assertEquals(2, list.getBlockedCount());
+    }
+
+    /**
+     * Tests {@link PaginatedList#setFanOut(int)} with read-ahead.
+     */
+    @Test
+    void testSetFanOut3()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+        list.setReadAhead(1);
+        list.setFanOut(4);
+
+        List<Integer> values = new ArrayList<>(list);
+        assertEquals(2 * PAGES, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(Integer.valueOf(i), values.get(i));
+        }
+        // Fan-out takes over the page read ahead without requesting it again.
+        assertEquals(PAGES, requests.get());
+        assertTrue(maxActive.get() > 1);
+    }
+
+    /**
+     * Tests {@link PaginatedList#setFanOut(int)} with a negative value.
+     */
+    @Test
+    void testSetFanOut2()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> list.setFanOut(-1));
+    }
+
+    /**
+     * Tests {@link PaginatedList#getCursor(int)}.
+     */
+    @Test
+    void testGetCursor1()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+
+        PageCursor cursor = list.getCursor(3);
+        assertEquals(3, cursor.getOffset());
+        assertEquals(1, cursor.getSkip());
+        assertEquals(base.resolve("pages?page=2"), cursor.getNext());
+        assertEquals(2, requests.get());
+
+        PageCursor end = list.getCursor(2 * PAGES);
+        assertTrue(end.isExhausted());
+        assertEquals(2 * PAGES, end.getOffset());
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> list.getCursor(2 * PAGES + 1));
+    }
+
+    /**
+     * Tests {@link PaginatedList#PaginatedList(ClientTransport, PageCursor,
+     * Class)}.
+     */
+    @Test
+    void testPaginatedList1()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            new PageCursor(base.resolve("pages?page=2"), 3, 1, null),
+            Integer.class);
+
+        assertEquals(2 * PAGES - 3, list.size());
+        assertEquals(Integer.valueOf(3), list.get(0));
+        assertEquals(Integer.valueOf(2 * PAGES - 1),
+            list.get(2 * PAGES - 4));
+        assertEquals(PAGES - 1, requests.get());
+
+        PageCursor cursor = list.getCursor(1);
+        assertEquals(4, cursor.getOffset());
+        assertEquals(0, cursor.getSkip());
+        assertEquals(base.resolve("pages?page=3"), cursor.getNext());
+    }
+
+    /**
+     * Tests {@link PaginatedList#setMaxCachedPages(int)}.
+     */
+    @Test
+    void testSetMaxCachedPages1()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+        list.setMaxCachedPages(2);
+
+        for (int i = 0; i < 2 * PAGES; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+        assertEquals(PAGES, requests.get());
+        assertEquals(0, list.getRefetchCount());
+
+        // Pages 4 and 5 are cached.
+        assertEquals(Integer.valueOf(7), list.get(7));
+        assertEquals(PAGES, requests.get());
+        assertEquals(Integer.valueOf(1), list.get(1));
+        assertEquals(Integer.valueOf(0), list.get(0));
+        assertEquals(PAGES + 1, requests.get());
+        assertEquals(1, list.getRefetchCount());
+        // Page 5 was evicted as page 4 was used more recently.
+        assertEquals(Integer.valueOf(6), list.get(6));
+        assertEquals(PAGES + 1, requests.get());
+        assertEquals(Integer.valueOf(9), list.get(9));
+        assertEquals(PAGES + 2, requests.get());
+        assertEquals(2 * PAGES, list.size());
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> list.get(2 * PAGES));
+    }
+
+    /**
+     * Tests {@link PaginatedList#setMaxCachedPages(int)} after pages are
+     * added.
+     */
+    @Test
+    void testSetMaxCachedPages2()
+    {
+        PaginatedList<Integer> list = new PaginatedList<>(transport,
+            base.resolve("pages?page=1"), Integer.class);
+        list.get(0);
+
+        assertThrows(IllegalStateException.class,
+            () -> list.setMaxCachedPages(2));
+    }
 }
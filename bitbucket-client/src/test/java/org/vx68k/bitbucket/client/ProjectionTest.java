@@ -0,0 +1,153 @@
+/*
+ * ProjectionTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.json.bind.annotation.JsonbProperty;
+import javax.ws.rs.core.MediaType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Projection}.
+ *
+ * @author Kaz Nishimura
+ */
+class ProjectionTest
+{
+    private HttpServer server;
+
+    private URI base;
+
+    private final Map<String, String> queries = new ConcurrentHashMap<>();
+
+    private BitbucketClient client;
+
+    /**
+     * Lightweight view of a repository.
+     */
+    public static class RepositoryView
+    {
+        @JsonbProperty("full_name")
+        public String fullName;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", (exchange) -> {
+            URI uri = exchange.getRequestURI();
+            queries.put(uri.getPath(), URLDecoder.decode(
+                String.valueOf(uri.getRawQuery()), "UTF-8"));
+            String body = "{\"type\":\"repository\",\"full_name\":\"a/b\"}";
+            if (uri.getPath().equals("/list")) {
+                body = "{\"size\":1,\"values\":[" + body + "]}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        base = URI.create(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        client = new BitbucketClient();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        client.close();
+        server.stop(0);
+    }
+
+    /**
+     * Tests {@link Projection#fields}.
+     */
+    @Test
+    void testFields1()
+    {
+        Projection projection =
+            Projection.fields("uuid", "full_name", "owner.uuid", "uuid");
+        assertEquals(3, projection.getFields().size());
+        assertEquals("type,uuid,full_name,owner.uuid",
+            projection.toQueryValue());
+        assertEquals(
+            "next,size,page,pagelen,values.type,values.uuid,"
+            + "values.full_name,values.owner.uuid",
+            projection.toPageQueryValue());
+        assertEquals(projection,
+            Projection.fields("uuid", "full_name", "owner.uuid"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> Projection.fields());
+        assertThrows(IllegalArgumentException.class,
+            () -> Projection.fields("links,rendered"));
+    }
+
+    /**
+     * Tests {@link BitbucketClient#get(URI, java.util.function.UnaryOperator,
+     * Projection, Class, MediaType...)}.
+     */
+    @Test
+    void testGet1()
+    {
+        RepositoryView view = client.get(base,
+            (target) -> target.path("repository"),
+            Projection.fields("full_name"), RepositoryView.class);
+        assertEquals("a/b", view.fullName);
+        assertEquals("fields=type,full_name", queries.get("/repository"));
+    }
+
+    /**
+     * Tests {@link BitbucketClient#getList(URI,
+     * java.util.function.UnaryOperator, Projection, Class)}.
+     */
+    @Test
+    void testGetList1()
+    {
+        List<RepositoryView> list = client.getList(base,
+            (target) -> target.path("list"),
+            Projection.fields("full_name"), RepositoryView.class);
+        assertEquals(1, list.size());
+        assertEquals("a/b", list.get(0).fullName);
+        assertEquals(
+            "fields=next,size,page,pagelen,values.type,values.full_name",
+            queries.get("/list"));
+    }
+}
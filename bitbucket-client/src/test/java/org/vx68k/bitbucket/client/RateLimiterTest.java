@@ -0,0 +1,166 @@
+/*
+ * RateLimiterTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RateLimiter}.
+ *
+ * @author Kaz Nishimura
+ */
+class RateLimiterTest
+{
+    /**
+     * Tests pacing by the token bucket.
+     */
+    @Test
+    void testAcquire1() throws InterruptedException
+    {
+        RateLimiter limiter = new RateLimiter();
+        limiter.setRate(100);
+        limiter.setBurst(1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire(RequestPriority.INTERACTIVE);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(90));
+    }
+
+    /**
+     * Tests that interactive requests are granted before background ones.
+     */
+    @Test
+    void testAcquireAsync1()
+    {
+        RateLimiter limiter = new RateLimiter();
+        limiter.setRate(50);
+        limiter.setBurst(1);
+        limiter.pause(50);
+
+        List<RequestPriority> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+        RequestPriority[] priorities = {
+            RequestPriority.BACKGROUND,
+            RequestPriority.BACKGROUND,
+            RequestPriority.INTERACTIVE,
+            RequestPriority.INTERACTIVE,
+        };
+        for (int i = 0; i < futures.length; i++) {
+            RequestPriority priority = priorities[i];
+            futures[i] = limiter.acquireAsync(priority)
+                .thenRun(() -> order.add(priority)).toCompletableFuture();
+        }
+        CompletableFuture.allOf(futures).join();
+        assertEquals(RequestPriority.INTERACTIVE, order.get(0));
+        assertEquals(RequestPriority.INTERACTIVE, order.get(1));
+        assertEquals(RequestPriority.BACKGROUND, order.get(2));
+        assertEquals(RequestPriority.BACKGROUND, order.get(3));
+    }
+
+    /**
+     * Tests that waiting requests are granted on the executor.
+     */
+    @Test
+    void testAcquireAsync2()
+    {
+        RateLimiter limiter = new RateLimiter();
+        limiter.pause(20);
+        assertFalse(limiter.acquireAsync(RequestPriority.INTERACTIVE)
+            .thenApply((value) -> Thread.currentThread().getName())
+            .toCompletableFuture().join().equals("bitbucket-client-timer"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(
+            (task) -> new Thread(task, "test-grant"));
+        try {
+            limiter.setExecutor(executor);
+            limiter.pause(20);
+            assertEquals("test-grant",
+                limiter.acquireAsync(RequestPriority.INTERACTIVE)
+                .thenApply((value) -> Thread.currentThread().getName())
+                .toCompletableFuture().join());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests {@link RateLimiter#pause}.
+     */
+    @Test
+    void testPause1()
+    {
+        RateLimiter limiter = new RateLimiter();
+        limiter.pause(10000);
+        CompletableFuture<Void> granted = limiter
+            .acquireAsync(RequestPriority.INTERACTIVE).toCompletableFuture();
+        assertFalse(granted.isDone());
+        granted.cancel(false);
+    }
+
+    /**
+     * Tests {@link RateLimiter#updateBudget}.
+     */
+    @Test
+    void testUpdateBudget1()
+    {
+        RateLimiter limiter = new RateLimiter();
+        limiter.updateBudget(0, System.currentTimeMillis() / 1000 + 60);
+        CompletableFuture<Void> granted = limiter
+            .acquireAsync(RequestPriority.INTERACTIVE).toCompletableFuture();
+        assertFalse(granted.isDone());
+        granted.cancel(false);
+    }
+
+    /**
+     * Tests {@link RateLimiter#parseRetryAfter}.
+     */
+    @Test
+    void testParseRetryAfter1()
+    {
+        assertEquals(RateLimiter.DEFAULT_RETRY_AFTER,
+            RateLimiter.parseRetryAfter(null));
+        assertEquals(RateLimiter.DEFAULT_RETRY_AFTER,
+            RateLimiter.parseRetryAfter("soon"));
+        assertEquals(120000, RateLimiter.parseRetryAfter("120"));
+        assertEquals(0, RateLimiter.parseRetryAfter("-1"));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.now().plusSeconds(30));
+        long delay = RateLimiter.parseRetryAfter(date);
+        assertTrue(delay > 25000 && delay <= 30000);
+    }
+}
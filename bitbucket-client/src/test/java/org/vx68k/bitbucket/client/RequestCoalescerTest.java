@@ -0,0 +1,132 @@
+/*
+ * RequestCoalescerTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RequestCoalescer}.
+ *
+ * @author Kaz Nishimura
+ */
+class RequestCoalescerTest
+{
+    /**
+     * Tests {@link RequestCoalescer#execute} with concurrent requests.
+     */
+    @Test
+    void testExecute1() throws Exception
+    {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        AtomicInteger exchanges = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            futures.add(callers.submit(() -> coalescer.execute("key", () -> {
+                exchanges.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            })));
+            started.await();
+            for (int i = 0; i < 3; i++) {
+                futures.add(callers.submit(() -> coalescer.execute("key",
+                    () -> {
+                        exchanges.incrementAndGet();
+                        return new Object();
+                    })));
+            }
+            while (coalescer.getCoalescedCount() < 3) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            release.countDown();
+            for (Future<Object> future : futures) {
+                assertSame(result, future.get());
+            }
+        }
+        finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, exchanges.get());
+        assertEquals(3, coalescer.getCoalescedCount());
+    }
+
+    /**
+     * Tests {@link RequestCoalescer#execute} with sequential requests.
+     */
+    @Test
+    void testExecute2()
+    {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        assertEquals("a", coalescer.execute("key", () -> "a"));
+        assertEquals("b", coalescer.execute("key", () -> "b"));
+        assertEquals(0, coalescer.getCoalescedCount());
+
+        assertThrows(IllegalStateException.class,
+            () -> coalescer.execute("key", () -> {
+                throw new IllegalStateException();
+            }));
+        assertEquals("c", coalescer.execute("key", () -> "c"));
+    }
+
+    /**
+     * Tests {@link RequestCoalescer#executeAsync}.
+     */
+    @Test
+    void testExecuteAsync1()
+    {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> exchange = new CompletableFuture<>();
+        CompletableFuture<String> first =
+            coalescer.executeAsync("key", () -> exchange)
+                .toCompletableFuture();
+        CompletableFuture<String> second =
+            coalescer.<String>executeAsync("key",
+                () -> CompletableFuture.completedFuture("other"))
+                .toCompletableFuture();
+        exchange.complete("value");
+        assertEquals("value", first.join());
+        assertEquals("value", second.join());
+        assertEquals(1, coalescer.getCoalescedCount());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * RetryPolicyTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+import javax.json.bind.JsonbException;
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.ServerErrorException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RetryPolicy}.
+ *
+ * @author Kaz Nishimura
+ */
+class RetryPolicyTest
+{
+    /**
+     * Tests {@link RetryPolicy#isRetryable}.
+     */
+    @Test
+    void testIsRetryable1()
+    {
+        RetryPolicy policy = new RetryPolicy();
+        assertTrue(policy.isRetryable(
+            new ProcessingException(new ConnectException())));
+        assertTrue(policy.isRetryable(new InternalServerErrorException()));
+        assertFalse(policy.isRetryable(new ServerErrorException(501)));
+        assertFalse(policy.isRetryable(new NotFoundException()));
+        assertFalse(policy.isRetryable(
+            new ProcessingException(new JsonbException("test"))));
+    }
+
+    /**
+     * Tests {@link RetryPolicy#getBackoff}.
+     */
+    @Test
+    void testGetBackoff1()
+    {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setInitialDelay(100);
+        policy.setMaxDelay(1000);
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.getBackoff(0);
+            assertTrue(delay >= 0 && delay <= 100);
+            delay = policy.getBackoff(2);
+            assertTrue(delay >= 0 && delay <= 400);
+            delay = policy.getBackoff(100);
+            assertTrue(delay >= 0 && delay <= 1000);
+        }
+    }
+
+    /**
+     * Tests {@link RetryPolicy#getBackoff} without a maximum delay.
+     */
+    @Test
+    void testGetBackoff2()
+    {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setInitialDelay(100);
+        policy.setMaxDelay(Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.getBackoff(0);
+            assertTrue(delay >= 0 && delay <= 100);
+            delay = policy.getBackoff(100);
+            assertTrue(delay >= 0);
+        }
+    }
+
+    /**
+     * Tests {@link RetryPolicy#getHedgeDelay}.
+     */
+    @Test
+    void testGetHedgeDelay1()
+    {
+        RetryPolicy policy = new RetryPolicy();
+        for (int i = 1; i <= 100; i++) {
+            policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(-1, policy.getHedgeDelay());
+
+        policy.setHedgePercentile(0.95);
+        assertEquals(95, policy.getHedgeDelay());
+    }
+}
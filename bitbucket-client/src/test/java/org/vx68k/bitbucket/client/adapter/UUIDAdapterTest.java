@@ -0,0 +1,104 @@
+/*
+ * UUIDAdapterTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link UUIDAdapter}.
+ *
+ * @author Kaz Nishimura
+ */
+final class UUIDAdapterTest
+{
+    private static final String UUID1 = "da0453e5-4546-445a-adde-95e3a505e875";
+
+    @AfterEach
+    void tearDown()
+    {
+        UUIDAdapter.setInterning(false);
+    }
+
+    /**
+     * Tests {@link UUIDAdapter#adaptFromJson}.
+     */
+    @Test
+    void testAdaptFromJson1()
+    {
+        UUIDAdapter adapter = new UUIDAdapter();
+        assertNull(adapter.adaptFromJson(null));
+        assertEquals(UUID.fromString(UUID1), adapter.adaptFromJson(UUID1));
+        assertEquals(UUID.fromString(UUID1),
+            adapter.adaptFromJson("{" + UUID1 + "}"));
+        assertEquals(UUID.fromString(UUID1),
+            adapter.adaptFromJson("{" + UUID1.toUpperCase() + "}"));
+        assertEquals(UUID.fromString("1-2-3-4-5"),
+            adapter.adaptFromJson("{1-2-3-4-5}"));
+        assertEquals(UUID1, adapter.adaptToJson(adapter.adaptFromJson(UUID1)));
+    }
+
+    /**
+     * Tests {@link UUIDAdapter#adaptFromJson} with invalid UUIDs.
+     */
+    @Test
+    void testAdaptFromJson2()
+    {
+        UUIDAdapter adapter = new UUIDAdapter();
+        String[] strings = {
+            "",
+            "{",
+            "{}",
+            "{" + UUID1,
+            UUID1.replace('a', 'g'),
+            UUID1.replace('-', '_'),
+            UUID1.replace('e', '\uff45'),
+        };
+        for (String string : strings) {
+            assertThrows(IllegalArgumentException.class,
+                () -> adapter.adaptFromJson(string), string);
+        }
+    }
+
+    /**
+     * Tests {@link UUIDAdapter#adaptFromJson} with interning.
+     */
+    @Test
+    void testAdaptFromJson3()
+    {
+        UUIDAdapter adapter = new UUIDAdapter();
+        assertNotSame(adapter.adaptFromJson(UUID1),
+            adapter.adaptFromJson(UUID1));
+
+        UUIDAdapter.setInterning(true);
+        UUID uuid = adapter.adaptFromJson("{" + UUID1 + "}");
+        assertEquals(UUID.fromString(UUID1), uuid);
+        assertSame(uuid, adapter.adaptFromJson(UUID1));
+        assertSame(uuid, new UUIDAdapter().adaptFromJson(UUID1));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * ModelReadersTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.bind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.client.internal.ClientBranch;
+import org.vx68k.bitbucket.client.internal.ClientCommit;
+import org.vx68k.bitbucket.client.internal.ClientIssue;
+import org.vx68k.bitbucket.client.internal.ClientRendered;
+import org.vx68k.bitbucket.client.internal.ClientRepository;
+
+/**
+ * Unit tests for {@link ModelReaders}.
+ *
+ * @author Kaz Nishimura
+ */
+final class ModelReadersTest
+{
+    /**
+     * Tests {@link ModelReaders#get}.
+     */
+    @Test
+    void testGet1()
+    {
+        assertNotNull(ModelReaders.get(ClientIssue.class));
+        assertNotNull(ModelReaders.get(ClientRepository.class));
+        assertNotNull(ModelReaders.get(ClientCommit.class));
+        assertNotNull(ModelReaders.get(ClientBranch.class));
+        assertEquals(ClientIssue.class,
+            ModelReaders.get(ClientIssue.class).getType());
+        assertNull(ModelReaders.get(String.class));
+    }
+
+    /**
+     * Tests {@link ModelReaders#read} with unknown properties.
+     */
+    @Test
+    void testRead1()
+    {
+        ClientRendered rendered = ModelReaders.read(
+            ModelReaders.get(ClientRendered.class),
+            new ByteArrayInputStream(("{\"unknown\":{\"a\":[1,{}]},"
+                + "\"raw\":\"text\",\"other\":[[]],\"markup\":null}")
+                .getBytes(StandardCharsets.UTF_8)));
+        assertEquals("text", rendered.getRaw());
+        assertNull(rendered.getMarkup());
+    }
+
+    /**
+     * Tests {@link ModelReaders#readSliced}.
+     */
+    @Test
+    void testReadSliced1()
+    {
+        ClientCommit commit = ModelReaders.readSliced(
+            ModelReaders.get(ClientCommit.class),
+            ("{\"type\":\"commit\",\"summary\":{\"type\":\"rendered\","
+                + "\"raw\":\"Fix \u00e9\"},\"hash\":\"abc\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        assertEquals("abc", commit.getHash());
+        assertEquals("Fix \u00e9", commit.getSummary().getRaw());
+        assertEquals("rendered",
+            new ClientRendered((ClientRendered) commit.getSummary()).getType());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * TimestampDecoderTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.bind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TimestampDecoder}.
+ *
+ * @author Kaz Nishimura
+ */
+final class TimestampDecoderTest
+{
+    /**
+     * Tests {@link TimestampDecoder#decode} with ISO timestamps.
+     */
+    @Test
+    void testDecode1()
+    {
+        String[] texts = {
+            "2015-01-25T00:50:30.346399Z",
+            "2015-01-25T00:50:30.346399+00:00",
+            "2001-01-01T01:23:45.678901+09:00",
+            "2001-01-01T01:23:45-05:30",
+            "2001-01-01T01:23:45.1+05:45",
+            "2001-01-01T01:23:45.123456789-12:00",
+            "2020-02-29T23:59:59.000000+14:00",
+            "2001-01-01T01:23:45+01:23",
+            "2001-01-01T01:23Z",
+            "2001-01-01T01:23:45.Z",
+            "+12345-01-01T01:23:45Z",
+        };
+        for (String text : texts) {
+            assertEquals(OffsetDateTime.parse(text),
+                TimestampDecoder.decode(text), text);
+        }
+    }
+
+    /**
+     * Tests {@link TimestampDecoder#decode} with offsets without colons.
+     */
+    @Test
+    void testDecode2()
+    {
+        assertEquals(OffsetDateTime.parse("2001-01-01T01:23:45.678+09:00"),
+            TimestampDecoder.decode("2001-01-01T01:23:45.678+0900"));
+        assertEquals(OffsetDateTime.parse("2001-01-01T01:23:45-03:30"),
+            TimestampDecoder.decode("2001-01-01T01:23:45-0330"));
+    }
+
+    /**
+     * Tests {@link TimestampDecoder#decode} for shared offsets.
+     */
+    @Test
+    void testDecode3()
+    {
+        assertSame(ZoneOffset.UTC,
+            TimestampDecoder.decode("2001-01-01T00:00:00+00:00").getOffset());
+        assertSame(
+            TimestampDecoder.decode("2001-01-01T00:00:00+09:00").getOffset(),
+            TimestampDecoder.decode("2002-01-01T00:00:00+0900").getOffset());
+    }
+
+    /**
+     * Tests {@link TimestampDecoder#decode} with invalid timestamps.
+     */
+    @Test
+    void testDecode4()
+    {
+        String[] texts = {
+            "",
+            "2001-13-01T00:00:00Z",
+            "2001-02-30T00:00:00Z",
+            "2001-01-01T24:00:00Z",
+            "2001-01-01T00:00:00",
+            "2001-01-01T00:00:00.1234567890Z",
+            "2001-01-01T00:00:00+19:00",
+            "2001-01-01T00:00:00+09:60",
+            "2001-01-01T00:00:00Zx",
+            "2001-0a-01T00:00:00Z",
+        };
+        for (String text : texts) {
+            assertThrows(DateTimeParseException.class,
+                () -> TimestampDecoder.decode(text), text);
+        }
+    }
+
+    /**
+     * Tests {@link TimestampDecoder#decode} with missing offsets.
+     */
+    @Test
+    void testDecode5()
+    {
+        String[] texts = {
+            "2020-01-01T00:00:00.123",
+            "2020-01-01T00:00:00.123456789",
+            "2020-01-01T00:00:00.",
+        };
+        for (String text : texts) {
+            assertThrows(DateTimeParseException.class,
+                () -> TimestampDecoder.decode(text), text);
+        }
+    }
+
+    /**
+     * Tests {@link TimestampDecoder#decode} with {@code Z} and {@code
+     * +hh:mm} offsets after fractions.
+     */
+    @Test
+    void testDecode6()
+    {
+        assertEquals(OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 123000000,
+            ZoneOffset.UTC),
+            TimestampDecoder.decode("2020-01-01T00:00:00.123Z"));
+        assertEquals(OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 123000000,
+            ZoneOffset.ofHoursMinutes(9, 30)),
+            TimestampDecoder.decode("2020-01-01T00:00:00.123+09:30"));
+        assertEquals(OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 123000000,
+            ZoneOffset.ofHoursMinutes(-9, -30)),
+            TimestampDecoder.decode("2020-01-01T00:00:00.123-09:30"));
+    }
+
+    /**
+     * Tests {@link TimestampDecoder#decode} with timestamps truncated in
+     * the middle of fields.
+     * Each of them shall be decoded as {@link OffsetDateTime#parse} does.
+     */
+    @Test
+    void testDecode7()
+    {
+        String[] texts = {
+            "2020-01-01T00:00:00.123+09:30",
+            "2020-01-01T00:00:00.123Z",
+            "2020-01-01T00:00:00-0930",
+        };
+        for (String text : texts) {
+            for (int i = 0; i < text.length(); i++) {
+                String truncated = text.substring(0, i);
+                OffsetDateTime expected;
+                try {
+                    expected = OffsetDateTime.parse(truncated);
+                }
+                catch (final DateTimeParseException e) {
+                    assertThrows(DateTimeParseException.class,
+                        () -> TimestampDecoder.decode(truncated), truncated);
+                    continue;
+                }
+                assertEquals(expected, TimestampDecoder.decode(truncated),
+                    truncated);
+            }
+        }
+    }
+}
@@ -20,8 +20,10 @@
 
 package org.vx68k.bitbucket.client.internal;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 // import java.io.InputStream;
 import javax.json.bind.Jsonb;
@@ -147,4 +149,24 @@ final class ClientBranchTest
         assertNotNull(branch1.getHeads());
         assertEquals(0, branch1.getHeads().length);
     }
+
+    /**
+     * Tests {@link ClientBranch#ClientBranch(ClientBranch)}.
+     */
+    @Test
+    void testCopy1()
+    {
+        String string1 = "{\"type\":\"branch\",\"name\":\"master\","
+            + "\"target\":{\"hash\":\"0123456789abcdef\"},"
+            + "\"merge_strategies\":[\"squash\"]}";
+        ClientBranch branch1 = jsonb.fromJson(string1, ClientBranch.class);
+        ClientBranch branch2 = new ClientBranch(branch1);
+        assertEquals("branch", branch2.getType());
+        assertEquals("master", branch2.getName());
+        assertNotNull(branch2.getTarget());
+        assertNotSame(branch1.getTarget(), branch2.getTarget());
+        assertEquals("0123456789abcdef", branch2.getTarget().getHash());
+        assertArrayEquals(new String[] {"squash"},
+            branch2.getMergeStrategies());
+    }
 }
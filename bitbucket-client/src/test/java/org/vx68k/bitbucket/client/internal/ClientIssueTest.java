@@ -312,6 +312,36 @@ final class ClientIssueTest
         assertEquals(SAMPLE1_CREATED, issue1.getCreated());
     }
 
+    /**
+     * Tests {@link ClientIssue#getCreated()}.
+     */
+    @Test
+    void testCreated4()
+    {
+        String string1 = "{\"type\":\"issue\",\"created_on\":\"2001-01-01T01:23:45+0900\",\"edited_on\":null}";
+        ClientIssue issue1 = jsonb.fromJson(string1, ClientIssue.class);
+        assertEquals(OffsetDateTime.parse("2001-01-01T01:23:45+09:00"), issue1.getCreated());
+        assertNull(issue1.getEdited());
+    }
+
+    /**
+     * Tests {@link ClientIssue#getCreated()}.
+     */
+    @Test
+    void testCreated5()
+    {
+        String string1 = "{\"type\":\"issue\",\"created_on\":\"2001-13-01T01:23:45Z\"}";
+        ClientIssue issue1 = null;
+        try {
+            issue1 = jsonb.fromJson(string1, ClientIssue.class);
+            fail();
+        }
+        catch (final JsonbException e) {
+            Logger.getGlobal().info("Caught an exception as expected");
+        }
+        assertNull(issue1);
+    }
+
     /**
      * Tests {@link ClientIssue#getUpdated()}.
      */
@@ -0,0 +1,320 @@
+/*
+ * BitbucketClientReadersTest.java - class BitbucketClientCommitTest
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.BitbucketAccount;
+import org.vx68k.bitbucket.BitbucketCommit;
+import org.vx68k.bitbucket.BitbucketRendered;
+import org.vx68k.bitbucket.BitbucketRepository;
+import org.vx68k.bitbucket.client.bind.ModelReader;
+import org.vx68k.bitbucket.client.bind.ModelReaders;
+
+/**
+ * Unit tests for {@link ClientReaders}.
+ * The model readers are checked against JSON-B with the same samples.
+ *
+ * @author Kaz Nishimura
+ */
+final class ClientReadersTest
+{
+    private Jsonb jsonb;
+
+    @BeforeEach
+    void setUp()
+    {
+        jsonb = JsonbBuilder.create();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        jsonb.close();
+        jsonb = null;
+    }
+
+    private byte[] sample(final String name) throws IOException
+    {
+        try (InputStream stream =
+            getClass().getResourceAsStream("samples/" + name)) {
+            byte[] buffer = new byte[8192];
+            int length = 0;
+            for (int n = stream.read(buffer, length, buffer.length - length);
+                n > 0;
+                n = stream.read(buffer, length, buffer.length - length)) {
+                length += n;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, 2 * length);
+                }
+            }
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private <T> T read(final Class<T> type, final byte[] content)
+    {
+        ModelReader<T> reader = ModelReaders.get(type);
+        return ModelReaders.read(reader, new ByteArrayInputStream(content));
+    }
+
+    private <T> T read(final Class<T> type, final String string)
+    {
+        return read(type, string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertAccountEquals(final BitbucketAccount expected,
+        final BitbucketAccount actual)
+    {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getUuid(), actual.getUuid());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getDisplayName(), actual.getDisplayName());
+        assertEquals(expected.getWebsite(), actual.getWebsite());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.getCreated(), actual.getCreated());
+        assertEquals(expected.getLinks(), actual.getLinks());
+    }
+
+    private static void assertRenderedEquals(
+        final BitbucketRendered expected, final BitbucketRendered actual)
+    {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.getMarkup(), actual.getMarkup());
+        assertEquals(expected.getRaw(), actual.getRaw());
+        assertEquals(expected.getHtml(), actual.getHtml());
+    }
+
+    private static void assertRepositoryEquals(
+        final BitbucketRepository expected, final BitbucketRepository actual)
+    {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.getUuid(), actual.getUuid());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getFullName(), actual.getFullName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.isPrivateAccess(), actual.isPrivateAccess());
+        assertEquals(expected.getForkPolicy(), actual.getForkPolicy());
+        assertEquals(expected.getWebsite(), actual.getWebsite());
+        assertEquals(expected.getLanguage(), actual.getLanguage());
+        assertEquals(expected.getCreated(), actual.getCreated());
+        assertEquals(expected.getUpdated(), actual.getUpdated());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.isIssuesEnabled(), actual.isIssuesEnabled());
+        assertEquals(expected.isWikiEnabled(), actual.isWikiEnabled());
+        assertAccountEquals(expected.getOwner(), actual.getOwner());
+        if (expected.getProject() == null) {
+            assertNull(actual.getProject());
+        }
+        else {
+            assertEquals(expected.getProject().getUuid(),
+                actual.getProject().getUuid());
+            assertEquals(expected.getProject().getKey(),
+                actual.getProject().getKey());
+            assertEquals(expected.getProject().getName(),
+                actual.getProject().getName());
+        }
+        if (expected.getMainBranch() == null) {
+            assertNull(actual.getMainBranch());
+        }
+        else {
+            assertEquals(expected.getMainBranch().getName(),
+                actual.getMainBranch().getName());
+        }
+    }
+
+    private static void assertCommitEquals(final BitbucketCommit expected,
+        final BitbucketCommit actual)
+    {
+        assertEquals(expected.getHash(), actual.getHash());
+        assertEquals(expected.getDate(), actual.getDate());
+        assertEquals(expected.getMessage(), actual.getMessage());
+        assertRepositoryEquals(expected.getRepository(),
+            actual.getRepository());
+        assertRenderedEquals(expected.getSummary(), actual.getSummary());
+        BitbucketCommit[] parents = expected.getParents();
+        if (parents == null) {
+            assertNull(actual.getParents());
+        }
+        else {
+            assertEquals(parents.length, actual.getParents().length);
+            for (int i = 0; i < parents.length; i++) {
+                assertCommitEquals(parents[i], actual.getParents()[i]);
+            }
+        }
+    }
+
+    /**
+     * Tests the reader of {@link ClientIssue}.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    @Test
+    void testIssue1() throws IOException
+    {
+        byte[] content = sample("issue1.json");
+        ClientIssue expected = jsonb.fromJson(
+            new ByteArrayInputStream(content), ClientIssue.class);
+        ClientIssue actual = read(ClientIssue.class, content);
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getKind(), actual.getKind());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getCreated(), actual.getCreated());
+        assertEquals(expected.getUpdated(), actual.getUpdated());
+        assertEquals(expected.getEdited(), actual.getEdited());
+        assertEquals(expected.getVotes(), actual.getVotes());
+        assertEquals(expected.getWatches(), actual.getWatches());
+        assertRepositoryEquals(expected.getRepository(),
+            actual.getRepository());
+        assertRenderedEquals(expected.getContent(), actual.getContent());
+        assertAccountEquals(expected.getReporter(), actual.getReporter());
+        assertAccountEquals(expected.getAssignee(), actual.getAssignee());
+    }
+
+    /**
+     * Tests the reader of {@link ClientRepository}.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    @Test
+    void testRepository1() throws IOException
+    {
+        byte[] content = sample("repository1.json");
+        ClientRepository expected = jsonb.fromJson(
+            new ByteArrayInputStream(content), ClientRepository.class);
+        ClientRepository actual = read(ClientRepository.class, content);
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getScm(), actual.getScm());
+        assertRepositoryEquals(expected, actual);
+        assertTrue(actual.getOwner() instanceof ClientTeamAccount);
+    }
+
+    /**
+     * Tests the reader of {@link ClientCommit}.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    @Test
+    void testCommit1() throws IOException
+    {
+        byte[] content = sample("commit1.json");
+        ClientCommit expected = jsonb.fromJson(
+            new ByteArrayInputStream(content), ClientCommit.class);
+        ClientCommit actual = read(ClientCommit.class, content);
+        assertEquals(expected.getType(), actual.getType());
+        assertCommitEquals(expected, actual);
+    }
+
+    /**
+     * Tests the reader of {@link ClientTeamAccount}.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    @Test
+    void testTeamAccount1() throws IOException
+    {
+        byte[] content = sample("team1.json");
+        ClientTeamAccount expected = jsonb.fromJson(
+            new ByteArrayInputStream(content), ClientTeamAccount.class);
+        ClientTeamAccount actual = read(ClientTeamAccount.class, content);
+        assertAccountEquals(expected, actual);
+        assertEquals(expected.getType(), actual.getType());
+    }
+
+    /**
+     * Tests the reader of {@link ClientBranch}.
+     */
+    @Test
+    void testBranch1()
+    {
+        String string = "{\"type\":\"branch\",\"name\":\"master\","
+            + "\"merge_strategies\":[\"merge_commit\",\"squash\"],"
+            + "\"default_merge_strategy\":\"squash\","
+            + "\"target\":{\"type\":\"commit\",\"hash\":\"0123abcd\","
+            + "\"date\":\"2001-01-01T01:23:45+09:00\",\"parents\":[]},"
+            + "\"heads\":null,\"links\":{}}";
+        ClientBranch expected = jsonb.fromJson(string, ClientBranch.class);
+        ClientBranch actual = read(ClientBranch.class, string);
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDefaultMergeStrategy(),
+            actual.getDefaultMergeStrategy());
+        assertArrayEquals(expected.getMergeStrategies(),
+            actual.getMergeStrategies());
+        assertCommitEquals(expected.getTarget(), actual.getTarget());
+        assertNull(actual.getHeads());
+    }
+
+    /**
+     * Tests the readers with a {@code null} JSON text.
+     */
+    @Test
+    void testNull1()
+    {
+        assertNull(read(ClientIssue.class, "null"));
+    }
+
+    /**
+     * Tests the readers with invalid values.
+     */
+    @Test
+    void testInvalid1()
+    {
+        assertThrows(JsonbException.class,
+            () -> read(ClientRepository.class, "{\"type\":\"other\"}"));
+        assertThrows(JsonbException.class,
+            () -> read(ClientTeamAccount.class, "{\"type\":\"user\"}"));
+        assertThrows(JsonbException.class,
+            () -> read(ClientIssue.class, "{\"id\":\"1\"}"));
+        assertThrows(JsonbException.class,
+            () -> read(ClientIssue.class, "{\"id\":1"));
+        assertThrows(JsonbException.class,
+            () -> read(ClientIssue.class, "[]"));
+    }
+}
@@ -21,9 +21,12 @@
 package org.vx68k.bitbucket.client.internal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.UUID;
 import javax.json.bind.Jsonb;
 import javax.json.bind.JsonbBuilder;
@@ -32,6 +35,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.vx68k.bitbucket.BitbucketBranch;
 
 /**
  * Unit tests for {@link ClientRepository}.
@@ -138,6 +142,74 @@ final class ClientRepositoryTest
         assertEquals(SAMPLE1_UUID, repository1.getUuid());
     }
 
+    /**
+     * Tests {@link ClientRepository#getOwner()}.
+     */
+    @Test
+    void testOwner1()
+    {
+        String string1 = "{\"owner\":{\"uuid\":\"{01234567-89ab-cdef-0123-456789abcdef}\","
+            + "\"username\":\"user1\",\"is_staff\":true,\"type\":\"user\"}}";
+        ClientRepository repository1 = jsonb.fromJson(string1, ClientRepository.class);
+        ClientUserAccount owner1 = (ClientUserAccount) repository1.getOwner();
+        assertEquals(UUID.fromString("01234567-89ab-cdef-0123-456789abcdef"), owner1.getUuid());
+        assertEquals("user1", owner1.getUsername());
+        assertEquals("user", owner1.getType());
+        assertTrue(owner1.isStaff());
+    }
+
+    /**
+     * Tests {@link ClientRepository#getOwner()}.
+     */
+    @Test
+    void testOwner2()
+    {
+        ClientRepository repository1 = jsonb.fromJson(sample1, ClientRepository.class);
+        ClientTeamAccount owner1 = (ClientTeamAccount) repository1.getOwner();
+        assertEquals(UUID.fromString("7590db3d-195a-40a0-aeab-1d8601a6298f"), owner1.getUuid());
+        assertEquals("VX68k.org", owner1.getDisplayName());
+        assertEquals("team", owner1.getType());
+        assertEquals(URI.create("https://api.bitbucket.org/2.0/teams/%7B7590db3d-195a-40a0-aeab-1d8601a6298f%7D"),
+            owner1.getLinks().get("self"));
+    }
+
+    /**
+     * Tests {@link ClientRepository#getOwner()}.
+     */
+    @Test
+    void testOwner3()
+    {
+        String string1 = "{\"owner\":{\"username\":\"user1\"}}";
+        ClientRepository repository1 = jsonb.fromJson(string1, ClientRepository.class);
+        assertNull(repository1.getOwner());
+    }
+
+    /**
+     * Tests {@link ClientRepository#getMainBranch()}.
+     */
+    @Test
+    void testMainBranch1()
+    {
+        String string1 = "{\"type\":\"repository\"}";
+        ClientRepository repository1 =
+            jsonb.fromJson(string1, ClientRepository.class);
+        assertNull(repository1.getMainBranch());
+    }
+
+    /**
+     * Tests {@link ClientRepository#getMainBranch()}.
+     */
+    @Test
+    void testMainBranch2()
+    {
+        ClientRepository repository1 =
+            jsonb.fromJson(sample1, ClientRepository.class);
+        BitbucketBranch branch1 = repository1.getMainBranch();
+        assertNotNull(branch1);
+        assertEquals("branch", branch1.getType());
+        assertEquals("master", branch1.getName());
+    }
+
     /**
      * Tests {@link ClientRepository#getSCM}.
      */
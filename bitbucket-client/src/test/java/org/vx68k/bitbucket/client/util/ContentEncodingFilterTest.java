@@ -0,0 +1,204 @@
+/*
+ * ContentEncodingFilterTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.json.JsonObject;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ContentEncodingFilter}.
+ *
+ * @author Kaz Nishimura
+ */
+final class ContentEncodingFilterTest
+{
+    private HttpServer server;
+
+    private URI base;
+
+    private byte[] body;
+
+    private ContentEncodingFilter filter;
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        StringBuilder json = new StringBuilder("{\"values\":[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\":\"issue\",\"id\":").append(i).append('}');
+        }
+        json.append("]}");
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", (exchange) -> {
+            String accepted =
+                exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] entity = body;
+            if (accepted != null && accepted.contains("gzip")) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (OutputStream out = new GZIPOutputStream(bytes)) {
+                    out.write(body);
+                }
+                entity = bytes.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders()
+                .add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, entity.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(entity);
+            }
+        });
+        server.createContext("/empty", (exchange) -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/none", (exchange) -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        base = URI.create(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        filter = new ContentEncodingFilter();
+        client = ClientBuilder.newBuilder()
+            .register(filter)
+            .register(JsonStructureMessageBodyReader.class)
+            .build();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        client.close();
+        server.stop(0);
+    }
+
+    /**
+     * Tests reading a compressed entity.
+     */
+    @Test
+    void testRead1()
+    {
+        List<TransferEvent> events = new ArrayList<>();
+        filter.addTransferListener(events::add);
+
+        JsonObject json = client.target(base)
+            .request(MediaType.APPLICATION_JSON_TYPE).get(JsonObject.class);
+        assertEquals(1000, json.getJsonArray("values").size());
+
+        assertEquals(1, events.size());
+        TransferEvent event = events.get(0);
+        assertEquals(base, event.getUri());
+        assertEquals("gzip", event.getContentEncoding());
+        assertEquals(body.length, event.getDecodedBytes());
+        assertTrue(event.getWireBytes() < event.getDecodedBytes());
+        assertEquals(event.getWireBytes(), filter.getWireBytes());
+    }
+
+    /**
+     * Tests reading an uncompressed entity.
+     */
+    @Test
+    void testRead2()
+    {
+        List<TransferEvent> events = new ArrayList<>();
+        filter.addTransferListener(events::add);
+
+        JsonObject json = client.target(base)
+            .request(MediaType.APPLICATION_JSON_TYPE)
+            .header("Accept-Encoding", "identity")
+            .get(JsonObject.class);
+        assertEquals(1000, json.getJsonArray("values").size());
+
+        assertEquals(1, events.size());
+        TransferEvent event = events.get(0);
+        assertNull(event.getContentEncoding());
+        assertEquals(body.length, event.getWireBytes());
+        assertEquals(body.length, event.getDecodedBytes());
+    }
+
+    /**
+     * Tests reading an empty entity with a content coding.
+     */
+    @Test
+    void testRead3()
+    {
+        List<TransferEvent> events = new ArrayList<>();
+        filter.addTransferListener(events::add);
+
+        String entity = client.target(base.resolve("empty"))
+            .request().get(String.class);
+        assertEquals("", entity);
+
+        assertEquals(1, events.size());
+        TransferEvent event = events.get(0);
+        assertNull(event.getContentEncoding());
+        assertEquals(0, event.getWireBytes());
+        assertEquals(0, event.getDecodedBytes());
+    }
+
+    /**
+     * Tests reading the entity of a response without content.
+     */
+    @Test
+    void testRead4()
+    {
+        try (Response response = client.target(base.resolve("none"))
+            .request().get()) {
+            assertEquals(204, response.getStatus());
+            assertEquals("", response.readEntity(String.class));
+        }
+        try (Response response = client.target(base).request().head()) {
+            assertEquals(200, response.getStatus());
+            assertEquals("", response.readEntity(String.class));
+        }
+    }
+}
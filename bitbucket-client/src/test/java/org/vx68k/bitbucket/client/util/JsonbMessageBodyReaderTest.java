@@ -0,0 +1,108 @@
+/*
+ * JsonbMessageBodyReaderTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package org.vx68k.bitbucket.client.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link JsonbMessageBodyReader}.
+ *
+ * @author Kaz Nishimura
+ */
+final class JsonbMessageBodyReaderTest
+{
+    private static InputStream stream(final String content)
+    {
+        return new ByteArrayInputStream(
+            content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests {@link JsonbMessageBodyReader#getJsonb}.
+     */
+    @Test
+    void testGetJsonb1()
+    {
+        assertSame(JsonbMessageBodyReader.getDefaultJsonb(),
+            new JsonbMessageBodyReader<Object>().getJsonb());
+        assertSame(new JsonbMessageBodyReader<Object>().getJsonb(),
+            new JsonbMessageBodyReader<Object>().getJsonb());
+    }
+
+    /**
+     * Tests {@link JsonbMessageBodyReader#getJsonb} with a builder.
+     */
+    @Test
+    void testGetJsonb2()
+    {
+        JsonbMessageBodyReader<Object> reader =
+            new JsonbMessageBodyReader<>(JsonbBuilder.newBuilder());
+        Jsonb jsonb = reader.getJsonb();
+        assertSame(jsonb, reader.getJsonb());
+    }
+
+    /**
+     * Tests {@link JsonbMessageBodyReader#readFrom} with a generic type.
+     *
+     * @throws IOException if an I/O error occurred
+     */
+    @Test
+    void testReadFrom1() throws IOException
+    {
+        JsonbMessageBodyReader<List<Integer>> reader =
+            new JsonbMessageBodyReader<>();
+        Type genericType = new GenericType<List<Integer>>() { }.getType();
+        @SuppressWarnings("unchecked")
+        Class<List<Integer>> type =
+            (Class<List<Integer>>) (Class<?>) List.class;
+        List<Integer> values = reader.readFrom(type, genericType, null,
+            MediaType.APPLICATION_JSON_TYPE, null, stream("[1,2,3]"));
+        assertEquals(Arrays.asList(1, 2, 3), values);
+    }
+
+    /**
+     * Tests {@link JsonbMessageBodyReader#readFrom} with invalid content.
+     */
+    @Test
+    void testReadFrom2()
+    {
+        JsonbMessageBodyReader<Integer> reader =
+            new JsonbMessageBodyReader<>();
+        assertThrows(IOException.class, () -> reader.readFrom(Integer.class,
+            Integer.class, null, MediaType.APPLICATION_JSON_TYPE, null,
+            stream("{")));
+    }
+}
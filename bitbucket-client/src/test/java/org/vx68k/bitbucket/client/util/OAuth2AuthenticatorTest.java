@@ -0,0 +1,77 @@
+/*
+ * OAuth2AuthenticatorTest.java
+ * Copyright (C) 2020 Kaz Nishimura
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+package org.vx68k.bitbucket.client.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import javax.json.Json;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Form;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link OAuth2Authenticator}.
+ *
+ * @author Kaz Nishimura
+ */
+final class OAuth2AuthenticatorTest
+{
+    private static final URI BASE = URI.create("https://api.example.org/");
+
+    private static final URI TOKEN_ENDPOINT =
+        URI.create("https://example.org/oauth2/token");
+
+    /**
+     * Tests {@link OAuth2Authenticator#requestAccessToken} with a token
+     * requester.
+     */
+    @Test
+    void testRequestAccessToken1()
+    {
+        OAuth2Authenticator authenticator =
+            new OAuth2Authenticator(BASE, TOKEN_ENDPOINT);
+        Client client = ClientBuilder.newClient();
+        try {
+            List<URI> targets = new ArrayList<>();
+            authenticator.setClient(client);
+            authenticator.setTokenRequester((target, entity) -> {
+                targets.add(target.getUri());
+                return Json.createObjectBuilder()
+                    .add("access_token", "token")
+                    .build();
+            });
+            authenticator.requestAccessToken(
+                Entity.form(new Form("grant_type", "client_credentials")));
+            assertEquals(1, targets.size());
+            assertEquals(TOKEN_ENDPOINT, targets.get(0));
+            assertEquals("token", authenticator.getAccessToken());
+            assertNull(authenticator.getRefreshToken());
+        }
+        finally {
+            client.close();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.enterprise.context.SessionScoped;
 import javax.faces.FacesException;
@@ -105,6 +106,15 @@ public class SessionUser implements Serializable
         this.bitbucketClient = bitbucketClient;
     }
 
+    /**
+     * Closes the {@link BitbucketClient} object when the session ends.
+     */
+    @PreDestroy
+    public void destroy()
+    {
+        bitbucketClient.close();
+    }
+
     /**
      * Returns the {@link BitbucketClient} object.
      *